@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.Scope;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import org.netbeans.api.java.source.CompilationInfo;
+import org.netbeans.api.java.source.TreeUtilities;
+import org.netbeans.api.java.source.ui.ElementHeaders;
+
+/**
+ * Chooses the variables in scope that are passed as arguments of the generated invocations. All (parameter,
+ * variable) pairs of a method are ranked at once by exact type, name distance and proximity of the declaration to the
+ * caret, and the best pairs are taken first so that two parameters of the same type get different variables. Type
+ * lookups, assignability and name distances are cached for the whole generation.
+ *
+ * @author Arthur Sadykov
+ */
+final class ArgumentMatcher {
+
+    private static final String ERROR = "<error>"; //NOI18N
+    private static final Comparator<Match> BY_RANK = Comparator
+            .comparing((Match match) -> !match.sameType)
+            .thenComparingInt(match -> match.distance)
+            .thenComparingInt(match -> match.candidate.proximity);
+    private final Types types;
+    private final TreeUtilities treeUtilities;
+    private final CompilationInfo info;
+    private final Scope scope;
+    private final TreePath path;
+    private final List<Candidate> candidates;
+    private final Map<String, TypeMirror> parameterTypes = new HashMap<>();
+    private final Map<String, List<Match>> assignableCandidates = new HashMap<>();
+    private final Map<String, Integer> distances = new HashMap<>();
+    private final Map<ExecutableElement, List<VariableElement>> arguments = new HashMap<>();
+
+    private ArgumentMatcher(CompilationInfo info, Scope scope, TreePath path, List<Candidate> candidates) {
+        this.info = info;
+        this.types = info.getTypes();
+        this.treeUtilities = info.getTreeUtilities();
+        this.scope = scope;
+        this.path = path;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Creates the matcher for the caret position from the scope already computed for it.
+     */
+    static ArgumentMatcher create(CompilationInfo info, Scope scope, int caretPosition) {
+        TreePath path = info.getTreeUtilities().pathFor(caretPosition);
+        List<Candidate> candidates = new ArrayList<>();
+        Iterable<? extends Element> localMembersAndVars = info.getElementUtilities().getLocalMembersAndVars(scope,
+                (e, type) -> {
+                    return e.getKind() == ElementKind.FIELD
+                            || e.getKind() == ElementKind.LOCAL_VARIABLE
+                            || e.getKind() == ElementKind.PARAMETER;
+                });
+        for (Element element : localMembersAndVars) {
+            if (element instanceof VariableElement
+                    && !ERROR.contentEquals(element.getSimpleName())
+                    && element.asType().getKind() != TypeKind.ERROR) {
+                candidates.add(new Candidate((VariableElement) element, candidates.size()));
+            }
+        }
+        return new ArgumentMatcher(info, scope, path, candidates);
+    }
+
+    VariableElement find(String name) {
+        for (Candidate candidate : candidates) {
+            if (candidate.element.getSimpleName().contentEquals(name)) {
+                return candidate.element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the variable chosen for each parameter of the method, or {@code null} where no variable in scope is
+     * assignable to the parameter. The result is kept, so matching a method again costs nothing.
+     */
+    List<VariableElement> match(ExecutableElement method) {
+        return arguments.computeIfAbsent(method, this::assign);
+    }
+
+    private List<VariableElement> assign(ExecutableElement method) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        VariableElement[] arguments = new VariableElement[parameters.size()];
+        List<List<Match>> matchesByParameter = new ArrayList<>(parameters.size());
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            List<Match> parameterMatches = rank(i, parameters.get(i));
+            matchesByParameter.add(parameterMatches);
+            matches.addAll(parameterMatches);
+        }
+        matches.sort(BY_RANK);
+        BitSet usedCandidates = new BitSet(candidates.size());
+        int assigned = 0;
+        for (int i = 0; i < matches.size() && assigned < arguments.length; i++) {
+            Match match = matches.get(i);
+            if (arguments[match.parameter] == null && !usedCandidates.get(match.candidate.proximity)) {
+                arguments[match.parameter] = match.candidate.element;
+                usedCandidates.set(match.candidate.proximity);
+                assigned++;
+            }
+        }
+        for (int i = 0; i < arguments.length; i++) {
+            List<Match> parameterMatches = matchesByParameter.get(i);
+            if (arguments[i] == null && !parameterMatches.isEmpty()) {
+                arguments[i] = parameterMatches.get(0).candidate.element;
+            }
+        }
+        return Arrays.asList(arguments);
+    }
+
+    private List<Match> rank(int index, VariableElement parameter) {
+        String parameterName = parameter.getSimpleName().toString().toLowerCase(Locale.ENGLISH);
+        List<Match> assignable = getAssignableCandidates(parameter.asType().toString());
+        List<Match> matches = new ArrayList<>(assignable.size());
+        for (Match match : assignable) {
+            matches.add(new Match(index, match.candidate, match.sameType, distance(match.candidate, parameterName)));
+        }
+        matches.sort(BY_RANK);
+        return matches;
+    }
+
+    private List<Match> getAssignableCandidates(String typeName) {
+        return assignableCandidates.computeIfAbsent(typeName, name -> {
+            TypeMirror type = type(name);
+            if (type == null) {
+                return Collections.emptyList();
+            }
+            List<Match> assignable = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                TypeMirror candidateType = candidate.element.asType();
+                if (types.isAssignable(candidateType, type)) {
+                    assignable.add(new Match(-1, candidate, isSameType(candidateType, type), 0));
+                }
+            }
+            return assignable;
+        });
+    }
+
+    private int distance(Candidate candidate, String parameterName) {
+        return distances.computeIfAbsent(candidate.name + ':' + parameterName,
+                key -> ElementHeaders.getDistance(candidate.name, parameterName));
+    }
+
+    private TypeMirror type(String typeName) {
+        if (parameterTypes.containsKey(typeName)) {
+            return parameterTypes.get(typeName);
+        }
+        TypeMirror type = null;
+        try {
+            String trimmed = typeName.trim();
+            if (!trimmed.isEmpty()) {
+                SourcePositions[] sourcePositions = new SourcePositions[1];
+                StatementTree statement = treeUtilities.parseStatement("{" + trimmed + " a;}", sourcePositions); //NOI18N
+                if (statement.getKind() == Tree.Kind.BLOCK) {
+                    List<? extends StatementTree> statements = ((BlockTree) statement).getStatements();
+                    if (!statements.isEmpty() && statements.get(0).getKind() == Tree.Kind.VARIABLE) {
+                        treeUtilities.attributeTree(statement, scope);
+                        type = info.getTrees().getTypeMirror(new TreePath(path,
+                                ((VariableTree) statements.get(0)).getType()));
+                    }
+                }
+                if (type == null || type.getKind() == TypeKind.ERROR) {
+                    type = treeUtilities.parseType(trimmed, scope.getEnclosingClass());
+                }
+            }
+        } catch (RuntimeException ex) {
+            type = null;
+        }
+        parameterTypes.put(typeName, type);
+        return type;
+    }
+
+    private boolean isSameType(TypeMirror t1, TypeMirror t2) {
+        if (types.isSameType(t1, t2)) {
+            return true;
+        }
+        if (t1.getKind().isPrimitive()
+                && types.isSameType(types.boxedClass((PrimitiveType) t1).asType(), t2)) {
+            return true;
+        }
+        return t2.getKind().isPrimitive()
+                && types.isSameType(t1, types.boxedClass((PrimitiveType) t2).asType());
+    }
+
+    private static final class Candidate {
+
+        private final VariableElement element;
+        private final String name;
+        private final int proximity;
+
+        private Candidate(VariableElement element, int proximity) {
+            this.element = element;
+            this.name = element.getSimpleName().toString().toLowerCase(Locale.ENGLISH);
+            this.proximity = proximity;
+        }
+    }
+
+    private static final class Match {
+
+        private final int parameter;
+        private final Candidate candidate;
+        private final boolean sameType;
+        private final int distance;
+
+        private Match(int parameter, Candidate candidate, boolean sameType, int distance) {
+            this.parameter = parameter;
+            this.candidate = candidate;
+            this.sameType = sameType;
+            this.distance = distance;
+        }
+    }
+}
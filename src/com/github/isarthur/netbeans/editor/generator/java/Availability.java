@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.Tree;
+import java.io.IOException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import org.netbeans.api.java.source.CompilationController;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.SourceUtils;
+import org.netbeans.api.java.source.Task;
+import org.netbeans.api.java.source.TreeUtilities;
+import org.netbeans.api.progress.BaseProgressUtils;
+import org.netbeans.lib.editor.util.swing.DocumentUtilities;
+import org.openide.awt.StatusDisplayer;
+import org.openide.util.NbBundle;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Decides whether the caret is inside a block, which is what every factory of this module needs to know. The check
+ * runs once per document version and caret position on a background thread and all factories of a popup share it,
+ * so the popup never waits for the classpath scan nor longer than {@value #TIME_BUDGET} ms in total. The generators
+ * are offered anyway when a check runs out of time and check again when invoked. A check that has not started by
+ * then is cancelled, one that is running is left to finish, as interrupting it would interrupt the parser, and its
+ * answer serves the next popup and the invoked generator.
+ *
+ * @author Arthur Sadykov
+ */
+final class Availability {
+
+    static final long TIME_BUDGET = 200;
+    private static final long RETRY_DELAY = 1000;
+    private static final Logger LOG = Logger.getLogger(Availability.class.getName());
+    private static final RequestProcessor CHECK_RP = new RequestProcessor(Availability.class.getName(), 1, true);
+    private static final Map<Document, Check> CHECKS = new WeakHashMap<>();
+
+    private Availability() {
+    }
+
+    /**
+     * Answers from the cached caret context or from the shared check, waiting for it until its time budget is used
+     * up.
+     *
+     * @return whether the caret is inside a block or {@code null} if that is not known in time
+     */
+    static Boolean isInsideBlock(JTextComponent editor, JavaSource javaSource) {
+        Document document = editor.getDocument();
+        int caretPosition = editor.getCaretPosition();
+        CaretContext caretContext = CaretContext.get(document, caretPosition);
+        if (caretContext != null) {
+            return caretContext.isInsideBlock();
+        }
+        if (SourceUtils.isScanInProgress()) {
+            return null;
+        }
+        Check check = getCheck(document, caretPosition, javaSource);
+        long remaining = Math.max(0, check.deadline - System.currentTimeMillis());
+        try {
+            return check.future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | CancellationException ex) {
+            // the budget of the check is used up, see below
+        } catch (ExecutionException ex) {
+            LOG.log(Level.FINE, null, ex);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        check.future.cancel(false);
+        return null;
+    }
+
+    /**
+     * Returns the check of the caret position in the current version of the document, starting it if there is none
+     * yet or if the last one ran out of time a while ago, in an earlier popup.
+     */
+    private static Check getCheck(Document document, int caretPosition, JavaSource javaSource) {
+        long version = DocumentUtilities.getDocumentVersion(document);
+        long now = System.currentTimeMillis();
+        synchronized (CHECKS) {
+            Check check = CHECKS.get(document);
+            if (check == null || check.version != version || check.caretPosition != caretPosition
+                    || check.future.isCancelled() && now - check.deadline > RETRY_DELAY) {
+                check = new Check(version, caretPosition, now + TIME_BUDGET,
+                        CHECK_RP.submit(() -> isInsideBlock(javaSource, caretPosition)));
+                CHECKS.put(document, check);
+            }
+            return check;
+        }
+    }
+
+    /**
+     * Answers for a generator that was offered optimistically, when it is invoked. The cached caret context or a
+     * finished check answers at once, otherwise the file is resolved off the event dispatch thread, with a progress
+     * indicator if that takes a while.
+     *
+     * @return whether the caret is inside a block or {@code null} if the file cannot be resolved or the user
+     *         cancelled the check
+     */
+    @NbBundle.Messages({
+        "# {0} - generator display name",
+        "MSG_Checking_Caret_Position={0}: resolving the caret position..." //NOI18N
+    })
+    static Boolean isInsideBlock(Document document, JavaSource javaSource, int caretPosition, String displayName) {
+        CaretContext caretContext = CaretContext.get(document, caretPosition);
+        if (caretContext != null) {
+            return caretContext.isInsideBlock();
+        }
+        Check check = findCheck(document, caretPosition);
+        if (check != null && check.future.isDone() && !check.future.isCancelled()) {
+            try {
+                return check.future.get();
+            } catch (ExecutionException ex) {
+                LOG.log(Level.FINE, null, ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        AtomicReference<Boolean> insideBlock = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        BaseProgressUtils.runOffEventDispatchThread(
+                () -> insideBlock.set(isInsideBlock(javaSource, caretPosition)),
+                NbBundle.getMessage(Availability.class, "MSG_Checking_Caret_Position", displayName), //NOI18N
+                cancelled,
+                false);
+        return cancelled.get() ? null : insideBlock.get();
+    }
+
+    /**
+     * Returns the check of the caret position in the current version of the document or {@code null} if there is
+     * none.
+     */
+    private static Check findCheck(Document document, int caretPosition) {
+        long version = DocumentUtilities.getDocumentVersion(document);
+        synchronized (CHECKS) {
+            Check check = CHECKS.get(document);
+            return check != null && check.version == version && check.caretPosition == caretPosition ? check : null;
+        }
+    }
+
+    /**
+     * Answers without a time budget on the calling thread.
+     *
+     * @return whether the caret is inside a block or {@code null} if the file cannot be resolved
+     */
+    private static Boolean isInsideBlock(JavaSource javaSource, int caretPosition) {
+        AtomicReference<Boolean> insideBlock = new AtomicReference<>();
+        try {
+            javaSource.runUserActionTask(createTask(caretPosition, insideBlock), true);
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+        return insideBlock.get();
+    }
+
+    @NbBundle.Messages({
+        "# {0} - generator display name",
+        "MSG_Not_Available={0} is not available at the caret position" //NOI18N
+    })
+    static void notifyNotAvailable(String displayName) {
+        StatusDisplayer.getDefault().setStatusText(
+                NbBundle.getMessage(Availability.class, "MSG_Not_Available", displayName)); //NOI18N
+    }
+
+    private static Task<CompilationController> createTask(int caretPosition, AtomicReference<Boolean> insideBlock) {
+        return controller -> {
+            if (!GenerationContext.toScopePhase(controller)) {
+                return;
+            }
+            TreeUtilities treeUtilities = controller.getTreeUtilities();
+            insideBlock.set(treeUtilities.getPathElementOfKind(
+                    Tree.Kind.BLOCK, treeUtilities.pathFor(caretPosition)) != null);
+        };
+    }
+
+    private static final class Check {
+
+        private final long version;
+        private final int caretPosition;
+        private final long deadline;
+        private final Future<Boolean> future;
+
+        private Check(long version, int caretPosition, long deadline, Future<Boolean> future) {
+            this.version = version;
+            this.caretPosition = caretPosition;
+            this.deadline = deadline;
+            this.future = future;
+        }
+    }
+}
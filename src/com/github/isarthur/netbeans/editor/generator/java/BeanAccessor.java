@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A public instance method of a type whose name starts with {@code get}, {@code is} or {@code set}, as recorded by
+ * {@link BeanPropertyIndexer}. The return and parameter types are the qualified types of the attributed method seen
+ * as a member of the indexed type, so inherited and generic accessors are described in terms of that type.
+ *
+ * @author Arthur Sadykov
+ */
+final class BeanAccessor {
+
+    private static final char SEPARATOR = '|';
+    private static final String PARAMETER_SEPARATOR = ";"; //NOI18N
+    private static final String VOID = "void"; //NOI18N
+    private final String declaringType;
+    private final String name;
+    private final String returnType;
+    private final List<String> parameterTypes;
+
+    BeanAccessor(String declaringType, String name, String returnType, List<String> parameterTypes) {
+        this.declaringType = declaringType;
+        this.name = name;
+        this.returnType = returnType;
+        this.parameterTypes = Collections.unmodifiableList(parameterTypes);
+    }
+
+    /**
+     * Returns the qualified name of the type that declares the method, which differs from the indexed type for
+     * inherited accessors.
+     */
+    String getDeclaringType() {
+        return declaringType;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getReturnType() {
+        return returnType;
+    }
+
+    List<String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    boolean isVoid() {
+        return VOID.equals(returnType);
+    }
+
+    /**
+     * Returns the name of the property this accessor reads by the rules of {@link PropertyMappingEngine} or
+     * {@code null} if it is not a getter.
+     */
+    String getReadProperty() {
+        if (!parameterTypes.isEmpty()) {
+            return null;
+        }
+        if (PropertyMappingEngine.isAccessorName(name, PropertyMappingEngine.GET) && !isVoid()) {
+            return PropertyMappingEngine.propertyName(name, PropertyMappingEngine.GET.length());
+        }
+        if (PropertyMappingEngine.isAccessorName(name, PropertyMappingEngine.IS)
+                && ("boolean".equals(returnType) || Boolean.class.getName().equals(returnType))) { //NOI18N
+            return PropertyMappingEngine.propertyName(name, PropertyMappingEngine.IS.length());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the property this accessor writes by the rules of {@link PropertyMappingEngine} or
+     * {@code null} if it is not a setter.
+     */
+    String getWriteProperty() {
+        if (parameterTypes.size() == 1 && PropertyMappingEngine.isAccessorName(name, PropertyMappingEngine.SET)) {
+            return PropertyMappingEngine.propertyName(name, PropertyMappingEngine.SET.length());
+        }
+        return null;
+    }
+
+    String encode() {
+        return declaringType + SEPARATOR + name + SEPARATOR + returnType + SEPARATOR
+                + String.join(PARAMETER_SEPARATOR, parameterTypes);
+    }
+
+    static BeanAccessor decode(String value) {
+        String[] parts = value.split("\\" + SEPARATOR, -1); //NOI18N
+        if (parts.length != 4 || parts[0].isEmpty() || parts[1].isEmpty() || parts[2].isEmpty()) {
+            return null;
+        }
+        return new BeanAccessor(parts[0], parts[1], parts[2], parts[3].isEmpty()
+                ? Collections.emptyList()
+                : Arrays.asList(parts[3].split(PARAMETER_SEPARATOR, -1)));
+    }
+
+    @Override
+    public String toString() {
+        return name + '(' + String.join(", ", parameterTypes) + ") : " + returnType; //NOI18N
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.modules.parsing.spi.indexing.support.IndexResult;
+import org.netbeans.modules.parsing.spi.indexing.support.QuerySupport;
+import org.openide.filesystems.FileObject;
+import org.openide.util.NbBundle;
+
+/**
+ * Answers which accessors and properties a type has from the index written by {@link BeanPropertyIndexer}. Types that
+ * are not declared in the sources visible from the file, that could not be resolved when indexed or whose supertypes
+ * changed since are unknown to the index and {@code null} is returned for them; callers then treat the type as they
+ * would without an index.
+ *
+ * @author Arthur Sadykov
+ */
+final class BeanPropertyIndex {
+
+    private static final Logger LOG = Logger.getLogger(BeanPropertyIndex.class.getName());
+    private final QuerySupport querySupport;
+    private final Map<String, List<BeanAccessor>> accessors = new HashMap<>();
+    private final Map<String, String> stamps = new HashMap<>();
+
+    private BeanPropertyIndex(QuerySupport querySupport) {
+        this.querySupport = querySupport;
+    }
+
+    static BeanPropertyIndex forSource(JavaSource javaSource) {
+        Iterator<FileObject> fileObjects = javaSource.getFileObjects().iterator();
+        return forFile(fileObjects.hasNext() ? fileObjects.next() : null);
+    }
+
+    static BeanPropertyIndex forFile(FileObject file) {
+        QuerySupport querySupport = null;
+        if (file != null) {
+            try {
+                Collection<FileObject> roots = QuerySupport.findRoots(file,
+                        Collections.singleton(ClassPath.SOURCE), null, Collections.singleton(ClassPath.COMPILE));
+                querySupport = QuerySupport.forRoots(BeanPropertyIndexer.NAME, BeanPropertyIndexer.VERSION,
+                        roots.toArray(new FileObject[0]));
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, null, ex);
+            }
+        }
+        return new BeanPropertyIndex(querySupport);
+    }
+
+    /**
+     * Returns the accessors of the type with the given qualified name or {@code null} if the index does not know
+     * them.
+     */
+    synchronized List<BeanAccessor> getAccessors(String qualifiedName) {
+        if (querySupport == null || qualifiedName == null) {
+            return null;
+        }
+        if (accessors.containsKey(qualifiedName)) {
+            return accessors.get(qualifiedName);
+        }
+        List<BeanAccessor> result = null;
+        try {
+            for (IndexResult indexResult : query(qualifiedName)) {
+                if (isCurrent(indexResult)) {
+                    result = new ArrayList<>();
+                    for (String value : indexResult.getValues(BeanPropertyIndexer.FIELD_ACCESSOR)) {
+                        BeanAccessor accessor = BeanAccessor.decode(value);
+                        if (accessor != null) {
+                            result.add(accessor);
+                        }
+                    }
+                    result = Collections.unmodifiableList(result);
+                }
+                break;
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+        accessors.put(qualifiedName, result);
+        return result;
+    }
+
+    /**
+     * Keeps the variables whose types have at least one accessor accepted by the filter, and those the index does not
+     * know about. The filter is given each accessor together with the qualified name of the variable's type.
+     */
+    List<VariableDescriptor> retainAccepted(List<VariableDescriptor> variables,
+            BiPredicate<BeanAccessor, String> filter) {
+        return variables.stream()
+                .filter(variable -> {
+                    String typeName = variable.getTypeName();
+                    List<BeanAccessor> typeAccessors = getAccessors(typeName);
+                    return typeAccessors == null
+                            || typeAccessors.stream().anyMatch(accessor -> filter.test(accessor, typeName));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the accessors accepted by the filter for each variable whose type the index knows about. The filter is
+     * given each accessor together with the qualified name of the variable's type.
+     */
+    @NbBundle.Messages({
+        "# {0} - comma-separated accessors",
+        "LBL_Accessors=Accessors: {0}" //NOI18N
+    })
+    Map<VariableDescriptor, String> describe(List<VariableDescriptor> variables,
+            BiPredicate<BeanAccessor, String> filter) {
+        Map<VariableDescriptor, String> descriptions = new HashMap<>();
+        for (VariableDescriptor variable : variables) {
+            List<BeanAccessor> typeAccessors = getAccessors(variable.getTypeName());
+            if (typeAccessors == null) {
+                continue;
+            }
+            String names = typeAccessors.stream()
+                    .filter(accessor -> filter.test(accessor, variable.getTypeName()))
+                    .map(BeanAccessor::toString)
+                    .collect(Collectors.joining(", ")); //NOI18N
+            if (!names.isEmpty()) {
+                descriptions.put(variable,
+                        NbBundle.getMessage(BeanPropertyIndex.class, "LBL_Accessors", names)); //NOI18N
+            }
+        }
+        return descriptions;
+    }
+
+    /**
+     * Tells which properties a mapping between the variables would copy and which ones have no counterpart, or
+     * returns {@code null} if the index does not know both types.
+     */
+    String describeMapping(VariableDescriptor source, VariableDescriptor target) {
+        List<BeanAccessor> sourceAccessors = getAccessors(source.getTypeName());
+        List<BeanAccessor> targetAccessors = getAccessors(target.getTypeName());
+        if (sourceAccessors == null || targetAccessors == null) {
+            return null;
+        }
+        return describeMapping(sourceAccessors, targetAccessors);
+    }
+
+    @NbBundle.Messages({
+        "# {0} - comma-separated mapped properties",
+        "# {1} - comma-separated properties without counterpart",
+        "MSG_Mapping=Maps: {0}. Without counterpart: {1}", //NOI18N
+        "LBL_None=none" //NOI18N
+    })
+    static String describeMapping(List<BeanAccessor> sourceAccessors, List<BeanAccessor> targetAccessors) {
+        Set<String> readable = new LinkedHashSet<>();
+        sourceAccessors.forEach(accessor -> {
+            String property = accessor.getReadProperty();
+            if (property != null) {
+                readable.add(property);
+            }
+        });
+        Set<String> mapped = new LinkedHashSet<>();
+        Set<String> unmapped = new LinkedHashSet<>();
+        targetAccessors.forEach(accessor -> {
+            String property = accessor.getWriteProperty();
+            if (property != null) {
+                (readable.contains(property) ? mapped : unmapped).add(property);
+            }
+        });
+        readable.stream()
+                .filter(property -> !mapped.contains(property))
+                .forEach(unmapped::add);
+        return NbBundle.getMessage(BeanPropertyIndex.class, "MSG_Mapping", join(mapped), join(unmapped)); //NOI18N
+    }
+
+    private static String join(Set<String> properties) {
+        return properties.isEmpty()
+                ? NbBundle.getMessage(BeanPropertyIndex.class, "LBL_None") //NOI18N
+                : String.join(", ", properties); //NOI18N
+    }
+
+    private Collection<? extends IndexResult> query(String qualifiedName) throws IOException {
+        return querySupport.query(BeanPropertyIndexer.FIELD_TYPE, qualifiedName, QuerySupport.Kind.EXACT,
+                BeanPropertyIndexer.FIELD_STAMP, BeanPropertyIndexer.FIELD_SUPERTYPE,
+                BeanPropertyIndexer.FIELD_ACCESSOR);
+    }
+
+    /**
+     * Returns {@code true} if every supertype declared in sources still has the accessors it had when the type was
+     * indexed.
+     */
+    private boolean isCurrent(IndexResult result) throws IOException {
+        for (String value : result.getValues(BeanPropertyIndexer.FIELD_SUPERTYPE)) {
+            int separator = value.lastIndexOf(BeanPropertyIndexer.SEPARATOR);
+            if (separator < 0 || !value.substring(separator + 1).equals(getStamp(value.substring(0, separator)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getStamp(String qualifiedName) throws IOException {
+        if (!stamps.containsKey(qualifiedName)) {
+            String stamp = null;
+            for (IndexResult result : query(qualifiedName)) {
+                stamp = result.getValue(BeanPropertyIndexer.FIELD_STAMP);
+                break;
+            }
+            stamps.put(qualifiedName, stamp);
+        }
+        return stamps.get(qualifiedName);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePathScanner;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.netbeans.api.editor.mimelookup.MimeRegistration;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.source.ClasspathInfo;
+import org.netbeans.api.java.source.CompilationController;
+import org.netbeans.api.java.source.CompilationInfo;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.modules.parsing.api.Snapshot;
+import org.netbeans.modules.parsing.spi.Parser;
+import org.netbeans.modules.parsing.spi.indexing.Context;
+import org.netbeans.modules.parsing.spi.indexing.EmbeddingIndexer;
+import org.netbeans.modules.parsing.spi.indexing.EmbeddingIndexerFactory;
+import org.netbeans.modules.parsing.spi.indexing.Indexable;
+import org.netbeans.modules.parsing.spi.indexing.support.IndexDocument;
+import org.netbeans.modules.parsing.spi.indexing.support.IndexingSupport;
+
+/**
+ * Records the accessors of each class and interface declared in a source root in the persistent index, so that the
+ * generators can tell which properties a type has without attributing it; see {@link BeanPropertyIndex} for the query
+ * side.
+ * <p>
+ * The indexer runs on the Java parser's result and resolves the member signatures of the file, so the recorded types
+ * are qualified and inherited accessors are included. Every document also records a stamp of its accessors and the
+ * stamps of its supertypes declared in sources, which lets a query notice a subtype indexed before its supertype
+ * changed. Types with unresolvable supertypes or accessor types are not recorded at all.
+ *
+ * @author Arthur Sadykov
+ */
+public final class BeanPropertyIndexer extends EmbeddingIndexer {
+
+    static final String NAME = "bean-properties"; //NOI18N
+    static final int VERSION = 2;
+    static final String FIELD_TYPE = "type"; //NOI18N
+    static final String FIELD_STAMP = "stamp"; //NOI18N
+    static final String FIELD_SUPERTYPE = "supertype"; //NOI18N
+    static final String FIELD_ACCESSOR = "accessor"; //NOI18N
+    static final char SEPARATOR = '|';
+    private static final Logger LOG = Logger.getLogger(BeanPropertyIndexer.class.getName());
+
+    @Override
+    protected void index(Indexable indexable, Parser.Result parserResult, Context context) {
+        CompilationController controller = CompilationController.get(parserResult);
+        if (controller == null) {
+            return;
+        }
+        try {
+            if (controller.toPhase(JavaSource.Phase.ELEMENTS_RESOLVED)
+                    .compareTo(JavaSource.Phase.ELEMENTS_RESOLVED) < 0) {
+                return;
+            }
+            IndexingSupport indexingSupport = IndexingSupport.getInstance(context);
+            indexingSupport.removeDocuments(indexable);
+            for (IndexedType type : collect(controller)) {
+                if (context.isCancelled()) {
+                    return;
+                }
+                IndexDocument document = indexingSupport.createDocument(indexable);
+                document.addPair(FIELD_TYPE, type.getQualifiedName(), true, true);
+                document.addPair(FIELD_STAMP, type.getStamp(), false, true);
+                type.getSupertypes().forEach((name, stamp) -> {
+                    document.addPair(FIELD_SUPERTYPE, name + SEPARATOR + stamp, false, true);
+                });
+                for (BeanAccessor accessor : type.getAccessors()) {
+                    document.addPair(FIELD_ACCESSOR, accessor.encode(), false, true);
+                }
+                indexingSupport.addDocument(document);
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+    }
+
+    /**
+     * Describes every class and interface declared in the compilation unit, local and anonymous classes excepted.
+     */
+    static List<IndexedType> collect(CompilationInfo info) {
+        List<TypeElement> typeElements = new ArrayList<>();
+        new TreePathScanner<Void, Void>() {
+            @Override
+            public Void visitClass(ClassTree node, Void p) {
+                Element element = info.getTrees().getElement(getCurrentPath());
+                if (element instanceof TypeElement && (element.getKind().isClass() || element.getKind().isInterface())
+                        && ((TypeElement) element).getNestingKind() != NestingKind.LOCAL
+                        && ((TypeElement) element).getNestingKind() != NestingKind.ANONYMOUS) {
+                    typeElements.add((TypeElement) element);
+                }
+                return super.visitClass(node, p);
+            }
+
+            @Override
+            public Void visitMethod(MethodTree node, Void p) {
+                return null;
+            }
+
+            @Override
+            public Void visitVariable(VariableTree node, Void p) {
+                return null;
+            }
+
+            @Override
+            public Void visitBlock(BlockTree node, Void p) {
+                return null;
+            }
+        }.scan(info.getCompilationUnit(), null);
+        List<IndexedType> types = new ArrayList<>();
+        for (TypeElement typeElement : typeElements) {
+            List<BeanAccessor> accessors = getAccessors(info, typeElement);
+            Map<String, String> supertypes = accessors != null ? getSupertypes(info, typeElement) : null;
+            if (supertypes != null) {
+                types.add(new IndexedType(typeElement.getQualifiedName().toString(), accessors, supertypes));
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Returns the public instance accessors of the type, inherited ones included, or {@code null} if a type in their
+     * signatures cannot be resolved.
+     */
+    private static List<BeanAccessor> getAccessors(CompilationInfo info, TypeElement type) {
+        Elements elements = info.getElements();
+        Types types = info.getTypes();
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        TypeElement object = elements.getTypeElement(Object.class.getName());
+        List<BeanAccessor> accessors = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            String name = method.getSimpleName().toString();
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC)
+                    || modifiers.contains(Modifier.STATIC)
+                    || method.getEnclosingElement().equals(object)
+                    || !isAccessorName(name)) {
+                continue;
+            }
+            ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+            if (isErroneous(methodType.getReturnType())) {
+                return null;
+            }
+            List<String> parameterTypes = new ArrayList<>();
+            for (TypeMirror parameterType : methodType.getParameterTypes()) {
+                if (isErroneous(parameterType)) {
+                    return null;
+                }
+                parameterTypes.add(parameterType.toString());
+            }
+            accessors.add(new BeanAccessor(((TypeElement) method.getEnclosingElement()).getQualifiedName().toString(),
+                    name, methodType.getReturnType().toString(), parameterTypes));
+        }
+        accessors.sort(Comparator.comparing(BeanAccessor::encode));
+        return accessors;
+    }
+
+    /**
+     * Returns the stamps of all supertypes of the type that are declared in sources, keyed by their qualified names,
+     * or {@code null} if a supertype cannot be resolved.
+     */
+    private static Map<String, String> getSupertypes(CompilationInfo info, TypeElement type) {
+        Types types = info.getTypes();
+        Map<String, String> supertypes = new TreeMap<>();
+        Set<String> visited = new HashSet<>();
+        Deque<TypeMirror> pending = new ArrayDeque<>(types.directSupertypes(type.asType()));
+        while (!pending.isEmpty()) {
+            TypeMirror supertype = pending.poll();
+            if (supertype.getKind() == TypeKind.ERROR) {
+                return null;
+            }
+            if (supertype.getKind() != TypeKind.DECLARED) {
+                continue;
+            }
+            TypeElement element = (TypeElement) ((DeclaredType) supertype).asElement();
+            String name = element.getQualifiedName().toString();
+            if (!visited.add(name) || name.equals(Object.class.getName())) {
+                continue;
+            }
+            pending.addAll(types.directSupertypes(supertype));
+            if (isDeclaredInSources(info, element)) {
+                List<BeanAccessor> accessors = getAccessors(info, element);
+                if (accessors == null) {
+                    return null;
+                }
+                supertypes.put(name, stamp(accessors));
+            }
+        }
+        return supertypes;
+    }
+
+    private static boolean isAccessorName(String name) {
+        return name.startsWith(PropertyMappingEngine.GET)
+                || name.startsWith(PropertyMappingEngine.IS)
+                || name.startsWith(PropertyMappingEngine.SET);
+    }
+
+    private static boolean isDeclaredInSources(CompilationInfo info, TypeElement type) {
+        if (info.getTrees().getPath(type) != null) {
+            return true;
+        }
+        TypeElement outermost = info.getElementUtilities().outermostTypeElement(type);
+        ClassPath sourcePath = info.getClasspathInfo().getClassPath(ClasspathInfo.PathKind.SOURCE);
+        return outermost != null && sourcePath != null
+                && sourcePath.findResource(outermost.getQualifiedName().toString().replace('.', '/') + ".java") //NOI18N
+                != null;
+    }
+
+    private static boolean isErroneous(TypeMirror type) {
+        switch (type.getKind()) {
+            case ERROR:
+                return true;
+            case ARRAY:
+                return isErroneous(((ArrayType) type).getComponentType());
+            case DECLARED:
+                return ((DeclaredType) type).getTypeArguments().stream().anyMatch(BeanPropertyIndexer::isErroneous);
+            default:
+                return false;
+        }
+    }
+
+    static String stamp(List<BeanAccessor> accessors) {
+        return Integer.toHexString(accessors.stream()
+                .map(BeanAccessor::encode)
+                .collect(Collectors.joining("\n")) //NOI18N
+                .hashCode());
+    }
+
+    static final class IndexedType {
+
+        private final String qualifiedName;
+        private final List<BeanAccessor> accessors;
+        private final Map<String, String> supertypes;
+        private final String stamp;
+
+        private IndexedType(String qualifiedName, List<BeanAccessor> accessors, Map<String, String> supertypes) {
+            this.qualifiedName = qualifiedName;
+            this.accessors = Collections.unmodifiableList(accessors);
+            this.supertypes = Collections.unmodifiableMap(supertypes);
+            this.stamp = stamp(accessors);
+        }
+
+        String getQualifiedName() {
+            return qualifiedName;
+        }
+
+        List<BeanAccessor> getAccessors() {
+            return accessors;
+        }
+
+        /**
+         * Returns the stamps of the supertypes declared in sources as they were when this type was indexed.
+         */
+        Map<String, String> getSupertypes() {
+            return supertypes;
+        }
+
+        String getStamp() {
+            return stamp;
+        }
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = EmbeddingIndexerFactory.class) //NOI18N
+    public static class Factory extends EmbeddingIndexerFactory {
+
+        @Override
+        public EmbeddingIndexer createIndexer(Indexable indexable, Snapshot snapshot) {
+            return new BeanPropertyIndexer();
+        }
+
+        @Override
+        public void filesDeleted(Iterable<? extends Indexable> deleted, Context context) {
+            try {
+                IndexingSupport indexingSupport = IndexingSupport.getInstance(context);
+                for (Indexable indexable : deleted) {
+                    indexingSupport.removeDocuments(indexable);
+                }
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, null, ex);
+            }
+        }
+
+        @Override
+        public void filesDirty(Iterable<? extends Indexable> dirty, Context context) {
+            try {
+                IndexingSupport indexingSupport = IndexingSupport.getInstance(context);
+                for (Indexable indexable : dirty) {
+                    indexingSupport.markDirtyDocuments(indexable);
+                }
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, null, ex);
+            }
+        }
+
+        @Override
+        public String getIndexerName() {
+            return NAME;
+        }
+
+        @Override
+        public int getIndexVersion() {
+            return VERSION;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.swing.text.Document;
+import org.netbeans.api.java.source.CompilationInfo;
+import org.netbeans.api.java.source.TreeUtilities;
+
+/**
+ * What the factories need to know about the caret position that is cheap to keep once the file has been resolved:
+ * whether the caret is inside a block. Contexts hold no javac objects; they are computed by {@link EditorWarmup}
+ * ahead of time and dropped as soon as the document changes.
+ *
+ * @author Arthur Sadykov
+ */
+final class CaretContext {
+
+    private static final Map<Document, CaretContext> CACHE = new WeakHashMap<>();
+    private final int caretPosition;
+    private final boolean insideBlock;
+
+    private CaretContext(int caretPosition, boolean insideBlock) {
+        this.caretPosition = caretPosition;
+        this.insideBlock = insideBlock;
+    }
+
+    /**
+     * Computes the context of the caret from a resolved compilation.
+     */
+    static CaretContext compute(CompilationInfo info, int caretPosition) {
+        TreeUtilities treeUtilities = info.getTreeUtilities();
+        TreePath currentPath = treeUtilities.pathFor(caretPosition);
+        boolean insideBlock = treeUtilities.getPathElementOfKind(Tree.Kind.BLOCK, currentPath) != null;
+        return new CaretContext(caretPosition, insideBlock);
+    }
+
+    /**
+     * Returns the cached context of the document if it was computed for the given caret position.
+     *
+     * @return the context or {@code null} if none is known for this position
+     */
+    static CaretContext get(Document document, int caretPosition) {
+        CaretContext context;
+        synchronized (CACHE) {
+            context = CACHE.get(document);
+        }
+        return context != null && context.caretPosition == caretPosition ? context : null;
+    }
+
+    static void put(Document document, CaretContext context) {
+        synchronized (CACHE) {
+            CACHE.put(document, context);
+        }
+    }
+
+    static void invalidate(Document document) {
+        synchronized (CACHE) {
+            CACHE.remove(document);
+        }
+    }
+
+    int getCaretPosition() {
+        return caretPosition;
+    }
+
+    boolean isInsideBlock() {
+        return insideBlock;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.event.CaretEvent;
+import javax.swing.event.CaretListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import org.netbeans.api.editor.EditorRegistry;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.SourceUtils;
+import org.openide.util.NbPreferences;
+import org.openide.util.RequestProcessor;
+import org.openide.windows.OnShowing;
+
+/**
+ * Resolves the focused Java editor in the background once the caret has been idle for a while, so that the first
+ * Insert Code invocation finds a cached {@link CaretContext} and the field and method generators, which need the
+ * whole file resolved, find a resolved compilation. Nothing is done while the classpath is being scanned. The warm-up
+ * is off unless the {@code editorWarmup} preference of the module is set, or the {@value #ENABLED_PROPERTY} system
+ * property is {@code true}.
+ *
+ * @author Arthur Sadykov
+ */
+public final class EditorWarmup implements PropertyChangeListener, CaretListener, DocumentListener {
+
+    static final String ENABLED_PREFERENCE = "editorWarmup"; //NOI18N
+    static final String ENABLED_PROPERTY = "com.github.isarthur.netbeans.editor.generator.warmup"; //NOI18N
+    private static final Logger LOG = Logger.getLogger(EditorWarmup.class.getName());
+    private static final RequestProcessor WARMUP_RP = new RequestProcessor(EditorWarmup.class.getName(), 1, true);
+    private static final String JAVA_MIME_TYPE = "text/x-java"; //NOI18N
+    private static final int IDLE_DELAY = 750;
+    private static final int SCAN_BACKOFF_DELAY = 3000;
+    private final RequestProcessor.Task warmupTask = WARMUP_RP.create(this::warmup);
+    private JTextComponent component;
+    private volatile Document document;
+    private volatile int caretPosition;
+    private volatile int modificationCount;
+
+    private EditorWarmup() {
+        warmupTask.setPriority(Thread.MIN_PRIORITY);
+    }
+
+    static boolean isEnabled() {
+        return NbPreferences.forModule(EditorWarmup.class)
+                .getBoolean(ENABLED_PREFERENCE, Boolean.getBoolean(ENABLED_PROPERTY));
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if (EditorRegistry.FOCUS_GAINED_PROPERTY.equals(evt.getPropertyName())
+                || EditorRegistry.FOCUSED_DOCUMENT_PROPERTY.equals(evt.getPropertyName())) {
+            attach(EditorRegistry.focusedComponent());
+        }
+    }
+
+    @Override
+    public void caretUpdate(CaretEvent e) {
+        caretPosition = e.getDot();
+        warmupTask.schedule(IDLE_DELAY);
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        modificationCount++;
+        CaretContext.invalidate(e.getDocument());
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        modificationCount++;
+        CaretContext.invalidate(e.getDocument());
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+    }
+
+    private void attach(JTextComponent focused) {
+        Document focusedDocument = focused != null ? focused.getDocument() : null;
+        if (focused == component && focusedDocument == document) {
+            return;
+        }
+        detach();
+        if (focusedDocument == null
+                || !JAVA_MIME_TYPE.equals(focusedDocument.getProperty("mimeType")) //NOI18N
+                || !isEnabled()) {
+            return;
+        }
+        component = focused;
+        document = focusedDocument;
+        caretPosition = focused.getCaretPosition();
+        focused.addCaretListener(this);
+        focusedDocument.addDocumentListener(this);
+        warmupTask.schedule(IDLE_DELAY);
+    }
+
+    private void detach() {
+        warmupTask.cancel();
+        if (component != null) {
+            component.removeCaretListener(this);
+            component = null;
+        }
+        if (document != null) {
+            document.removeDocumentListener(this);
+            CaretContext.invalidate(document);
+            document = null;
+        }
+    }
+
+    private void warmup() {
+        Document warmedDocument = document;
+        if (warmedDocument == null) {
+            return;
+        }
+        if (SourceUtils.isScanInProgress()) {
+            warmupTask.schedule(SCAN_BACKOFF_DELAY);
+            return;
+        }
+        int warmedCaretPosition = caretPosition;
+        int warmedModificationCount = modificationCount;
+        if (CaretContext.get(warmedDocument, warmedCaretPosition) != null) {
+            return;
+        }
+        JavaSource javaSource = JavaSource.forDocument(warmedDocument);
+        if (javaSource == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            javaSource.runUserActionTask(controller -> {
+                if (controller.toPhase(JavaSource.Phase.RESOLVED).compareTo(JavaSource.Phase.RESOLVED) < 0) {
+                    return;
+                }
+                CaretContext context = CaretContext.compute(controller, warmedCaretPosition);
+                if (warmedDocument == document
+                        && warmedCaretPosition == caretPosition
+                        && warmedModificationCount == modificationCount) {
+                    CaretContext.put(warmedDocument, context);
+                }
+            }, true);
+        } catch (IOException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+        LOG.log(Level.FINE, "Warm-up took {0} ms", (System.nanoTime() - start) / 1000000); //NOI18N
+    }
+
+    @OnShowing
+    public static class Installer implements Runnable {
+
+        @Override
+        public void run() {
+            EditorWarmup warmup = new EditorWarmup();
+            EditorRegistry.addPropertyChangeListener(warmup);
+            SwingUtilities.invokeLater(() -> warmup.attach(EditorRegistry.focusedComponent()));
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.api.java.source.TreeUtilities;
+import org.netbeans.api.java.source.WorkingCopy;
+import org.openide.util.NbBundle;
+
+/**
+ * Builds the getters, setters, constructor and {@code equals}/{@code hashCode} of fields that are being added to a
+ * class. The members are plain trees made from the field names and types as typed in the dialog, so they can be
+ * inserted by the same class rewrite as the fields themselves, without attributing the new fields first.
+ *
+ * @author Arthur Sadykov
+ */
+final class FieldAccessors {
+
+    enum Kind {
+        GETTERS, SETTERS, CONSTRUCTOR, EQUALS_AND_HASH_CODE
+    }
+
+    private static final String THIS = "this"; //NOI18N
+    private static final String OBJ = "obj"; //NOI18N
+    private static final String OTHER = "other"; //NOI18N
+    private static final String HASH = "hash"; //NOI18N
+    private static final String EQUALS = "equals"; //NOI18N
+    private static final String HASH_CODE = "hashCode"; //NOI18N
+    private static final String CONSTRUCTOR = "<init>"; //NOI18N
+    private static final String OBJECT = "java.lang.Object"; //NOI18N
+    private static final String OBJECTS = "java.util.Objects"; //NOI18N
+    private static final String ARRAYS = "java.util.Arrays"; //NOI18N
+    private static final Map<String, String> WRAPPERS = Map.of(
+            "boolean", "java.lang.Boolean", //NOI18N
+            "byte", "java.lang.Byte", //NOI18N
+            "short", "java.lang.Short", //NOI18N
+            "char", "java.lang.Character", //NOI18N
+            "int", "java.lang.Integer", //NOI18N
+            "long", "java.lang.Long", //NOI18N
+            "float", "java.lang.Float", //NOI18N
+            "double", "java.lang.Double"); //NOI18N
+
+    private FieldAccessors() {
+    }
+
+    /**
+     * Creates the requested members for the fields, in the order constructors, getter and setter of each field,
+     * {@code equals} and {@code hashCode}. Members the class already declares, judged by name and number of
+     * parameters, are skipped.
+     * <p>
+     * The constructor takes the uninitialized instance fields being added together with the blank final fields the
+     * class already declares, since every constructor has to assign those. If the class relied on the implicit
+     * constructor, a constructor without parameters is added next to it, unless a final field would be left
+     * unassigned; {@code problems} then receives a message saying so.
+     */
+    @NbBundle.Messages({
+        "# {0} - comma-separated field names",
+        "MSG_No_Default_Constructor=The class no longer has a constructor without parameters, because the final "
+                + "fields {0} must be assigned by every constructor." //NOI18N
+    })
+    static List<Tree> create(WorkingCopy copy, TreePath classPath, List<Field> fields, Set<Kind> kinds,
+            List<String> problems) {
+        List<Tree> members = new ArrayList<>();
+        ClassTree classTree = (ClassTree) classPath.getLeaf();
+        if (kinds.isEmpty() || classTree.getKind() != Tree.Kind.CLASS) {
+            return members;
+        }
+        TreeMaker make = copy.getTreeMaker();
+        TreeUtilities treeUtilities = copy.getTreeUtilities();
+        Set<String> declared = new HashSet<>();
+        boolean implicitConstructor = true;
+        List<Field> blankFinalFields = new ArrayList<>();
+        for (Tree member : classTree.getMembers()) {
+            if (treeUtilities.isSynthetic(new TreePath(classPath, member))) {
+                continue;
+            }
+            if (member.getKind() == Tree.Kind.METHOD) {
+                MethodTree method = (MethodTree) member;
+                declared.add(signature(method.getName(), method.getParameters().size()));
+                implicitConstructor &= !method.getName().contentEquals(CONSTRUCTOR);
+            } else if (member.getKind() == Tree.Kind.VARIABLE) {
+                VariableTree variable = (VariableTree) member;
+                Set<Modifier> flags = variable.getModifiers().getFlags();
+                if (flags.contains(Modifier.FINAL) && !flags.contains(Modifier.STATIC)
+                        && variable.getInitializer() == null) {
+                    blankFinalFields.add(Field.declared(variable));
+                }
+            }
+        }
+        List<Field> instanceFields = new ArrayList<>();
+        for (Field field : fields) {
+            if (!field.isStatic) {
+                instanceFields.add(field);
+            }
+        }
+        if (kinds.contains(Kind.CONSTRUCTOR)) {
+            List<Field> parameters = new ArrayList<>(blankFinalFields);
+            for (Field field : instanceFields) {
+                if (!field.initialized) {
+                    parameters.add(field);
+                }
+            }
+            if (parameters.size() > blankFinalFields.size()) {
+                if (declared.add(signature(CONSTRUCTOR, parameters.size()))) {
+                    if (implicitConstructor) {
+                        addDefaultConstructor(make, classTree, parameters, members, problems);
+                    }
+                    members.add(createConstructor(make, parameters));
+                }
+            }
+        }
+        for (Field field : fields) {
+            if (kinds.contains(Kind.GETTERS) && declared.add(signature(field.getGetterName(), 0))) {
+                members.add(createGetter(make, field));
+            }
+            if (kinds.contains(Kind.SETTERS) && !field.isFinal && declared.add(signature(field.getSetterName(), 1))) {
+                members.add(createSetter(make, classTree, field));
+            }
+        }
+        if (kinds.contains(Kind.EQUALS_AND_HASH_CODE) && !instanceFields.isEmpty()) {
+            if (declared.add(signature(EQUALS, 1))) {
+                members.add(createEquals(make, classTree, instanceFields));
+            }
+            if (declared.add(signature(HASH_CODE, 0))) {
+                members.add(createHashCode(make, instanceFields));
+            }
+        }
+        return members;
+    }
+
+    private static void addDefaultConstructor(TreeMaker make, ClassTree classTree, List<Field> parameters,
+            List<Tree> members, List<String> problems) {
+        List<String> finalFields = new ArrayList<>();
+        for (Field field : parameters) {
+            if (field.isFinal) {
+                finalFields.add(field.name);
+            }
+        }
+        if (!finalFields.isEmpty()) {
+            problems.add(NbBundle.getMessage(FieldAccessors.class, "MSG_No_Default_Constructor", //NOI18N
+                    String.join(", ", finalFields))); //NOI18N
+            return;
+        }
+        // the implicit constructor has the access of the class
+        Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+        for (Modifier modifier : classTree.getModifiers().getFlags()) {
+            if (modifier == Modifier.PUBLIC || modifier == Modifier.PROTECTED || modifier == Modifier.PRIVATE) {
+                modifiers.add(modifier);
+            }
+        }
+        members.add(make.Method(
+                make.Modifiers(modifiers),
+                CONSTRUCTOR,
+                null,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                make.Block(Collections.emptyList(), false),
+                null));
+    }
+
+    private static MethodTree createConstructor(TreeMaker make, List<Field> fields) {
+        List<VariableTree> parameters = new ArrayList<>(fields.size());
+        List<StatementTree> statements = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            parameters.add(createParameter(make, field));
+            statements.add(make.ExpressionStatement(make.Assignment(
+                    make.MemberSelect(make.Identifier(THIS), field.name), make.Identifier(field.name))));
+        }
+        return make.Method(
+                make.Modifiers(EnumSet.of(Modifier.PUBLIC)),
+                CONSTRUCTOR,
+                null,
+                Collections.emptyList(),
+                parameters,
+                Collections.emptyList(),
+                make.Block(statements, false),
+                null);
+    }
+
+    private static MethodTree createGetter(TreeMaker make, Field field) {
+        return make.Method(
+                make.Modifiers(modifiers(field)),
+                field.getGetterName(),
+                make.QualIdent(field.type),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                make.Block(Collections.singletonList(make.Return(make.Identifier(field.name))), false),
+                null);
+    }
+
+    private static MethodTree createSetter(TreeMaker make, ClassTree classTree, Field field) {
+        ExpressionTree owner = field.isStatic ? make.Identifier(classTree.getSimpleName()) : make.Identifier(THIS);
+        StatementTree assignment = make.ExpressionStatement(make.Assignment(
+                make.MemberSelect(owner, field.name), make.Identifier(field.name)));
+        return make.Method(
+                make.Modifiers(modifiers(field)),
+                field.getSetterName(),
+                make.PrimitiveType(TypeKind.VOID),
+                Collections.emptyList(),
+                Collections.singletonList(createParameter(make, field)),
+                Collections.emptyList(),
+                make.Block(Collections.singletonList(assignment), false),
+                null);
+    }
+
+    private static MethodTree createEquals(TreeMaker make, ClassTree classTree, List<Field> fields) {
+        List<StatementTree> statements = new ArrayList<>();
+        statements.add(make.If(
+                make.Binary(Tree.Kind.EQUAL_TO, make.Identifier(THIS), make.Identifier(OBJ)),
+                make.Return(make.Literal(true)),
+                null));
+        ExpressionTree getClass = make.MethodInvocation(
+                Collections.emptyList(), make.Identifier("getClass"), Collections.emptyList()); //NOI18N
+        ExpressionTree objGetClass = make.MethodInvocation(
+                Collections.emptyList(), make.MemberSelect(make.Identifier(OBJ), "getClass"), //NOI18N
+                Collections.emptyList());
+        statements.add(make.If(
+                make.Binary(Tree.Kind.CONDITIONAL_OR,
+                        make.Binary(Tree.Kind.EQUAL_TO, make.Identifier(OBJ), make.Literal(null)),
+                        make.Binary(Tree.Kind.NOT_EQUAL_TO, getClass, objGetClass)),
+                make.Return(make.Literal(false)),
+                null));
+        Tree classType = make.Identifier(classTree.getSimpleName());
+        statements.add(make.Variable(
+                make.Modifiers(EnumSet.of(Modifier.FINAL)),
+                OTHER,
+                classType,
+                make.TypeCast(make.Identifier(classTree.getSimpleName()), make.Identifier(OBJ))));
+        ExpressionTree condition = null;
+        for (Field field : fields) {
+            ExpressionTree fieldEquals = createFieldEquals(make, field);
+            condition = condition == null
+                    ? fieldEquals
+                    : make.Binary(Tree.Kind.CONDITIONAL_AND, condition, fieldEquals);
+        }
+        statements.add(make.Return(condition));
+        VariableTree parameter = make.Variable(
+                make.Modifiers(Collections.emptySet()), OBJ, make.QualIdent(OBJECT), null);
+        return make.Method(
+                make.Modifiers(EnumSet.of(Modifier.PUBLIC), Collections.singletonList(createOverride(make))),
+                EQUALS,
+                make.PrimitiveType(TypeKind.BOOLEAN),
+                Collections.emptyList(),
+                Collections.singletonList(parameter),
+                Collections.emptyList(),
+                make.Block(statements, false),
+                null);
+    }
+
+    private static ExpressionTree createFieldEquals(TreeMaker make, Field field) {
+        ExpressionTree thisField = make.MemberSelect(make.Identifier(THIS), field.name);
+        ExpressionTree otherField = make.MemberSelect(make.Identifier(OTHER), field.name);
+        if (field.isFloatingPoint()) {
+            ExpressionTree compare = make.MethodInvocation(
+                    Collections.emptyList(),
+                    make.MemberSelect(make.QualIdent(WRAPPERS.get(field.type)), "compare"), //NOI18N
+                    List.of(thisField, otherField));
+            return make.Binary(Tree.Kind.EQUAL_TO, compare, make.Literal(0));
+        }
+        if (field.isPrimitive()) {
+            return make.Binary(Tree.Kind.EQUAL_TO, thisField, otherField);
+        }
+        return make.MethodInvocation(
+                Collections.emptyList(),
+                make.MemberSelect(make.QualIdent(field.isArray() ? ARRAYS : OBJECTS), EQUALS),
+                List.of(thisField, otherField));
+    }
+
+    private static MethodTree createHashCode(TreeMaker make, List<Field> fields) {
+        List<StatementTree> statements = new ArrayList<>();
+        statements.add(make.Variable(
+                make.Modifiers(Collections.emptySet()), HASH, make.PrimitiveType(TypeKind.INT), make.Literal(7)));
+        for (Field field : fields) {
+            String owner = field.isPrimitive() ? WRAPPERS.get(field.type) : field.isArray() ? ARRAYS : OBJECTS;
+            ExpressionTree fieldHash = make.MethodInvocation(
+                    Collections.emptyList(),
+                    make.MemberSelect(make.QualIdent(owner), HASH_CODE),
+                    Collections.singletonList(make.MemberSelect(make.Identifier(THIS), field.name)));
+            statements.add(make.ExpressionStatement(make.Assignment(
+                    make.Identifier(HASH),
+                    make.Binary(Tree.Kind.PLUS,
+                            make.Binary(Tree.Kind.MULTIPLY, make.Literal(31), make.Identifier(HASH)),
+                            fieldHash))));
+        }
+        statements.add(make.Return(make.Identifier(HASH)));
+        return make.Method(
+                make.Modifiers(EnumSet.of(Modifier.PUBLIC), Collections.singletonList(createOverride(make))),
+                HASH_CODE,
+                make.PrimitiveType(TypeKind.INT),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList(),
+                make.Block(statements, false),
+                null);
+    }
+
+    private static VariableTree createParameter(TreeMaker make, Field field) {
+        Tree type = field.typeTree != null ? field.typeTree : make.QualIdent(field.type);
+        return make.Variable(make.Modifiers(Collections.emptySet()), field.name, type, null);
+    }
+
+    private static AnnotationTree createOverride(TreeMaker make) {
+        return make.Annotation(make.Identifier("Override"), Collections.emptyList()); //NOI18N
+    }
+
+    private static Set<Modifier> modifiers(Field field) {
+        return field.isStatic ? EnumSet.of(Modifier.PUBLIC, Modifier.STATIC) : EnumSet.of(Modifier.PUBLIC);
+    }
+
+    private static String signature(CharSequence name, int parameterCount) {
+        return name + "/" + parameterCount; //NOI18N
+    }
+
+    /**
+     * A field as entered in the dialog, or a blank final field the class already declares.
+     */
+    static final class Field {
+
+        private final String name;
+        private final String type;
+        private final boolean isStatic;
+        private final boolean isFinal;
+        private final boolean initialized;
+        private final Tree typeTree;
+
+        private Field(String name, String type, boolean isStatic, boolean isFinal, boolean initialized,
+                Tree typeTree) {
+            this.name = name;
+            this.type = type;
+            this.isStatic = isStatic;
+            this.isFinal = isFinal;
+            this.initialized = initialized;
+            this.typeTree = typeTree;
+        }
+
+        static Field create(String name, String type, boolean isStatic, boolean isFinal, boolean initialized) {
+            return new Field(name, type, isStatic, isFinal, initialized, null);
+        }
+
+        private static Field declared(VariableTree variable) {
+            return new Field(variable.getName().toString(), variable.getType().toString(), false, true, false,
+                    variable.getType());
+        }
+
+        String getGetterName() {
+            return ("boolean".equals(type) ? "is" : "get") + capitalize(name); //NOI18N
+        }
+
+        String getSetterName() {
+            return "set" + capitalize(name); //NOI18N
+        }
+
+        private boolean isPrimitive() {
+            return WRAPPERS.containsKey(type);
+        }
+
+        private boolean isFloatingPoint() {
+            return "float".equals(type) || "double".equals(type); //NOI18N
+        }
+
+        private boolean isArray() {
+            return type.endsWith("[]"); //NOI18N
+        }
+
+        private static String capitalize(String name) {
+            return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.github.isarthur.netbeans.editor.generator.java;
 
+import com.github.isarthur.netbeans.editor.generator.java.GeneratorStatistics.Phase;
 import com.github.isarthur.netbeans.editor.generator.java.ui.GenerateFieldsDialog;
+import com.github.isarthur.netbeans.editor.generator.java.ui.TypeResolver;
 import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.Tree;
@@ -23,23 +25,24 @@ import com.sun.source.util.SourcePositions;
 import com.sun.source.util.TreePath;
 import com.sun.source.util.Trees;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.lang.model.element.Modifier;
 import javax.swing.text.Document;
 import javax.swing.text.JTextComponent;
-import org.netbeans.api.editor.mimelookup.MimeRegistration;
 import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
 import org.netbeans.api.java.source.TreeMaker;
 import org.netbeans.api.java.source.TreeUtilities;
 import org.netbeans.api.java.source.WorkingCopy;
 import org.netbeans.spi.editor.codegen.CodeGenerator;
-import org.netbeans.spi.editor.codegen.CodeGeneratorContextProvider;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
 import org.openide.util.Exceptions;
-import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
 
 /**
@@ -48,6 +51,7 @@ import org.openide.util.NbBundle;
  */
 public class FieldGenerator implements CodeGenerator {
 
+    private static final GeneratorStatistics STATISTICS = GeneratorStatistics.of(FieldGenerator.class);
     private final JTextComponent editor;
     private GenerateFieldsDialog dialog;
     private Trees trees;
@@ -58,16 +62,15 @@ public class FieldGenerator implements CodeGenerator {
     private JavaSource javaSource;
     private int insertIndex;
 
-    /**
-     *
-     * @param context containing JTextComponent and possibly other items registered by
-     *                {@link CodeGeneratorContextProvider}
-     */
-    private FieldGenerator(Lookup context) { // Good practice is not to save Lookup outside ctor
-        editor = context.lookup(JTextComponent.class);
+    private FieldGenerator(JTextComponent editor) {
+        this.editor = editor;
         initialize();
     }
 
+    public static FieldGenerator create(JTextComponent editor) {
+        return new FieldGenerator(editor);
+    }
+
     private void initialize() {
         caretPosition = editor.getCaretPosition();
         Document document = editor.getDocument();
@@ -90,39 +93,109 @@ public class FieldGenerator implements CodeGenerator {
      */
     @Override
     public void invoke() {
-        dialog = GenerateFieldsDialog.createAndShow();
-        if (dialog.isOkButtonPushed()) {
-            try {
-                javaSource.runModificationTask(workingCopy -> {
-                    workingCopy.toPhase(JavaSource.Phase.RESOLVED);
-                    compilationUnit = workingCopy.getCompilationUnit();
-                    trees = workingCopy.getTrees();
-                    treeUtilities = workingCopy.getTreeUtilities();
-                    currentPath = treeUtilities.pathFor(caretPosition);
-                    TreePath classInterfaceOrEnumPath =
-                            treeUtilities.getPathElementOfKind(
-                                    Set.of(Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE), currentPath);
-                    if (classInterfaceOrEnumPath == null) {
-                        return;
+        STATISTICS.invoked();
+        try {
+            Boolean insideBlock =
+                    Availability.isInsideBlock(editor.getDocument(), javaSource, caretPosition, getDisplayName());
+            if (!Boolean.FALSE.equals(insideBlock)) {
+                Availability.notifyNotAvailable(getDisplayName());
+                STATISTICS.cancelled();
+                return;
+            }
+            long start = System.nanoTime();
+            TypeResolver typeResolver = createTypeResolver();
+            STATISTICS.record(Phase.PREPARATION, start);
+            dialog = GenerateFieldsDialog.createAndShow(typeResolver);
+            if (dialog.isOkButtonPushed()) {
+                start = System.nanoTime();
+                List<String> problems = new ArrayList<>();
+                try {
+                    ModificationResult result = javaSource.runModificationTask(workingCopy -> {
+                        try {
+                            workingCopy.toPhase(JavaSource.Phase.RESOLVED);
+                            compilationUnit = workingCopy.getCompilationUnit();
+                            trees = workingCopy.getTrees();
+                            treeUtilities = workingCopy.getTreeUtilities();
+                            currentPath = treeUtilities.pathFor(caretPosition);
+                            TreePath classInterfaceOrEnumPath =
+                                    treeUtilities.getPathElementOfKind(
+                                            Set.of(Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE), currentPath);
+                            if (classInterfaceOrEnumPath == null) {
+                                return;
+                            }
+                            ClassTree currentTree = (ClassTree) classInterfaceOrEnumPath.getLeaf();
+                            GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(),
+                                    GeneratorPhase.Kind.TREE_BUILD, workingCopy.getText().length());
+                            setInsertIndex(currentTree);
+                            insertFieldsIntoClassInterfaceOrEnum(workingCopy, problems);
+                            phase.end(dialog.getData().size());
+                        } finally {
+                            releaseCompilationState();
+                        }
+                    });
+                    GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(), GeneratorPhase.Kind.COMMIT,
+                            editor.getDocument().getLength());
+                    RangeCommit.commit(result, editor.getDocument());
+                    phase.end(0);
+                    STATISTICS.record(Phase.COMMIT, start);
+                    if (!problems.isEmpty()) {
+                        notifyProblems(problems);
                     }
-                    ClassTree currentTree = (ClassTree) classInterfaceOrEnumPath.getLeaf();
-                    setInsertIndex(currentTree);
-                    insertFieldsIntoClassInterfaceOrEnum(workingCopy);
-                }).commit();
-            } catch (IOException ex) {
-                Exceptions.printStackTrace(ex);
+                } catch (IOException ex) {
+                    STATISTICS.failed();
+                    Exceptions.printStackTrace(ex);
+                }
+            } else {
+                STATISTICS.cancelled();
             }
+            dialog.saveBounds();
+            dialog.dispose();
+            dialog = null;
+        } catch (RuntimeException ex) {
+            STATISTICS.failed();
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops the trees and utilities of the working copy, so that the generator does not keep the compilation alive
+     * after the modification task.
+     */
+    private void releaseCompilationState() {
+        compilationUnit = null;
+        trees = null;
+        treeUtilities = null;
+        currentPath = null;
+    }
+
+    private TypeResolver createTypeResolver() {
+        AtomicReference<TypeResolver> typeResolver = new AtomicReference<>();
+        try {
+            javaSource.runUserActionTask(controller -> {
+                controller.toPhase(JavaSource.Phase.PARSED);
+                typeResolver.set(TypeResolver.create(controller.getClasspathInfo(), controller.getCompilationUnit()));
+            }, true);
+        } catch (IOException ex) {
+            Exceptions.printStackTrace(ex);
         }
-        dialog.saveBounds();
-        dialog.dispose();
+        return typeResolver.get();
+    }
+
+    private void notifyProblems(List<String> problems) {
+        NotifyDescriptor descriptor = new NotifyDescriptor.Message(String.join("\n", problems), //NOI18N
+                NotifyDescriptor.WARNING_MESSAGE);
+        descriptor.setTitle(getDisplayName());
+        DialogDisplayer.getDefault().notify(descriptor);
     }
 
-    private void insertFieldsIntoClassInterfaceOrEnum(WorkingCopy workingCopy) {
-        ClassTree currentClassInterfaceOrEnumTree = getClassInterfaceOrEnumTree(workingCopy);
+    private void insertFieldsIntoClassInterfaceOrEnum(WorkingCopy workingCopy, List<String> problems) {
+        TreePath classInterfaceOrEnumPath = getClassInterfaceOrEnumPath(workingCopy);
+        ClassTree currentClassInterfaceOrEnumTree = (ClassTree) classInterfaceOrEnumPath.getLeaf();
         ClassTree newClassInterfaceOrEnumTree = currentClassInterfaceOrEnumTree;
         TreeMaker make = workingCopy.getTreeMaker();
         List<?> data = dialog.getData();
         int numberOfRows = data.size();
+        List<FieldAccessors.Field> fields = new ArrayList<>(numberOfRows);
         for (int row = 0; row < numberOfRows; row++) {
             Set<Modifier> modifiers = new HashSet<>();
             String fieldAccess = (String) ((List) data.get(row)).get(0);
@@ -167,17 +240,42 @@ public class FieldGenerator implements CodeGenerator {
                             fieldName,
                             make.QualIdent(fieldType),
                             fieldValue.isEmpty() ? null : make.Identifier(fieldValue)));
+            fields.add(FieldAccessors.Field.create(
+                    fieldName, fieldType, staticField, finalField, !fieldValue.isEmpty()));
+        }
+        List<Tree> accessors =
+                FieldAccessors.create(workingCopy, classInterfaceOrEnumPath, fields, getAccessorKinds(), problems);
+        for (int i = 0; i < accessors.size(); i++) {
+            newClassInterfaceOrEnumTree = make.insertClassMember(
+                    newClassInterfaceOrEnumTree, insertIndex + numberOfRows + i, accessors.get(i));
         }
         workingCopy.rewrite(currentClassInterfaceOrEnumTree, newClassInterfaceOrEnumTree);
     }
 
-    private ClassTree getClassInterfaceOrEnumTree(WorkingCopy workingCopy) {
+    private Set<FieldAccessors.Kind> getAccessorKinds() {
+        Set<FieldAccessors.Kind> kinds = EnumSet.noneOf(FieldAccessors.Kind.class);
+        if (dialog.isGenerateGetters()) {
+            kinds.add(FieldAccessors.Kind.GETTERS);
+        }
+        if (dialog.isGenerateSetters()) {
+            kinds.add(FieldAccessors.Kind.SETTERS);
+        }
+        if (dialog.isGenerateConstructor()) {
+            kinds.add(FieldAccessors.Kind.CONSTRUCTOR);
+        }
+        if (dialog.isGenerateEqualsAndHashCode()) {
+            kinds.add(FieldAccessors.Kind.EQUALS_AND_HASH_CODE);
+        }
+        return kinds;
+    }
+
+    private TreePath getClassInterfaceOrEnumPath(WorkingCopy workingCopy) {
         TreePath classInterfaceOrEnumPath = workingCopy.getTreeUtilities()
                 .getPathElementOfKind(Set.of(Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE), currentPath);
         if (classInterfaceOrEnumPath == null) {
             throw new IllegalStateException("No class, interface or enum in the java file!"); //NOI18N
         }
-        return (ClassTree) classInterfaceOrEnumPath.getLeaf();
+        return classInterfaceOrEnumPath;
     }
 
     private void setInsertIndex(ClassTree classInterfaceOrEnumTree) {
@@ -234,37 +332,4 @@ public class FieldGenerator implements CodeGenerator {
                 break;
         }
     }
-
-    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 6000) //NOI18N
-    public static class Factory implements CodeGenerator.Factory {
-
-        @Override
-        public List<? extends CodeGenerator> create(Lookup context) {
-            JTextComponent editor = context.lookup(JTextComponent.class);
-            JavaSource javaSource = JavaSource.forDocument(editor.getDocument());
-            if (javaSource == null) {
-                throw new IllegalStateException("The document is not associated with data type providing the JavaSource."); //NOI18N
-            }
-            AtomicBoolean insideBlock = new AtomicBoolean(true);
-            try {
-                javaSource.runUserActionTask(controller -> {
-                    JavaSource.Phase phase = controller.toPhase(JavaSource.Phase.RESOLVED);
-                    if (phase.compareTo(JavaSource.Phase.RESOLVED) < 0) {
-                        return;
-                    }
-                    TreeUtilities treeUtilities = controller.getTreeUtilities();
-                    TreePath currentPath = treeUtilities.pathFor(editor.getCaretPosition());
-                    TreePath blockPath = treeUtilities.getPathElementOfKind(Tree.Kind.BLOCK, currentPath);
-                    if (blockPath == null) {
-                        insideBlock.set(false);
-                    }
-                }, true);
-            } catch (IOException ex) {
-                Exceptions.printStackTrace(ex);
-            }
-            return !insideBlock.get()
-                    ? Collections.singletonList(new FieldGenerator(context))
-                    : Collections.emptyList();
-        }
-    }
 }
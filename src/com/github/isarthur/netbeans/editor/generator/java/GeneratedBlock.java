@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.lang.model.element.ExecutableElement;
+
+/**
+ * The statements of a block that invoke methods of one variable, as an earlier run of an invocation generator or the
+ * user left them: {@code variable.method(...);} or {@code Type name = variable.method(...);}, also with a
+ * {@code this.} receiver, or a statement of exactly the shape a configured statement template produces. Code the user
+ * wrapped around an invocation is not looked into, so a recorded statement never contains anything but the
+ * invocation and its template. Each invocation is keyed by the method name and the number of arguments, which is
+ * enough to tell which methods are already invoked without attributing the statements. Overloads with the same
+ * number of parameters share a key, so an invocation of one of them counts for all of them: telling them apart would
+ * need the arguments attributed, and the generators would then add a second invocation the user rarely wants. The
+ * block is scanned once, after that every check is a lookup.
+ *
+ * @author Arthur Sadykov
+ */
+final class GeneratedBlock {
+
+    private static final String THIS = "this"; //NOI18N
+    private final Map<String, StatementTree> statements;
+    private final List<String> variableNames;
+    private final int lastIndex;
+
+    private GeneratedBlock(Map<String, StatementTree> statements, List<String> variableNames, int lastIndex) {
+        this.statements = statements;
+        this.variableNames = variableNames;
+        this.lastIndex = lastIndex;
+    }
+
+    /**
+     * Collects the statements of the block that invoke a method accepted by the filter on the variable.
+     *
+     * @param templates the statement templates in use, a statement matching one of them is recognised as a whole
+     */
+    static GeneratedBlock find(BlockTree block, String variableName, Predicate<String> methodNameFilter,
+            List<StatementTemplate> templates) {
+        Map<String, StatementTree> statements = new LinkedHashMap<>();
+        List<String> variableNames = new ArrayList<>();
+        int lastIndex = -1;
+        List<? extends StatementTree> blockStatements = block.getStatements();
+        for (int i = 0; i < blockStatements.size(); i++) {
+            StatementTree statement = blockStatements.get(i);
+            if (collect(statement, variableName, methodNameFilter, templates, statements, variableNames)) {
+                lastIndex = i;
+            }
+        }
+        return new GeneratedBlock(statements, variableNames, lastIndex);
+    }
+
+    static String key(ExecutableElement method) {
+        return key(method.getSimpleName().toString(), method.getParameters().size());
+    }
+
+    private static String key(String methodName, int arity) {
+        return methodName + '/' + arity;
+    }
+
+    /**
+     * Records the invocation on the variable the statement consists of.
+     *
+     * @return {@code true} if the statement is such an invocation
+     */
+    private static boolean collect(StatementTree statement, String variableName, Predicate<String> methodNameFilter,
+            List<StatementTemplate> templates, Map<String, StatementTree> statements, List<String> variableNames) {
+        MethodInvocationTree invocation = invocationOf(statement);
+        if (invocation == null || !isInvocationOf(invocation, variableName)) {
+            invocation = null;
+            for (StatementTemplate template : templates) {
+                invocation = template.match(statement, variableName);
+                if (invocation != null) {
+                    break;
+                }
+            }
+        }
+        if (invocation == null) {
+            return false;
+        }
+        String methodName = ((MemberSelectTree) invocation.getMethodSelect()).getIdentifier().toString();
+        if (!methodNameFilter.test(methodName)) {
+            return false;
+        }
+        statements.putIfAbsent(key(methodName, invocation.getArguments().size()), statement);
+        if (statement.getKind() == Tree.Kind.VARIABLE) {
+            variableNames.add(((VariableTree) statement).getName().toString());
+        }
+        return true;
+    }
+
+    private static boolean isInvocationOf(MethodInvocationTree invocation, String variableName) {
+        return invocation.getMethodSelect().getKind() == Tree.Kind.MEMBER_SELECT
+                && isVariable(((MemberSelectTree) invocation.getMethodSelect()).getExpression(), variableName);
+    }
+
+    private static boolean isVariable(ExpressionTree receiver, String variableName) {
+        if (receiver.getKind() == Tree.Kind.MEMBER_SELECT) {
+            MemberSelectTree memberSelect = (MemberSelectTree) receiver;
+            return memberSelect.getIdentifier().contentEquals(variableName)
+                    && memberSelect.getExpression().getKind() == Tree.Kind.IDENTIFIER
+                    && ((IdentifierTree) memberSelect.getExpression()).getName().contentEquals(THIS);
+        }
+        return receiver.getKind() == Tree.Kind.IDENTIFIER
+                && ((IdentifierTree) receiver).getName().contentEquals(variableName);
+    }
+
+    private static MethodInvocationTree invocationOf(StatementTree statement) {
+        ExpressionTree expression = null;
+        if (statement.getKind() == Tree.Kind.EXPRESSION_STATEMENT) {
+            expression = ((ExpressionStatementTree) statement).getExpression();
+        } else if (statement.getKind() == Tree.Kind.VARIABLE) {
+            expression = ((VariableTree) statement).getInitializer();
+        }
+        return expression != null && expression.getKind() == Tree.Kind.METHOD_INVOCATION
+                ? (MethodInvocationTree) expression
+                : null;
+    }
+
+    boolean isEmpty() {
+        return statements.isEmpty();
+    }
+
+    boolean contains(ExecutableElement method) {
+        return statements.containsKey(key(method));
+    }
+
+    /**
+     * Returns the statements whose keys are not in the given set, they invoke methods the type no longer has.
+     */
+    List<StatementTree> getStaleStatements(Set<String> currentKeys) {
+        List<StatementTree> stale = new ArrayList<>();
+        statements.forEach((key, statement) -> {
+            if (!currentKeys.contains(key)) {
+                stale.add(statement);
+            }
+        });
+        return stale;
+    }
+
+    /**
+     * Names of the local variables declared by the statements, new variables must not clash with them.
+     */
+    List<String> getVariableNames() {
+        return Collections.unmodifiableList(variableNames);
+    }
+
+    /**
+     * Index of the last statement of the block that belongs to the generated statements.
+     */
+    int getLastIndex() {
+        return lastIndex;
+    }
+}
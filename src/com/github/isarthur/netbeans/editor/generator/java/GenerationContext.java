@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Scope;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Types;
+import org.netbeans.api.java.source.CompilationController;
+import org.netbeans.api.java.source.ElementHandle;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.api.java.source.TreeUtilities;
+import org.netbeans.api.java.source.WorkingCopy;
+
+/**
+ * Everything a generator engine needs to know about one generation: the working copy, the block enclosing the caret
+ * and the index the new statements go to. A context is created for every modification task and never changes, so
+ * the engines themselves keep no state and may be shared between threads.
+ *
+ * @author Arthur Sadykov
+ */
+final class GenerationContext {
+
+    private static final JavaSource.Phase SCOPE_PHASE = JavaSource.Phase.ELEMENTS_RESOLVED;
+    private final WorkingCopy workingCopy;
+    private final int caretPosition;
+    private final Scope scope;
+    private final BlockTree block;
+    private final int insertIndex;
+    private final ArgumentMatcher argumentMatcher;
+    private final StatementTemplate invocationTemplate;
+    private final StatementTemplate declarationTemplate;
+
+    private GenerationContext(WorkingCopy workingCopy, int caretPosition, Scope scope, BlockTree block,
+            int insertIndex) {
+        this.workingCopy = workingCopy;
+        this.caretPosition = caretPosition;
+        this.scope = scope;
+        this.block = block;
+        this.insertIndex = insertIndex;
+        this.argumentMatcher = ArgumentMatcher.create(workingCopy, scope, caretPosition);
+        this.invocationTemplate = StatementTemplate.forPreference(workingCopy, StatementTemplate.INVOCATION_PREFERENCE);
+        this.declarationTemplate =
+                StatementTemplate.forPreference(workingCopy, StatementTemplate.DECLARATION_PREFERENCE);
+    }
+
+    /**
+     * Moves the compilation only as far as the generators need it. The declarations of the file are entered but no
+     * method body is attributed, so errors or expensive lambdas elsewhere in the file cost nothing.
+     * {@link TreeUtilities#scopeFor(int)} then attributes the body enclosing the caret up to the caret, and the members
+     * of a variable's type are completed from the classpath when they are first read.
+     *
+     * @return {@code false} if the file could not be parsed
+     */
+    static boolean toScopePhase(CompilationController controller) throws IOException {
+        return controller.toPhase(SCOPE_PHASE).compareTo(SCOPE_PHASE) >= 0;
+    }
+
+    /**
+     * Brings the working copy to the scope phase and creates the context for the block enclosing the caret.
+     *
+     * @return the context or {@code null} if the caret is not inside a block
+     */
+    static GenerationContext create(WorkingCopy workingCopy, int caretPosition) throws IOException {
+        if (!toScopePhase(workingCopy)) {
+            return null;
+        }
+        TreeUtilities treeUtilities = workingCopy.getTreeUtilities();
+        TreePath currentPath = treeUtilities.pathFor(caretPosition);
+        TreePath blockPath = treeUtilities.getPathElementOfKind(Tree.Kind.BLOCK, currentPath);
+        if (blockPath == null) {
+            return null;
+        }
+        BlockTree block = (BlockTree) blockPath.getLeaf();
+        int insertIndex = insertIndex(workingCopy, block, caretPosition);
+        return new GenerationContext(workingCopy, caretPosition, treeUtilities.scopeFor(caretPosition), block,
+                insertIndex);
+    }
+
+    WorkingCopy getWorkingCopy() {
+        return workingCopy;
+    }
+
+    TreeMaker getTreeMaker() {
+        return workingCopy.getTreeMaker();
+    }
+
+    Types getTypes() {
+        return workingCopy.getTypes();
+    }
+
+    int getCaretPosition() {
+        return caretPosition;
+    }
+
+    Scope getScope() {
+        return scope;
+    }
+
+    BlockTree getBlock() {
+        return block;
+    }
+
+    int getInsertIndex() {
+        return insertIndex;
+    }
+
+    ArgumentMatcher getArgumentMatcher() {
+        return argumentMatcher;
+    }
+
+    /**
+     * Returns the template of statements that only invoke a method or {@code null} if the default shape is used.
+     */
+    StatementTemplate getInvocationTemplate() {
+        return invocationTemplate;
+    }
+
+    /**
+     * Returns the template of statements that store the result of a method in a local variable or {@code null} if
+     * the default shape is used.
+     */
+    StatementTemplate getDeclarationTemplate() {
+        return declarationTemplate;
+    }
+
+    /**
+     * Returns the configured templates, the default shapes are left out.
+     */
+    List<StatementTemplate> getTemplates() {
+        List<StatementTemplate> templates = new ArrayList<>(2);
+        if (invocationTemplate != null) {
+            templates.add(invocationTemplate);
+        }
+        if (declarationTemplate != null) {
+            templates.add(declarationTemplate);
+        }
+        return templates;
+    }
+
+    /**
+     * Finds the variable visible at the caret by its name, the innermost declaration wins.
+     */
+    VariableElement findVariable(String name) {
+        return argumentMatcher.find(name);
+    }
+
+    /**
+     * Resolves the variable chosen in a dialog. Fields are resolved through their handle, local variables and
+     * parameters by their name.
+     */
+    VariableElement resolve(VariableDescriptor variable) {
+        ElementHandle<VariableElement> handle = variable.getHandle();
+        return handle != null ? handle.resolve(workingCopy) : findVariable(variable.getName());
+    }
+
+    /**
+     * Inserts the statements at the insert index, in the given order, with a single rewrite of the block.
+     */
+    void insert(List<? extends StatementTree> statements) {
+        if (statements.isEmpty()) {
+            return;
+        }
+        TreeMaker treeMaker = getTreeMaker();
+        BlockTree newBlock = block;
+        for (int i = 0; i < statements.size(); i++) {
+            newBlock = treeMaker.insertBlockStatement(newBlock, insertIndex + i, statements.get(i));
+        }
+        workingCopy.rewrite(block, newBlock);
+    }
+
+    /**
+     * Removes the stale statements and inserts the new ones after the statement that had the given index, again with
+     * a single rewrite of the block. Statements that are kept are not touched.
+     */
+    void update(List<? extends StatementTree> removed, int lastIndex, List<? extends StatementTree> inserted) {
+        if (removed.isEmpty() && inserted.isEmpty()) {
+            return;
+        }
+        TreeMaker treeMaker = getTreeMaker();
+        List<? extends StatementTree> statements = block.getStatements();
+        int index = 0;
+        for (int i = 0; i <= lastIndex && i < statements.size(); i++) {
+            if (!removed.contains(statements.get(i))) {
+                index++;
+            }
+        }
+        BlockTree newBlock = block;
+        for (StatementTree statement : removed) {
+            newBlock = treeMaker.removeBlockStatement(newBlock, statement);
+        }
+        for (int i = 0; i < inserted.size(); i++) {
+            newBlock = treeMaker.insertBlockStatement(newBlock, index + i, inserted.get(i));
+        }
+        workingCopy.rewrite(block, newBlock);
+    }
+
+    private static int insertIndex(WorkingCopy workingCopy, BlockTree blockTree, int caretPosition) {
+        CompilationUnitTree compilationUnit = workingCopy.getCompilationUnit();
+        List<? extends StatementTree> statements = blockTree.getStatements();
+        SourcePositions sourcePositions = workingCopy.getTrees().getSourcePositions();
+        int size = statements.size();
+        int insertIndex = 0;
+        switch (size) {
+            case 1: {
+                StatementTree currentStatement = statements.get(0);
+                long currentStartPosition = sourcePositions.getStartPosition(compilationUnit, currentStatement);
+                if (caretPosition < currentStartPosition) {
+                    insertIndex = 0;
+                } else {
+                    insertIndex = 1;
+                }
+                break;
+            }
+            case 2: {
+                StatementTree previousStatement = statements.get(0);
+                long previousStartPosition = sourcePositions.getStartPosition(compilationUnit, previousStatement);
+                StatementTree currentStatement = statements.get(1);
+                long currentStartPosition = sourcePositions.getStartPosition(compilationUnit, currentStatement);
+                if (caretPosition < previousStartPosition) {
+                    insertIndex = 0;
+                } else if (currentStartPosition < caretPosition) {
+                    insertIndex = size;
+                } else {
+                    insertIndex = 1;
+                }
+                break;
+            }
+            default:
+                for (int i = 1; i < size; i++) {
+                    StatementTree previousStatement = statements.get(i - 1);
+                    long previousStartPosition = sourcePositions.getStartPosition(compilationUnit, previousStatement);
+                    StatementTree currentStatement = statements.get(i);
+                    long currentStartPosition = sourcePositions.getStartPosition(compilationUnit, currentStatement);
+                    if (i < size - 1) {
+                        if (previousStartPosition < caretPosition && caretPosition < currentStartPosition) {
+                            insertIndex = i;
+                            break;
+                        }
+                    } else {
+                        if (currentStartPosition < caretPosition) {
+                            insertIndex = size;
+                        } else {
+                            insertIndex = i;
+                        }
+                    }
+                }
+                break;
+        }
+        return insertIndex;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.text.JTextComponent;
+import org.netbeans.api.editor.mimelookup.MimeRegistration;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.spi.editor.codegen.CodeGenerator;
+import org.openide.util.Lookup;
+import org.openide.util.NbBundle;
+
+/**
+ * The entries of this module in the Insert Code popup. The factories only decide whether an entry is offered and
+ * return a placeholder that knows the display name; the generator, its engine and its dialogs are loaded when the
+ * entry is invoked. The generators are created by lambdas rather than method references, which would load the
+ * generator classes as soon as a factory is created.
+ *
+ * @author Arthur Sadykov
+ */
+public final class GeneratorFactories {
+
+    private GeneratorFactories() {
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 6000) //NOI18N
+    public static CodeGenerator.Factory fields() {
+        return new LazyFactory("FieldGenerator", "DN_Fields", Placement.OUTSIDE_BLOCK, //NOI18N
+                editor -> FieldGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 7000) //NOI18N
+    public static CodeGenerator.Factory methods() {
+        return new LazyFactory("MethodGenerator", "DN_Method", Placement.OUTSIDE_BLOCK, //NOI18N
+                editor -> MethodGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 8000) //NOI18N
+    public static CodeGenerator.Factory getterInvocations() {
+        return new LazyFactory("GetterInvocationGenerator", "GETTER_INVOCATIONS", Placement.INSIDE_BLOCK, //NOI18N
+                editor -> GetterInvocationGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 9000) //NOI18N
+    public static CodeGenerator.Factory setterInvocations() {
+        return new LazyFactory("SetterInvocationGenerator", "SETTER_INVOCATIONS", Placement.INSIDE_BLOCK, //NOI18N
+                editor -> SetterInvocationGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 9500) //NOI18N
+    public static CodeGenerator.Factory propertyMapping() {
+        return new LazyFactory("PropertyMappingGenerator", "PROPERTY_MAPPING", Placement.INSIDE_BLOCK, //NOI18N
+                editor -> PropertyMappingGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 10000) //NOI18N
+    public static CodeGenerator.Factory methodInvocations() {
+        return new LazyFactory("MethodInvocationGenerator", "OTHER_METHOD_INVOCATIONS", //NOI18N
+                Placement.INSIDE_BLOCK, editor -> MethodInvocationGenerator.create(editor));
+    }
+
+    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 11000) //NOI18N
+    public static CodeGenerator.Factory imports() {
+        return new LazyFactory("ImportGenerator", "DN_Import", Placement.ANYWHERE, //NOI18N
+                editor -> ImportGenerator.create(editor));
+    }
+
+    private enum Placement {
+        INSIDE_BLOCK,
+        OUTSIDE_BLOCK,
+        ANYWHERE
+    }
+
+    private static final class LazyFactory implements CodeGenerator.Factory {
+
+        private final String generator;
+        private final String displayNameKey;
+        private final Placement placement;
+        private final Function<JTextComponent, CodeGenerator> constructor;
+
+        private LazyFactory(String generator, String displayNameKey, Placement placement,
+                Function<JTextComponent, CodeGenerator> constructor) {
+            this.generator = generator;
+            this.displayNameKey = displayNameKey;
+            this.placement = placement;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public List<? extends CodeGenerator> create(Lookup context) {
+            long start = System.nanoTime();
+            JTextComponent editor = context.lookup(JTextComponent.class);
+            GeneratorPhase phase = GeneratorPhase.start(generator, GeneratorPhase.Kind.FACTORY_CHECK,
+                    editor != null ? editor.getDocument().getLength() : 0);
+            try {
+                return isAvailable(editor)
+                        ? Collections.singletonList(new LazyGenerator(this, editor))
+                        : Collections.emptyList();
+            } finally {
+                phase.end(0);
+                GeneratorStatistics.recordAvailability(generator, start);
+            }
+        }
+
+        private boolean isAvailable(JTextComponent editor) {
+            if (placement == Placement.ANYWHERE) {
+                return true;
+            }
+            JavaSource javaSource = JavaSource.forDocument(editor.getDocument());
+            if (javaSource == null) {
+                throw new IllegalStateException("The document is not associated with data type providing the JavaSource."); //NOI18N
+            }
+            Boolean insideBlock = Availability.isInsideBlock(editor, javaSource);
+            return insideBlock == null || insideBlock == (placement == Placement.INSIDE_BLOCK);
+        }
+    }
+
+    private static final class LazyGenerator implements CodeGenerator {
+
+        private final LazyFactory factory;
+        private final JTextComponent editor;
+
+        private LazyGenerator(LazyFactory factory, JTextComponent editor) {
+            this.factory = factory;
+            this.editor = editor;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return NbBundle.getMessage(GeneratorFactories.class, factory.displayNameKey);
+        }
+
+        @Override
+        public void invoke() {
+            factory.constructor.apply(editor).invoke();
+        }
+    }
+}
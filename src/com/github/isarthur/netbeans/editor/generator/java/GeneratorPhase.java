@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One phase of a generation as seen by Java Flight Recorder. A phase is started before the work and ended after it;
+ * on runtimes without JFR both are no-ops, and with JFR the event is only committed if a recording asks for it.
+ *
+ * @author Arthur Sadykov
+ */
+abstract class GeneratorPhase {
+
+    private static final Logger LOG = Logger.getLogger(GeneratorPhase.class.getName());
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+    private static final GeneratorPhase NONE = new GeneratorPhase() {
+        @Override
+        void end(int memberCount) {
+        }
+    };
+
+    enum Kind {
+        FACTORY_CHECK,
+        MEMBER_COLLECTION,
+        ARGUMENT_SYNTHESIS,
+        TREE_BUILD,
+        COMMIT
+    }
+
+    /**
+     * Starts a phase.
+     *
+     * @param generator the simple name of the generator class
+     * @param kind      the phase
+     * @param fileSize  the length of the file being generated into, in characters
+     */
+    static GeneratorPhase start(String generator, Kind kind, long fileSize) {
+        return JFR_AVAILABLE ? new FlightRecorderPhase(generator, kind, fileSize) : NONE;
+    }
+
+    /**
+     * Ends the phase.
+     *
+     * @param memberCount the number of members, statements or variables the phase worked on
+     */
+    abstract void end(int memberCount);
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, GeneratorPhase.class.getClassLoader()); //NOI18N
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            LOG.log(Level.FINE, null, ex);
+            return false;
+        }
+    }
+
+    private static final class FlightRecorderPhase extends GeneratorPhase {
+
+        private final GeneratorPhaseEvent event = new GeneratorPhaseEvent();
+
+        private FlightRecorderPhase(String generator, Kind kind, long fileSize) {
+            event.generator = generator;
+            event.phase = kind.name();
+            event.fileSize = fileSize;
+            event.begin();
+        }
+
+        @Override
+        void end(int memberCount) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.memberCount = memberCount;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one generator phase, see {@link GeneratorPhase}. Only loaded when the runtime has JFR.
+ *
+ * @author Arthur Sadykov
+ */
+@Name("com.github.isarthur.netbeans.editor.generator.Phase") //NOI18N
+@Label("Code Generator Phase") //NOI18N
+@Category({"NetBeans", "Code Generator"}) //NOI18N
+@Description("A phase of a code generator invocation") //NOI18N
+@StackTrace(false)
+final class GeneratorPhaseEvent extends Event {
+
+    @Label("Generator") //NOI18N
+    String generator;
+
+    @Label("Phase") //NOI18N
+    String phase;
+
+    @Label("File Size") //NOI18N
+    @Description("Length of the file in characters") //NOI18N
+    long fileSize;
+
+    @Label("Member Count") //NOI18N
+    @Description("Members, statements or variables the phase worked on") //NOI18N
+    int memberCount;
+}
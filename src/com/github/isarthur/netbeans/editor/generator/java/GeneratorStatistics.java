@@ -0,0 +1,202 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Invocation counters and latency histograms of one generator, registered in the platform MBean server under
+ * {@value #DOMAIN}{@code :type=Generator,name=<generator class>} so that they can be watched from JConsole or
+ * VisualVM attached to the IDE. A generator is registered the first time it is invoked; until then the Insert Code
+ * popup only buffers how long it took to decide whether to offer it, see {@link #recordAvailability}.
+ *
+ * @author Arthur Sadykov
+ */
+final class GeneratorStatistics implements GeneratorStatisticsMXBean {
+
+    static final String DOMAIN = "com.github.isarthur.netbeans.editor.generator"; //NOI18N
+    private static final Logger LOG = Logger.getLogger(GeneratorStatistics.class.getName());
+    private static final Map<String, GeneratorStatistics> STATISTICS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLongArray> AVAILABILITY_LATENCIES = new ConcurrentHashMap<>();
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+    private final String generator;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder cancels = new LongAdder();
+    private final AtomicLongArray[] latencies = new AtomicLongArray[Phase.values().length];
+
+    enum Phase {
+        /**
+         * Deciding whether the generator is offered in the Insert Code popup.
+         */
+        AVAILABILITY,
+        /**
+         * Collecting what the dialog shows before the user makes a choice.
+         */
+        PREPARATION,
+        /**
+         * Building the trees and committing the changes to the document.
+         */
+        COMMIT
+    }
+
+    private GeneratorStatistics(String generator) {
+        this.generator = generator;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+        }
+        // the popup may have counted into this histogram before the generator was first invoked
+        latencies[Phase.AVAILABILITY.ordinal()] = availabilityLatencies(generator);
+    }
+
+    static GeneratorStatistics of(Class<?> generatorClass) {
+        return of(generatorClass.getSimpleName());
+    }
+
+    /**
+     * Looks the statistics up by the simple name of the generator class, without loading that class.
+     */
+    static GeneratorStatistics of(String generator) {
+        return STATISTICS.computeIfAbsent(generator, GeneratorStatistics::register);
+    }
+
+    /**
+     * Records the availability check of the generator with the given simple class name without registering its
+     * MBean, so that opening the Insert Code popup stays cheap for generators that are never invoked.
+     */
+    static void recordAvailability(String generator, long start) {
+        availabilityLatencies(generator).incrementAndGet(bucket(start));
+    }
+
+    private static AtomicLongArray availabilityLatencies(String generator) {
+        return AVAILABILITY_LATENCIES.computeIfAbsent(generator,
+                name -> new AtomicLongArray(BUCKET_BOUNDS.length + 1));
+    }
+
+    private static GeneratorStatistics register(String generator) {
+        GeneratorStatistics statistics = new GeneratorStatistics(generator);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=Generator,name=" + generator); //NOI18N
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(statistics, name);
+        } catch (JMException | SecurityException ex) {
+            LOG.log(Level.FINE, null, ex);
+        }
+        return statistics;
+    }
+
+    void invoked() {
+        invocations.increment();
+    }
+
+    void failed() {
+        failures.increment();
+    }
+
+    void cancelled() {
+        cancels.increment();
+    }
+
+    /**
+     * Records the time elapsed since {@code start}, a {@link System#nanoTime()} value, in the histogram of the phase.
+     */
+    void record(Phase phase, long start) {
+        latencies[phase.ordinal()].incrementAndGet(bucket(start));
+    }
+
+    @Override
+    public String getGenerator() {
+        return generator;
+    }
+
+    @Override
+    public long getInvocationCount() {
+        return invocations.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getCancelCount() {
+        return cancels.sum();
+    }
+
+    @Override
+    public long[] getLatencyBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+    @Override
+    public long[] getAvailabilityLatencies() {
+        return getLatencies(Phase.AVAILABILITY);
+    }
+
+    @Override
+    public long[] getPreparationLatencies() {
+        return getLatencies(Phase.PREPARATION);
+    }
+
+    @Override
+    public long[] getCommitLatencies() {
+        return getLatencies(Phase.COMMIT);
+    }
+
+    @Override
+    public void reset() {
+        invocations.reset();
+        failures.reset();
+        cancels.reset();
+        for (AtomicLongArray histogram : latencies) {
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    private static int bucket(long start) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis > BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private long[] getLatencies(Phase phase) {
+        AtomicLongArray histogram = latencies[phase.ordinal()];
+        long[] counts = new long[histogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+}
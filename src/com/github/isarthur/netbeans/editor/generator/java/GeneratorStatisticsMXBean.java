@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+/**
+ * Management interface of the statistics kept for one generator. The latency histograms count the measured
+ * durations per bucket; bucket {@code i} holds the durations up to {@code getLatencyBucketBounds()[i]} milliseconds
+ * and the last bucket everything slower.
+ *
+ * @author Arthur Sadykov
+ */
+public interface GeneratorStatisticsMXBean {
+
+    String getGenerator();
+
+    long getInvocationCount();
+
+    long getFailureCount();
+
+    long getCancelCount();
+
+    long[] getLatencyBucketBounds();
+
+    long[] getAvailabilityLatencies();
+
+    long[] getPreparationLatencies();
+
+    long[] getCommitLatencies();
+
+    void reset();
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.StatementTree;
+import java.util.List;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Declares a local variable for every public getter of a variable.
+ *
+ * @author Arthur Sadykov
+ */
+final class GetterInvocationEngine extends InvocationEngine {
+
+    GetterInvocationEngine() {
+        super(GetterInvocationGenerator.class);
+    }
+
+    @Override
+    boolean acceptsMethodName(String methodName) {
+        return !getVariableName(methodName).isEmpty();
+    }
+
+    @Override
+    boolean accepts(ExecutableElement method) {
+        return !isMethodNotPublic(method)
+                && !isMethodReturnVoid(method)
+                && !isMethodStatic(method)
+                && acceptsMethodName(method.getSimpleName().toString());
+    }
+
+    @Override
+    boolean accepts(BeanAccessor accessor, String typeName) {
+        return super.accepts(accessor, typeName) && !accessor.isVoid();
+    }
+
+    @Override
+    StatementTree createStatement(GenerationContext context, VariableElement variable, ExecutableElement method,
+            List<String> addedVariables) {
+        return createDeclaration(
+                context,
+                variable,
+                method,
+                incrementNumberOfVariableIfNeeded(getVariableName(method.getSimpleName().toString()), addedVariables));
+    }
+
+    private static String getVariableName(String methodName) {
+        String variableName;
+        if (methodName.startsWith("get") && methodName.length() > 3) { //NOI18N
+            variableName = decapitalize(methodName.substring(3));
+            if (variableName.equals("class")) { //NOI18N
+                variableName = ""; //NOI18N
+            }
+        } else if (methodName.startsWith("is") && methodName.length() > 2) { //NOI18N
+            variableName = decapitalize(methodName.substring(2));
+        } else {
+            variableName = ""; //NOI18N
+        }
+        return variableName;
+    }
+
+    private static String decapitalize(String string) {
+        if (string.isEmpty()) {
+            return ""; //NOI18N
+        }
+        return string.substring(0, 1).toLowerCase().concat(string.substring(1));
+    }
+}
@@ -15,43 +15,42 @@
  */
 package com.github.isarthur.netbeans.editor.generator.java;
 
+import com.github.isarthur.netbeans.editor.generator.java.GeneratorStatistics.Phase;
+import com.github.isarthur.netbeans.editor.generator.java.ui.ImportTypeDialog;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ImportTree;
 import com.sun.source.util.SourcePositions;
 import com.sun.source.util.Trees;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import javax.lang.model.element.TypeElement;
 import javax.swing.text.Document;
 import javax.swing.text.JTextComponent;
-import org.netbeans.api.editor.mimelookup.MimeRegistration;
 import org.netbeans.api.java.source.CompilationController;
-import org.netbeans.api.java.source.ElementHandle;
 import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
 import org.netbeans.api.java.source.TreeMaker;
-import org.netbeans.api.java.source.ui.TypeElementFinder;
 import org.netbeans.spi.editor.codegen.CodeGenerator;
-import org.netbeans.spi.editor.codegen.CodeGeneratorContextProvider;
+import org.openide.filesystems.FileObject;
 import org.openide.util.Exceptions;
-import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
 
 public class ImportGenerator implements CodeGenerator {
 
+    private static final GeneratorStatistics STATISTICS = GeneratorStatistics.of(ImportGenerator.class);
+    private static final String JAVA_LANG = "java.lang"; //NOI18N
     private final JTextComponent component;
     private final Document document;
 
-    /**
-     *
-     * @param context containing JTextComponent and possibly other items registered by
-     *                {@link CodeGeneratorContextProvider}
-     */
-    private ImportGenerator(Lookup context) { // Good practice is not to save Lookup outside ctor
-        component = context.lookup(JTextComponent.class);
+    private ImportGenerator(JTextComponent component) {
+        this.component = component;
         document = component.getDocument();
     }
 
+    public static ImportGenerator create(JTextComponent component) {
+        return new ImportGenerator(component);
+    }
+
     /**
      * The name which will be inserted inside Insert Code dialog
      */
@@ -65,49 +64,84 @@ public class ImportGenerator implements CodeGenerator {
      */
     @Override
     public void invoke() {
-        ElementHandle<TypeElement> typeHandle = TypeElementFinder.find(null, null, null);
-        if (typeHandle == null) {
-            return;
-        }
-        String qualifiedName = typeHandle.getQualifiedName();
-        if (qualifiedName.startsWith("java.lang")) { //NOI18N
-            return;
-        }
         JavaSource javaSource = JavaSource.forDocument(document);
         if (javaSource == null) {
             throw new IllegalStateException("The document is not associated with data type providing the JavaSource."); //NOI18N
         }
+        STATISTICS.invoked();
         try {
-            javaSource.runModificationTask(copy -> {
-                JavaSource.Phase phase = copy.toPhase(JavaSource.Phase.PARSED);
-                if (phase.compareTo(JavaSource.Phase.PARSED) < 0) {
-                    throw new IllegalStateException("Cannot move state to Phase.PARSED."); //NOI18N
-                }
-                CompilationUnitTree compilationUnitTree = copy.getCompilationUnit();
-                List<? extends ImportTree> imports = compilationUnitTree.getImports();
-                for (ImportTree importTree : imports) {
-                    String importIdentifier = importTree.getQualifiedIdentifier().toString();
-                    if (importIdentifier.equals(qualifiedName)) {
-                        return;
+            long start = System.nanoTime();
+            ImportHistory importHistory = ImportHistory.forFile(getFileObject(javaSource));
+            List<String> recentTypes = importHistory.getTypes();
+            STATISTICS.record(Phase.PREPARATION, start);
+            ImportTypeDialog dialog = ImportTypeDialog.createAndShow(recentTypes, javaSource.getClasspathInfo());
+            String qualifiedName = dialog.isOkButtonPushed() ? dialog.getSelectedType() : null;
+            dialog.saveBounds();
+            dialog.dispose();
+            if (qualifiedName == null) {
+                STATISTICS.cancelled();
+                return;
+            }
+            importHistory.record(qualifiedName);
+            if (isImplicitlyImported(qualifiedName)) {
+                return;
+            }
+            start = System.nanoTime();
+            try {
+                ModificationResult result = javaSource.runModificationTask(copy -> {
+                    JavaSource.Phase phase = copy.toPhase(JavaSource.Phase.PARSED);
+                    if (phase.compareTo(JavaSource.Phase.PARSED) < 0) {
+                        throw new IllegalStateException("Cannot move state to Phase.PARSED."); //NOI18N
                     }
-                }
-                TreeMaker treeMaker = copy.getTreeMaker();
-                ImportTree importTree = treeMaker.Import(treeMaker.Identifier(qualifiedName), false);
-                CompilationUnitTree newCompilationUnitTree;
-                int insertIndex = findInsertIndexInImportTree(copy);
-                if (insertIndex == -1) {
-                    newCompilationUnitTree = treeMaker.addCompUnitImport(compilationUnitTree, importTree);
-                } else {
-                    newCompilationUnitTree =
-                            treeMaker.insertCompUnitImport(compilationUnitTree, insertIndex, importTree);
-                }
-                copy.rewrite(compilationUnitTree, newCompilationUnitTree);
-            }).commit();
-        } catch (IOException ex) {
-            Exceptions.printStackTrace(ex);
+                    CompilationUnitTree compilationUnitTree = copy.getCompilationUnit();
+                    List<? extends ImportTree> imports = compilationUnitTree.getImports();
+                    for (ImportTree importTree : imports) {
+                        String importIdentifier = importTree.getQualifiedIdentifier().toString();
+                        if (importIdentifier.equals(qualifiedName)) {
+                            return;
+                        }
+                    }
+                    TreeMaker treeMaker = copy.getTreeMaker();
+                    ImportTree importTree = treeMaker.Import(treeMaker.Identifier(qualifiedName), false);
+                    CompilationUnitTree newCompilationUnitTree;
+                    int insertIndex = findInsertIndexInImportTree(copy);
+                    if (insertIndex == -1) {
+                        newCompilationUnitTree = treeMaker.addCompUnitImport(compilationUnitTree, importTree);
+                    } else {
+                        newCompilationUnitTree =
+                                treeMaker.insertCompUnitImport(compilationUnitTree, insertIndex, importTree);
+                    }
+                    copy.rewrite(compilationUnitTree, newCompilationUnitTree);
+                });
+                GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(), GeneratorPhase.Kind.COMMIT,
+                        document.getLength());
+                RangeCommit.commit(result, document);
+                phase.end(0);
+                STATISTICS.record(Phase.COMMIT, start);
+            } catch (IOException ex) {
+                STATISTICS.failed();
+                Exceptions.printStackTrace(ex);
+            }
+        } catch (RuntimeException ex) {
+            STATISTICS.failed();
+            throw ex;
         }
     }
 
+    /**
+     * Returns {@code true} for the top level types of {@code java.lang}, but not for its subpackages, its nested types
+     * or packages whose name merely starts with it.
+     */
+    private static boolean isImplicitlyImported(String qualifiedName) {
+        int lastDot = qualifiedName.lastIndexOf('.');
+        return lastDot >= 0 && JAVA_LANG.equals(qualifiedName.substring(0, lastDot));
+    }
+
+    private FileObject getFileObject(JavaSource javaSource) {
+        Iterator<FileObject> fileObjects = javaSource.getFileObjects().iterator();
+        return fileObjects.hasNext() ? fileObjects.next() : null;
+    }
+
     private int findInsertIndexInImportTree(CompilationController controller) {
         Trees trees = controller.getTrees();
         CompilationUnitTree compilationUnit = controller.getCompilationUnit();
@@ -167,13 +201,4 @@ public class ImportGenerator implements CodeGenerator {
         }
         return -1;
     }
-
-    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 11000)
-    public static class Factory implements CodeGenerator.Factory {
-
-        @Override
-        public List<? extends CodeGenerator> create(Lookup context) {
-            return Collections.singletonList(new ImportGenerator(context));
-        }
-    }
 }
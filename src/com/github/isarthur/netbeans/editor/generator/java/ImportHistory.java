@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.netbeans.api.project.FileOwnerQuery;
+import org.netbeans.api.project.Project;
+import org.openide.filesystems.FileObject;
+import org.openide.util.Exceptions;
+import org.openide.util.NbPreferences;
+
+/**
+ * Most recently and most frequently imported types of a project, persisted in the module preferences.
+ *
+ * @author Arthur Sadykov
+ */
+final class ImportHistory {
+
+    private static final String HISTORY_NODE = "importHistory"; //NOI18N
+    private static final String DEFAULT_PROJECT = "default"; //NOI18N
+    private static final String ENTRY_KEY = "entry."; //NOI18N
+    private static final String SEPARATOR = "|"; //NOI18N
+    private static final String DIGEST_ALGORITHM = "SHA-256"; //NOI18N
+    private static final int MAX_ENTRIES = 50;
+    private static final long HALF_LIFE = TimeUnit.DAYS.toMillis(7);
+    private final Preferences preferences;
+
+    ImportHistory(Preferences preferences) {
+        this.preferences = preferences;
+    }
+
+    static ImportHistory forFile(FileObject file) {
+        Project project = file != null ? FileOwnerQuery.getOwner(file) : null;
+        String projectKey = project != null ? projectKey(project.getProjectDirectory().getPath()) : DEFAULT_PROJECT;
+        return new ImportHistory(NbPreferences.forModule(ImportHistory.class).node(HISTORY_NODE).node(projectKey));
+    }
+
+    /**
+     * Names the preferences node of a project by the SHA-256 digest of its directory, a path may be longer than a
+     * node name can be and contains slashes.
+     */
+    static String projectKey(String projectPath) {
+        try {
+            byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(projectPath.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    synchronized List<String> getTypes() {
+        List<Entry> entries = load();
+        List<String> types = new ArrayList<>(entries.size());
+        entries.forEach(entry -> types.add(entry.qualifiedName));
+        return Collections.unmodifiableList(types);
+    }
+
+    /**
+     * Moves the type to the front of the history. When the history is full the lowest scored other type is evicted,
+     * the recorded type is always kept even if older types were imported more often.
+     */
+    synchronized void record(String qualifiedName) {
+        List<Entry> entries = load();
+        int count = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).qualifiedName.equals(qualifiedName)) {
+                count = entries.remove(i).count;
+                break;
+            }
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.subList(MAX_ENTRIES - 1, entries.size()).clear();
+        }
+        entries.add(new Entry(qualifiedName, count + 1, System.currentTimeMillis()));
+        sort(entries);
+        store(entries);
+    }
+
+    private List<Entry> load() {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            String value = preferences.get(ENTRY_KEY + i, null);
+            if (value == null) {
+                break;
+            }
+            Entry entry = Entry.parse(value);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        sort(entries);
+        return entries;
+    }
+
+    private void store(List<Entry> entries) {
+        try {
+            preferences.clear();
+            for (int i = 0; i < entries.size(); i++) {
+                preferences.put(ENTRY_KEY + i, entries.get(i).toString());
+            }
+        } catch (BackingStoreException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+    private static void sort(List<Entry> entries) {
+        long now = System.currentTimeMillis();
+        entries.sort(Comparator.comparingDouble((Entry entry) -> entry.score(now)).reversed());
+    }
+
+    private static final class Entry {
+
+        private final String qualifiedName;
+        private final int count;
+        private final long lastUsed;
+
+        private Entry(String qualifiedName, int count, long lastUsed) {
+            this.qualifiedName = qualifiedName;
+            this.count = count;
+            this.lastUsed = lastUsed;
+        }
+
+        private static Entry parse(String value) {
+            String[] parts = value.split("\\" + SEPARATOR, 3); //NOI18N
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                return new Entry(parts[2], Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        private double score(long now) {
+            double age = Math.max(0, now - lastUsed);
+            return count * Math.pow(0.5, age / HALF_LIFE);
+        }
+
+        @Override
+        public String toString() {
+            return count + SEPARATOR + lastUsed + SEPARATOR + qualifiedName;
+        }
+    }
+}
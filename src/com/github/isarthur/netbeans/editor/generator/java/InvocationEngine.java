@@ -0,0 +1,418 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ModifiersTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SourcePositions;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.api.java.source.WorkingCopy;
+import org.openide.util.Exceptions;
+
+/**
+ * Stateless part of the invocation generators. An engine only sees the {@link GenerationContext} of the current
+ * generation, so a single instance serves every editor and may run on any thread, one working copy at a time.
+ *
+ * @author Arthur Sadykov
+ */
+abstract class InvocationEngine {
+
+    private final String generator;
+
+    InvocationEngine(Class<?> generatorClass) {
+        generator = generatorClass.getSimpleName();
+    }
+
+    /**
+     * Computes the invocations on the variable with the given name without applying them. The result can be
+     * committed, turned into {@link TextEdit}s or dropped, the document is not touched until
+     * {@link ModificationResult#commit()} is called.
+     */
+    ModificationResult computeModifications(JavaSource javaSource, int caretPosition, String variableName)
+            throws IOException {
+        return javaSource.runModificationTask(workingCopy -> {
+            generate(workingCopy, caretPosition, variableName);
+        });
+    }
+
+    /**
+     * Computes the invocations on the variable chosen in a dialog without applying them. Only this variable is
+     * resolved again in the working copy.
+     *
+     * @param removeStale whether the statements that invoke methods the type of the variable no longer has are
+     *                    removed, which the user has to confirm first
+     */
+    ModificationResult computeModifications(JavaSource javaSource, int caretPosition, VariableDescriptor variable,
+            boolean removeStale) throws IOException {
+        return javaSource.runModificationTask(workingCopy -> {
+            generate(workingCopy, caretPosition, variable, removeStale);
+        });
+    }
+
+    /**
+     * Computes the invocations on the variable chosen in a dialog without applying them, keeping the statements an
+     * earlier run left in the block that invoke methods the type of the variable no longer has, neither declared
+     * nor inherited. Their text is listed in the same pass, so a generator can ask the user about them and only
+     * if the user agrees compute the modifications again with {@code removeStale} set.
+     */
+    Generation computeGeneration(JavaSource javaSource, int caretPosition, VariableDescriptor variable)
+            throws IOException {
+        List<String> staleStatements = new ArrayList<>();
+        ModificationResult result = javaSource.runModificationTask(workingCopy -> {
+            GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+            if (context != null) {
+                generate(context, context.resolve(variable), false, staleStatements);
+            }
+        });
+        return new Generation(result, staleStatements);
+    }
+
+    /**
+     * Inserts the invocations on the variable with the given name into the block enclosing the caret. If the block
+     * already holds invocations on that variable, as left by an earlier run, only the invocations of new methods are
+     * added after them. No statement is removed.
+     *
+     * @return {@code true} if the variable was found and the block was changed
+     */
+    boolean generate(WorkingCopy workingCopy, int caretPosition, String variableName) throws IOException {
+        return generate(workingCopy, caretPosition, variableName, false);
+    }
+
+    /**
+     * Like {@link #generate(WorkingCopy, int, String)}, and if {@code removeStale} is set also removes the
+     * statements that invoke methods the type of the variable no longer has.
+     */
+    boolean generate(WorkingCopy workingCopy, int caretPosition, String variableName, boolean removeStale)
+            throws IOException {
+        GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+        if (context == null) {
+            return false;
+        }
+        return generate(context, context.findVariable(variableName), removeStale, null);
+    }
+
+    /**
+     * Like {@link #generate(WorkingCopy, int, String, boolean)} for a variable chosen in a dialog.
+     */
+    boolean generate(WorkingCopy workingCopy, int caretPosition, VariableDescriptor variable, boolean removeStale)
+            throws IOException {
+        GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+        if (context == null) {
+            return false;
+        }
+        return generate(context, context.resolve(variable), removeStale, null);
+    }
+
+    /**
+     * Generates the invocations and, if {@code staleTexts} is given, adds the text of the stale statements that are
+     * kept to it.
+     */
+    private boolean generate(GenerationContext context, VariableElement variable, boolean removeStale,
+            List<String> staleTexts) {
+        if (variable == null) {
+            return false;
+        }
+        String variableName = variable.getSimpleName().toString();
+        List<ExecutableElement> methods = getMethods(context, variable);
+        GeneratedBlock generatedBlock = GeneratedBlock.find(
+                context.getBlock(), variableName, this::acceptsMethodName, context.getTemplates());
+        if (generatedBlock.isEmpty()) {
+            List<StatementTree> statements = createStatements(context, variable, methods, new ArrayList<>());
+            context.insert(statements);
+            return !statements.isEmpty();
+        }
+        List<ExecutableElement> newMethods = new ArrayList<>();
+        for (ExecutableElement method : methods) {
+            if (!generatedBlock.contains(method)) {
+                newMethods.add(method);
+            }
+        }
+        List<StatementTree> staleStatements = Collections.emptyList();
+        if (removeStale) {
+            staleStatements = generatedBlock.getStaleStatements(getAllMethodKeys(context, variable));
+        } else if (staleTexts != null) {
+            staleTexts.addAll(getTexts(context.getWorkingCopy(),
+                    generatedBlock.getStaleStatements(getAllMethodKeys(context, variable))));
+        }
+        List<StatementTree> statements = createStatements(context, variable, newMethods,
+                new ArrayList<>(generatedBlock.getVariableNames()));
+        context.update(staleStatements, generatedBlock.getLastIndex(), statements);
+        return !statements.isEmpty() || !staleStatements.isEmpty();
+    }
+
+    private static List<String> getTexts(WorkingCopy workingCopy, List<StatementTree> statements) {
+        SourcePositions sourcePositions = workingCopy.getTrees().getSourcePositions();
+        CompilationUnitTree compilationUnit = workingCopy.getCompilationUnit();
+        String text = workingCopy.getText();
+        List<String> texts = new ArrayList<>(statements.size());
+        for (StatementTree statement : statements) {
+            int start = (int) sourcePositions.getStartPosition(compilationUnit, statement);
+            int end = (int) sourcePositions.getEndPosition(compilationUnit, statement);
+            if (start >= 0 && end >= start) {
+                texts.add(text.substring(start, end));
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Returns the methods of the variable's type this engine generates invocations for, in declaration order.
+     */
+    List<ExecutableElement> getMethods(GenerationContext context, VariableElement variable) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : getMethodsDeclaredInClassOf(context, variable)) {
+            if (accepts(method)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    List<StatementTree> createStatements(GenerationContext context, VariableElement variable,
+            List<ExecutableElement> methods, List<String> addedVariables) {
+        long fileSize = context.getWorkingCopy().getText().length();
+        GeneratorPhase phase = GeneratorPhase.start(generator, GeneratorPhase.Kind.ARGUMENT_SYNTHESIS, fileSize);
+        ArgumentMatcher argumentMatcher = context.getArgumentMatcher();
+        methods.forEach(argumentMatcher::match);
+        phase.end(methods.size());
+        phase = GeneratorPhase.start(generator, GeneratorPhase.Kind.TREE_BUILD, fileSize);
+        List<StatementTree> statements = new ArrayList<>(methods.size());
+        for (ExecutableElement method : methods) {
+            statements.add(createStatement(context, variable, method, addedVariables));
+        }
+        phase.end(statements.size());
+        return statements;
+    }
+
+    /**
+     * Tells whether an invocation of a method with this name is one this engine would generate. Used to recognise
+     * the statements of an earlier run without attributing them.
+     */
+    abstract boolean acceptsMethodName(String methodName);
+
+    abstract boolean accepts(ExecutableElement method);
+
+    /**
+     * Tells whether this engine would invoke the indexed accessor on a variable of the given type, so that a chooser
+     * can leave out the variables this engine has nothing to generate for without attributing their types. Only the
+     * methods declared by the type itself are invoked, as in {@link #getMethods}.
+     */
+    boolean accepts(BeanAccessor accessor, String typeName) {
+        return accessor.getDeclaringType().equals(typeName) && acceptsMethodName(accessor.getName());
+    }
+
+    abstract StatementTree createStatement(GenerationContext context, VariableElement variable,
+            ExecutableElement method, List<String> addedVariables);
+
+    static List<ExecutableElement> getMethodsDeclaredInClassOf(GenerationContext context, Element element) {
+        Element type = context.getTypes().asElement(element.asType());
+        if (type == null) {
+            return Collections.emptyList();
+        }
+        return ElementFilter.methodsIn(type.getEnclosedElements());
+    }
+
+    /**
+     * Returns the keys of all methods of the variable's type, inherited ones included, whatever their modifiers.
+     */
+    static Set<String> getAllMethodKeys(GenerationContext context, VariableElement variable) {
+        Element type = context.getTypes().asElement(variable.asType());
+        if (!(type instanceof TypeElement)) {
+            return Collections.emptySet();
+        }
+        Set<String> keys = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                context.getWorkingCopy().getElements().getAllMembers((TypeElement) type))) {
+            keys.add(GeneratedBlock.key(method));
+        }
+        return keys;
+    }
+
+    static boolean isMethodNotPublic(ExecutableElement method) {
+        return !method.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    static boolean isMethodStatic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    static boolean isMethodReturnVoid(ExecutableElement method) {
+        return method.getReturnType().getKind() == TypeKind.VOID;
+    }
+
+    static ExpressionTree createInvocation(GenerationContext context, VariableElement variable,
+            ExecutableElement method) {
+        TreeMaker treeMaker = context.getTreeMaker();
+        return treeMaker.MethodInvocation(
+                Collections.emptyList(),
+                treeMaker.MemberSelect(treeMaker.Identifier(variable), method.getSimpleName()),
+                evaluateMethodArguments(context, method));
+    }
+
+    /**
+     * Creates a statement that invokes the method on the variable, shaped by the user's invocation template if
+     * there is one.
+     */
+    static StatementTree createInvocationStatement(GenerationContext context, VariableElement variable,
+            ExecutableElement method) {
+        StatementTemplate template = context.getInvocationTemplate();
+        if (template != null) {
+            return template.instantiate(context.getTreeMaker(), variable, method, null,
+                    () -> evaluateMethodArguments(context, method));
+        }
+        return context.getTreeMaker().ExpressionStatement(createInvocation(context, variable, method));
+    }
+
+    /**
+     * Creates a statement that stores the result of the method invoked on the variable in a local variable with the
+     * given name, shaped by the user's declaration template if there is one.
+     */
+    static StatementTree createDeclaration(GenerationContext context, VariableElement variable,
+            ExecutableElement method, String variableName) {
+        StatementTemplate template = context.getDeclarationTemplate();
+        if (template != null) {
+            return template.instantiate(context.getTreeMaker(), variable, method, variableName,
+                    () -> evaluateMethodArguments(context, method));
+        }
+        return createVariable(context, variableName, method, createInvocation(context, variable, method));
+    }
+
+    static VariableTree createVariable(GenerationContext context, String variableName, ExecutableElement method,
+            ExpressionTree initializer) {
+        TreeMaker treeMaker = context.getTreeMaker();
+        ModifiersTree modifiers = treeMaker.Modifiers(Collections.emptySet());
+        Tree type = treeMaker.Type(method.getReturnType());
+        return treeMaker.Variable(modifiers, variableName, type, initializer);
+    }
+
+    static List<ExpressionTree> evaluateMethodArguments(GenerationContext context, ExecutableElement method) {
+        TreeMaker treeMaker = context.getTreeMaker();
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<VariableElement> matches = context.getArgumentMatcher().match(method);
+        List<ExpressionTree> arguments = new ArrayList<>(parameters.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement variableElement = matches.get(i);
+            if (variableElement != null) {
+                arguments.add(treeMaker.Identifier(variableElement));
+            } else {
+                arguments.add(defaultValue(treeMaker, parameters.get(i).asType()));
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns a literal that fits a parameter no variable in scope can be passed to. An invocation does not narrow an
+     * {@code int} constant, so a {@code byte} or {@code short} parameter gets a cast one.
+     */
+    private static ExpressionTree defaultValue(TreeMaker treeMaker, TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return treeMaker.Literal(false);
+            case BYTE:
+            case SHORT:
+                return treeMaker.TypeCast(treeMaker.PrimitiveType(type.getKind()), treeMaker.Literal(0));
+            case INT:
+                return treeMaker.Literal(0);
+            case CHAR:
+                return treeMaker.Literal('\0');
+            case LONG:
+                return treeMaker.Literal(0L);
+            case FLOAT:
+                return treeMaker.Literal(0.0F);
+            case DOUBLE:
+                return treeMaker.Literal(0.0);
+            default:
+                return treeMaker.Literal(null);
+        }
+    }
+
+    /**
+     * Appends a serial number to the name if a variable with that name has already been added by this generation.
+     */
+    static String incrementNumberOfVariableIfNeeded(String variableName, List<String> addedVariables) {
+        String varName = variableName;
+        if (addedVariables.contains(varName)) {
+            List<String> occurences = new ArrayList<>();
+            for (String variable : addedVariables) {
+                if (variable.matches("^" + varName + "\\d*" + "$")) { //NOI18N
+                    occurences.add(variable);
+                }
+            }
+            if (!occurences.isEmpty()) {
+                Collections.sort(occurences);
+                String lastOccurence = occurences.get(occurences.size() - 1);
+                String serialNumberString = lastOccurence.substring(varName.length());
+                if (!serialNumberString.isEmpty()) {
+                    try {
+                        Integer serialNumber = Integer.parseInt(serialNumberString);
+                        serialNumber++;
+                        varName += serialNumber;
+                    } catch (NumberFormatException ex) {
+                        Exceptions.printStackTrace(ex);
+                    }
+                } else {
+                    varName += 1;
+                }
+            }
+        }
+        addedVariables.add(varName);
+        return varName;
+    }
+
+    /**
+     * The modifications computed for a variable chosen in a dialog and the text of the stale statements they keep.
+     */
+    static final class Generation {
+
+        private final ModificationResult result;
+        private final List<String> staleStatements;
+
+        private Generation(ModificationResult result, List<String> staleStatements) {
+            this.result = result;
+            this.staleStatements = Collections.unmodifiableList(staleStatements);
+        }
+
+        ModificationResult getResult() {
+            return result;
+        }
+
+        List<String> getStaleStatements() {
+            return staleStatements;
+        }
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.github.isarthur.netbeans.editor.generator.java;
 
+import com.github.isarthur.netbeans.editor.generator.java.GeneratorStatistics.Phase;
 import com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodDialog;
+import com.github.isarthur.netbeans.editor.generator.java.ui.TypeResolver;
 import com.sun.source.tree.BlockTree;
 import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
@@ -33,23 +35,22 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.lang.model.element.Modifier;
 import javax.swing.text.Document;
 import javax.swing.text.JTextComponent;
-import org.netbeans.api.editor.mimelookup.MimeRegistration;
 import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
 import org.netbeans.api.java.source.TreeMaker;
 import org.netbeans.api.java.source.TreeUtilities;
 import org.netbeans.api.java.source.WorkingCopy;
 import org.netbeans.spi.editor.codegen.CodeGenerator;
-import org.netbeans.spi.editor.codegen.CodeGeneratorContextProvider;
 import org.openide.util.Exceptions;
-import org.openide.util.Lookup;
 import org.openide.util.NbBundle;
 
 public class MethodGenerator implements CodeGenerator {
 
+    private static final GeneratorStatistics STATISTICS = GeneratorStatistics.of(MethodGenerator.class);
     private final JTextComponent editor;
     private GenerateMethodDialog dialog;
     private TreeUtilities treeUtilities;
@@ -61,16 +62,15 @@ public class MethodGenerator implements CodeGenerator {
     private int insertIndex;
     private boolean isInterface;
 
-    /**
-     *
-     * @param context containing JTextComponent and possibly other items registered by
-     *                {@link CodeGeneratorContextProvider}
-     */
-    private MethodGenerator(Lookup context) { // Good practice is not to save Lookup outside ctor
-        editor = context.lookup(JTextComponent.class);
+    private MethodGenerator(JTextComponent editor) {
+        this.editor = editor;
         initialize();
     }
 
+    public static MethodGenerator create(JTextComponent editor) {
+        return new MethodGenerator(editor);
+    }
+
     private void initialize() {
         caretPosition = editor.getCaretPosition();
         Document document = editor.getDocument();
@@ -94,37 +94,85 @@ public class MethodGenerator implements CodeGenerator {
      */
     @Override
     public void invoke() {
+        STATISTICS.invoked();
         try {
-            javaSource.runModificationTask(workingCopy -> {
-                workingCopy.toPhase(JavaSource.Phase.RESOLVED);
-                compilationUnit = workingCopy.getCompilationUnit();
-                trees = workingCopy.getTrees();
-                treeUtilities = workingCopy.getTreeUtilities();
-                currentPath = treeUtilities.pathFor(caretPosition);
-                TreePath classInterfaceOrEnumPath = treeUtilities.getPathElementOfKind(
-                        EnumSet.of(Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE), currentPath);
-                if (classInterfaceOrEnumPath != null) {
-                    Tree classInterfaceOrEnumTree = classInterfaceOrEnumPath.getLeaf();
-                    ClassTree oldTree = (ClassTree) classInterfaceOrEnumTree;
-                    setInsertIndex(oldTree);
-                    if (classInterfaceOrEnumTree.getKind() == Tree.Kind.CLASS
-                            || classInterfaceOrEnumTree.getKind() == Tree.Kind.ENUM) {
-                        isInterface = false;
-                        dialog = GenerateMethodDialog.createAndShow(isInterface);
-                    } else {
-                        isInterface = true;
-                        dialog = GenerateMethodDialog.createAndShow(isInterface);
-                    }
-                    if (dialog.isOkButtonPushed()) {
-                        insertMethodIntoClassInterfaceOrEnum(workingCopy);
+            Boolean insideBlock =
+                    Availability.isInsideBlock(editor.getDocument(), javaSource, caretPosition, getDisplayName());
+            if (!Boolean.FALSE.equals(insideBlock)) {
+                Availability.notifyNotAvailable(getDisplayName());
+                STATISTICS.cancelled();
+                return;
+            }
+            long start = System.nanoTime();
+            AtomicLong commitStart = new AtomicLong();
+            try {
+                ModificationResult result = javaSource.runModificationTask(workingCopy -> {
+                    try {
+                        workingCopy.toPhase(JavaSource.Phase.RESOLVED);
+                        compilationUnit = workingCopy.getCompilationUnit();
+                        trees = workingCopy.getTrees();
+                        treeUtilities = workingCopy.getTreeUtilities();
+                        currentPath = treeUtilities.pathFor(caretPosition);
+                        TreePath classInterfaceOrEnumPath = treeUtilities.getPathElementOfKind(
+                                EnumSet.of(Tree.Kind.CLASS, Tree.Kind.ENUM, Tree.Kind.INTERFACE), currentPath);
+                        if (classInterfaceOrEnumPath != null) {
+                            Tree classInterfaceOrEnumTree = classInterfaceOrEnumPath.getLeaf();
+                            ClassTree oldTree = (ClassTree) classInterfaceOrEnumTree;
+                            setInsertIndex(oldTree);
+                            STATISTICS.record(Phase.PREPARATION, start);
+                            if (classInterfaceOrEnumTree.getKind() == Tree.Kind.CLASS
+                                    || classInterfaceOrEnumTree.getKind() == Tree.Kind.ENUM) {
+                                isInterface = false;
+                                dialog = GenerateMethodDialog.createAndShow(isInterface,
+                                        TypeResolver.create(workingCopy.getClasspathInfo(), compilationUnit));
+                            } else {
+                                isInterface = true;
+                                dialog = GenerateMethodDialog.createAndShow(isInterface,
+                                        TypeResolver.create(workingCopy.getClasspathInfo(), compilationUnit));
+                            }
+                            if (dialog.isOkButtonPushed()) {
+                                commitStart.set(System.nanoTime());
+                                GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(),
+                                        GeneratorPhase.Kind.TREE_BUILD, workingCopy.getText().length());
+                                insertMethodIntoClassInterfaceOrEnum(workingCopy);
+                                phase.end(1);
+                            }
+                        }
+                    } finally {
+                        releaseCompilationState();
                     }
+                });
+                GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(), GeneratorPhase.Kind.COMMIT,
+                        editor.getDocument().getLength());
+                RangeCommit.commit(result, editor.getDocument());
+                phase.end(0);
+                if (commitStart.get() != 0) {
+                    STATISTICS.record(Phase.COMMIT, commitStart.get());
+                } else {
+                    STATISTICS.cancelled();
                 }
-            }).commit();
-        } catch (IOException ex) {
-            Exceptions.printStackTrace(ex);
+            } catch (IOException ex) {
+                STATISTICS.failed();
+                Exceptions.printStackTrace(ex);
+            }
+            dialog.saveBounds();
+            dialog.dispose();
+            dialog = null;
+        } catch (RuntimeException ex) {
+            STATISTICS.failed();
+            throw ex;
         }
-        dialog.saveBounds();
-        dialog.dispose();
+    }
+
+    /**
+     * Drops the trees and utilities of the working copy, so that the generator does not keep the compilation alive
+     * after the modification task.
+     */
+    private void releaseCompilationState() {
+        compilationUnit = null;
+        trees = null;
+        treeUtilities = null;
+        currentPath = null;
     }
 
     private void insertMethodIntoClassInterfaceOrEnum(WorkingCopy workingCopy) {
@@ -322,38 +370,4 @@ public class MethodGenerator implements CodeGenerator {
                 break;
         }
     }
-
-    @MimeRegistration(mimeType = "text/x-java", service = CodeGenerator.Factory.class, position = 7000) //NOI18N
-    public static class Factory implements CodeGenerator.Factory {
-
-        @Override
-        public List<? extends CodeGenerator> create(Lookup context) {
-            JTextComponent editor = context.lookup(JTextComponent.class);
-            JavaSource javaSource = JavaSource.forDocument(editor.getDocument());
-            if (javaSource == null) {
-                throw new IllegalStateException("The document is not associated with data type providing the JavaSource."); //NOI18N
-            }
-            AtomicBoolean insideBlock = new AtomicBoolean(true);
-            try {
-                javaSource.runUserActionTask(controller -> {
-                    JavaSource.Phase phase = controller.toPhase(JavaSource.Phase.RESOLVED);
-                    if (phase.compareTo(JavaSource.Phase.RESOLVED) < 0) {
-                        return;
-                    }
-                    TreeUtilities treeUtilities = controller.getTreeUtilities();
-                    TreePath currentPath = treeUtilities.pathFor(editor.getCaretPosition());
-                    TreePath blockPath =
-                            treeUtilities.getPathElementOfKind(Tree.Kind.BLOCK, currentPath);
-                    if (blockPath == null) {
-                        insideBlock.set(false);
-                    }
-                }, true);
-            } catch (IOException ex) {
-                Exceptions.printStackTrace(ex);
-            }
-            return !insideBlock.get()
-                    ? Collections.singletonList(new MethodGenerator(context))
-                    : Collections.emptyList();
-        }
-    }
 }
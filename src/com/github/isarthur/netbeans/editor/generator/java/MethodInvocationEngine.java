@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.StatementTree;
+import java.util.List;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Invokes every public method of a variable that is neither a getter nor a setter, the result of a non-void method
+ * is stored in a local variable named after the method.
+ *
+ * @author Arthur Sadykov
+ */
+final class MethodInvocationEngine extends InvocationEngine {
+
+    MethodInvocationEngine() {
+        super(MethodInvocationGenerator.class);
+    }
+
+    @Override
+    boolean acceptsMethodName(String methodName) {
+        return !methodName.startsWith("get") //NOI18N
+                && !methodName.startsWith("is") //NOI18N
+                && !methodName.startsWith("set"); //NOI18N
+    }
+
+    @Override
+    boolean accepts(ExecutableElement method) {
+        return !isMethodNotPublic(method) && acceptsMethodName(method.getSimpleName().toString());
+    }
+
+    @Override
+    StatementTree createStatement(GenerationContext context, VariableElement variable, ExecutableElement method,
+            List<String> addedVariables) {
+        if (isMethodReturnVoid(method)) {
+            return createInvocationStatement(context, variable, method);
+        }
+        String variableName = incrementNumberOfVariableIfNeeded(method.getSimpleName().toString(), addedVariables);
+        return createDeclaration(context, variable, method, variableName);
+    }
+}
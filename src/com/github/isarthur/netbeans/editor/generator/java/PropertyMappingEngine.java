@@ -0,0 +1,363 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.StatementTree;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.netbeans.api.java.source.Comment;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.api.java.source.TreeUtilities;
+
+/**
+ * Copies the bean properties of one variable into another one with plain {@code target.setX(source.getX())}
+ * statements. The readable properties of the source are hashed by name once and every writable property of the
+ * target is looked up in that map, an overloaded setter is mapped once with the overload that takes the value as it
+ * is if there is one. Properties without a counterpart are listed in TODO comments, or left to the caller to report
+ * if nothing could be mapped. Setters the block already invokes on the target and TODO comments the block already
+ * has are skipped, so running the mapping again adds only what is missing.
+ *
+ * @author Arthur Sadykov
+ */
+final class PropertyMappingEngine {
+
+    static final String GET = "get"; //NOI18N
+    static final String IS = "is"; //NOI18N
+    static final String SET = "set"; //NOI18N
+    private static final String VALUE_OF = "valueOf"; //NOI18N
+    private static final String VALUE = "Value"; //NOI18N
+    private static final String COMMENT_PREFIX = "// TODO "; //NOI18N
+    private static final int NOPOS = -2;
+    private static final String GENERATOR = PropertyMappingGenerator.class.getSimpleName();
+
+    /**
+     * Computes the mapping between the variables with the given names without applying it.
+     */
+    ModificationResult computeModifications(JavaSource javaSource, int caretPosition, String sourceName,
+            String targetName) throws IOException {
+        return computeMapping(javaSource, caretPosition, sourceName, targetName).getResult();
+    }
+
+    /**
+     * Computes the mapping between the variables with the given names without applying it, together with the
+     * properties that could not be mapped and were not listed in TODO comments.
+     */
+    Mapping computeMapping(JavaSource javaSource, int caretPosition, String sourceName, String targetName)
+            throws IOException {
+        List<String> unreported = new ArrayList<>();
+        ModificationResult result = javaSource.runModificationTask(workingCopy -> {
+            GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+            if (context != null) {
+                generate(context, context.findVariable(sourceName), context.findVariable(targetName), unreported);
+            }
+        });
+        return new Mapping(result, unreported);
+    }
+
+    /**
+     * Computes the mapping between the variables chosen in a dialog without applying it. Only these two variables
+     * are resolved again in the working copy.
+     */
+    Mapping computeMapping(JavaSource javaSource, int caretPosition, VariableDescriptor source,
+            VariableDescriptor target) throws IOException {
+        List<String> unreported = new ArrayList<>();
+        ModificationResult result = javaSource.runModificationTask(workingCopy -> {
+            GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+            if (context != null) {
+                generate(context, context.resolve(source), context.resolve(target), unreported);
+            }
+        });
+        return new Mapping(result, unreported);
+    }
+
+    private boolean generate(GenerationContext context, VariableElement source, VariableElement target,
+            List<String> unreported) {
+        if (source == null || target == null) {
+            return false;
+        }
+        GeneratorPhase phase = GeneratorPhase.start(GENERATOR, GeneratorPhase.Kind.TREE_BUILD,
+                context.getWorkingCopy().getText().length());
+        List<StatementTree> statements = createStatements(context, source, target, unreported);
+        phase.end(statements.size());
+        context.insert(statements);
+        return !statements.isEmpty();
+    }
+
+    /**
+     * Creates the statements of the mapping. Properties without a counterpart are listed in TODO comments on the
+     * first statement, or added to the given list if there is no statement to put them on.
+     */
+    List<StatementTree> createStatements(GenerationContext context, VariableElement source, VariableElement target,
+            List<String> unreported) {
+        TypeMirror sourceType = source.asType();
+        TypeMirror targetType = target.asType();
+        if (sourceType.getKind() != TypeKind.DECLARED || targetType.getKind() != TypeKind.DECLARED) {
+            return Collections.emptyList();
+        }
+        Types types = context.getTypes();
+        TreeMaker treeMaker = context.getTreeMaker();
+        List<StatementTree> statements = new ArrayList<>();
+        List<String> unmapped = new ArrayList<>();
+        GeneratedBlock generatedBlock = GeneratedBlock.find(context.getBlock(), target.getSimpleName().toString(),
+                methodName -> isAccessorName(methodName, SET), Collections.emptyList());
+        Map<String, ExecutableElement> getters = getGetters(context, (DeclaredType) sourceType);
+        for (Map.Entry<String, List<ExecutableElement>> entry
+                : getSetters(context, (DeclaredType) targetType).entrySet()) {
+            List<ExecutableElement> overloads = entry.getValue();
+            ExecutableElement getter = getters.remove(entry.getKey());
+            if (overloads.stream().anyMatch(generatedBlock::contains)) {
+                continue;
+            }
+            Name setterName = overloads.get(0).getSimpleName();
+            if (getter == null) {
+                unmapped.add(target.getSimpleName() + "." + setterName //NOI18N
+                        + "(): no matching property in " + source.getSimpleName()); //NOI18N
+                continue;
+            }
+            TypeMirror valueType = ((ExecutableType) types.asMemberOf((DeclaredType) sourceType, getter))
+                    .getReturnType();
+            ExecutableElement setter = null;
+            ExpressionTree value = null;
+            for (ExecutableElement overload : overloads) {
+                TypeMirror parameterType = getParameterType(types, (DeclaredType) targetType, overload);
+                ExpressionTree invocation = createInvocation(treeMaker, treeMaker.Identifier(source), getter,
+                        Collections.emptyList());
+                ExpressionTree converted = convert(context, invocation, valueType, parameterType);
+                // an overload that takes the value as it is wins over ones that need a conversion
+                if (converted != null && (setter == null || converted == invocation)) {
+                    setter = overload;
+                    value = converted;
+                }
+                if (converted == invocation) {
+                    break;
+                }
+            }
+            if (setter == null) {
+                unmapped.add(target.getSimpleName() + "." + setterName //NOI18N
+                        + "(): cannot convert " + valueType + " to " //NOI18N
+                        + getParameterType(types, (DeclaredType) targetType, overloads.get(0)));
+                continue;
+            }
+            statements.add(treeMaker.ExpressionStatement(createInvocation(
+                    treeMaker, treeMaker.Identifier(target), setter, Collections.singletonList(value))));
+        }
+        getters.values().forEach(getter -> {
+            unmapped.add(source.getSimpleName() + "." + getter.getSimpleName() //NOI18N
+                    + "(): no matching property in " + target.getSimpleName()); //NOI18N
+        });
+        Set<String> presentComments = getComments(context);
+        unmapped.removeIf(message -> !presentComments.add(COMMENT_PREFIX + message));
+        if (statements.isEmpty()) {
+            unreported.addAll(unmapped);
+        } else {
+            StatementTree first = statements.get(0);
+            unmapped.forEach(message -> treeMaker.addComment(first,
+                    Comment.create(Comment.Style.LINE, NOPOS, NOPOS, NOPOS, COMMENT_PREFIX + message), true));
+        }
+        return statements;
+    }
+
+    private static Set<String> getComments(GenerationContext context) {
+        TreeUtilities treeUtilities = context.getWorkingCopy().getTreeUtilities();
+        Set<String> comments = new HashSet<>();
+        for (StatementTree statement : context.getBlock().getStatements()) {
+            for (Comment comment : treeUtilities.getComments(statement, true)) {
+                comments.add(comment.getText().trim());
+            }
+        }
+        return comments;
+    }
+
+    private static Map<String, ExecutableElement> getGetters(GenerationContext context, DeclaredType type) {
+        Map<String, ExecutableElement> getters = new LinkedHashMap<>();
+        for (ExecutableElement method : getAccessibleMethods(context, type)) {
+            if (!method.getParameters().isEmpty()) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            TypeKind returnKind = method.getReturnType().getKind();
+            if (isAccessorName(methodName, GET) && returnKind != TypeKind.VOID) {
+                getters.putIfAbsent(propertyName(method, GET.length()), method);
+            } else if (isAccessorName(methodName, IS) && isBoolean(context, method.getReturnType())) {
+                getters.putIfAbsent(propertyName(method, IS.length()), method);
+            }
+        }
+        return getters;
+    }
+
+    /**
+     * Returns the setters of the type by property, with the overloads of a setter in declaration order.
+     */
+    private static Map<String, List<ExecutableElement>> getSetters(GenerationContext context, DeclaredType type) {
+        Map<String, List<ExecutableElement>> setters = new LinkedHashMap<>();
+        for (ExecutableElement method : getAccessibleMethods(context, type)) {
+            if (method.getParameters().size() == 1 && isAccessorName(method.getSimpleName().toString(), SET)) {
+                setters.computeIfAbsent(propertyName(method, SET.length()), property -> new ArrayList<>())
+                        .add(method);
+            }
+        }
+        return setters;
+    }
+
+    private static TypeMirror getParameterType(Types types, DeclaredType type, ExecutableElement setter) {
+        return ((ExecutableType) types.asMemberOf(type, setter)).getParameterTypes().get(0);
+    }
+
+    private static List<ExecutableElement> getAccessibleMethods(GenerationContext context, DeclaredType type) {
+        Elements elements = context.getWorkingCopy().getElements();
+        TypeElement typeElement = (TypeElement) type.asElement();
+        TypeElement object = elements.getTypeElement(Object.class.getName());
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(typeElement))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC)
+                    && !modifiers.contains(Modifier.STATIC)
+                    && method.getTypeParameters().isEmpty()
+                    && !method.getEnclosingElement().equals(object)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    static boolean isAccessorName(String methodName, String prefix) {
+        return methodName.length() > prefix.length()
+                && methodName.startsWith(prefix)
+                && Character.isUpperCase(methodName.charAt(prefix.length()));
+    }
+
+    private static String propertyName(ExecutableElement method, int prefixLength) {
+        return propertyName(method.getSimpleName().toString(), prefixLength);
+    }
+
+    static String propertyName(String methodName, int prefixLength) {
+        return Introspector.decapitalize(methodName.substring(prefixLength));
+    }
+
+    private static boolean isBoolean(GenerationContext context, TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return true;
+        }
+        TypeMirror unboxed = unboxedType(context.getTypes(), type);
+        return unboxed != null && unboxed.getKind() == TypeKind.BOOLEAN;
+    }
+
+    /**
+     * Spells out boxing and unboxing with {@code valueOf} and {@code xxxValue} calls so that the generated statement
+     * shows what it costs. Returns {@code null} if the value cannot be assigned to the parameter.
+     */
+    private static ExpressionTree convert(GenerationContext context, ExpressionTree value, TypeMirror valueType,
+            TypeMirror parameterType) {
+        Types types = context.getTypes();
+        TreeMaker treeMaker = context.getTreeMaker();
+        if (valueType.getKind().isPrimitive()) {
+            TypeMirror unboxedParameterType = unboxedType(types, parameterType);
+            if (unboxedParameterType != null && types.isAssignable(valueType, unboxedParameterType)) {
+                TypeElement boxedClass = types.boxedClass((PrimitiveType) unboxedParameterType);
+                return treeMaker.MethodInvocation(
+                        Collections.emptyList(),
+                        treeMaker.MemberSelect(treeMaker.QualIdent(boxedClass), VALUE_OF),
+                        Collections.singletonList(value));
+            }
+            if (!parameterType.getKind().isPrimitive()) {
+                TypeElement boxedClass = types.boxedClass((PrimitiveType) valueType);
+                return types.isAssignable(boxedClass.asType(), parameterType)
+                        ? treeMaker.MethodInvocation(
+                                Collections.emptyList(),
+                                treeMaker.MemberSelect(treeMaker.QualIdent(boxedClass), VALUE_OF),
+                                Collections.singletonList(value))
+                        : null;
+            }
+        } else if (parameterType.getKind().isPrimitive()) {
+            TypeMirror unboxedValueType = unboxedType(types, valueType);
+            if (unboxedValueType != null && types.isAssignable(unboxedValueType, parameterType)) {
+                return treeMaker.MethodInvocation(
+                        Collections.emptyList(),
+                        treeMaker.MemberSelect(value,
+                                unboxedValueType.getKind().name().toLowerCase(Locale.ENGLISH) + VALUE),
+                        Collections.emptyList());
+            }
+            return null;
+        }
+        return types.isAssignable(valueType, parameterType) ? value : null;
+    }
+
+    private static TypeMirror unboxedType(Types types, TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        try {
+            return types.unboxedType(type);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static ExpressionTree createInvocation(TreeMaker treeMaker, ExpressionTree receiver,
+            ExecutableElement method, List<? extends ExpressionTree> arguments) {
+        return treeMaker.MethodInvocation(
+                Collections.emptyList(),
+                treeMaker.MemberSelect(receiver, method.getSimpleName()),
+                arguments);
+    }
+
+    /**
+     * The result of a mapping and the properties without a counterpart that are not listed in it.
+     */
+    static final class Mapping {
+
+        private final ModificationResult result;
+        private final List<String> unmapped;
+
+        private Mapping(ModificationResult result, List<String> unmapped) {
+            this.result = result;
+            this.unmapped = Collections.unmodifiableList(unmapped);
+        }
+
+        ModificationResult getResult() {
+            return result;
+        }
+
+        List<String> getUnmapped() {
+            return unmapped;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.GeneratorStatistics.Phase;
+import com.github.isarthur.netbeans.editor.generator.java.ui.GeneratePropertyMappingDialog;
+import com.github.isarthur.netbeans.editor.generator.java.ui.PropertyMappingPanel;
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import com.sun.source.tree.Scope;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import org.netbeans.api.java.source.ElementUtilities;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.spi.editor.codegen.CodeGenerator;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.util.Exceptions;
+import org.openide.util.NbBundle;
+
+/**
+ * Maps the properties of one variable in scope onto another one, see {@link PropertyMappingEngine}.
+ *
+ * @author Arthur Sadykov
+ */
+public class PropertyMappingGenerator implements CodeGenerator {
+
+    private static final GeneratorStatistics STATISTICS = GeneratorStatistics.of(PropertyMappingGenerator.class);
+    private static final PropertyMappingEngine ENGINE = new PropertyMappingEngine();
+    private final JTextComponent component;
+    private JavaSource javaSource;
+    private Document document;
+    private int caretPosition;
+
+    private PropertyMappingGenerator(JTextComponent component) {
+        this.component = component;
+        initialize();
+    }
+
+    public static PropertyMappingGenerator create(JTextComponent component) {
+        return new PropertyMappingGenerator(component);
+    }
+
+    private void initialize() {
+        caretPosition = component.getCaretPosition();
+        document = component.getDocument();
+        javaSource = JavaSource.forDocument(document);
+        if (javaSource == null) {
+            throw new IllegalStateException("The document is not associated with data type providing the JavaSource."); //NOI18N
+        }
+    }
+
+    private List<VariableDescriptor> getLocalMembersAndVars() {
+        List<VariableDescriptor> variables = new ArrayList<>();
+        try {
+            javaSource.runUserActionTask(compilationController -> {
+                if (!GenerationContext.toScopePhase(compilationController)) {
+                    return;
+                }
+                ElementUtilities elementUtilities = compilationController.getElementUtilities();
+                Scope scope = compilationController.getTreeUtilities().scopeFor(caretPosition);
+                Iterable<? extends Element> localMembersAndVars =
+                        elementUtilities.getLocalMembersAndVars(scope, (e, type) -> {
+                            return (e.getKind() == ElementKind.FIELD
+                                    || e.getKind() == ElementKind.LOCAL_VARIABLE
+                                    || e.getKind() == ElementKind.PARAMETER)
+                                    && e.asType().getKind() == TypeKind.DECLARED;
+                        });
+                localMembersAndVars.forEach(element -> {
+                    variables.add(VariableDescriptor.create((VariableElement) element));
+                });
+            }, true);
+            variables.sort(VariableDescriptor.ORDER);
+            return Collections.unmodifiableList(variables);
+        } catch (IOException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * The name which will be inserted inside Insert Code dialog
+     */
+    @NbBundle.Messages("PROPERTY_MAPPING=Property Mapping...") //NOI18N
+    @Override
+    public String getDisplayName() {
+        return NbBundle.getMessage(PropertyMappingGenerator.class, "PROPERTY_MAPPING"); //NOI18N
+    }
+
+    public String getText() throws BadLocationException {
+        return document.getText(0, document.getLength());
+    }
+
+    /**
+     * This will be invoked when user chooses this Generator from Insert Code dialog
+     */
+    @Override
+    public void invoke() {
+        STATISTICS.invoked();
+        try {
+            Boolean insideBlock = Availability.isInsideBlock(document, javaSource, caretPosition, getDisplayName());
+            if (!Boolean.TRUE.equals(insideBlock)) {
+                Availability.notifyNotAvailable(getDisplayName());
+                STATISTICS.cancelled();
+                return;
+            }
+            PropertyMappingPanel propertyMappingPanel = PropertyMappingPanel.create();
+            long start = System.nanoTime();
+            GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(),
+                    GeneratorPhase.Kind.MEMBER_COLLECTION, document.getLength());
+            List<VariableDescriptor> variables = getLocalMembersAndVars();
+            propertyMappingPanel.addVariables(variables);
+            BeanPropertyIndex index = BeanPropertyIndex.forSource(javaSource);
+            propertyMappingPanel.setDescriptions(
+                    index.describe(variables, (accessor, typeName) -> accessor.getReadProperty() != null),
+                    index.describe(variables, (accessor, typeName) -> accessor.getWriteProperty() != null));
+            propertyMappingPanel.setMappingDescriber(index::describeMapping);
+            phase.end(variables.size());
+            STATISTICS.record(Phase.PREPARATION, start);
+            GeneratePropertyMappingDialog dialog = GeneratePropertyMappingDialog.createAndShow(propertyMappingPanel);
+            boolean okButtonPushed = dialog.isOkButtonPushed()
+                    && propertyMappingPanel.getSourceVariable() != null
+                    && propertyMappingPanel.getTargetVariable() != null;
+            VariableDescriptor source = okButtonPushed ? propertyMappingPanel.getSourceVariable() : null;
+            VariableDescriptor target = okButtonPushed ? propertyMappingPanel.getTargetVariable() : null;
+            dialog.saveBounds();
+            dialog.dispose();
+            if (okButtonPushed) {
+                generateMapping(source, target);
+            } else {
+                STATISTICS.cancelled();
+            }
+        } catch (RuntimeException ex) {
+            STATISTICS.failed();
+            throw ex;
+        }
+    }
+
+    private void generateMapping(VariableDescriptor source, VariableDescriptor target) {
+        long start = System.nanoTime();
+        try {
+            PropertyMappingEngine.Mapping mapping = ENGINE.computeMapping(javaSource, caretPosition, source, target);
+            GeneratorPhase phase = GeneratorPhase.start(STATISTICS.getGenerator(), GeneratorPhase.Kind.COMMIT,
+                    document.getLength());
+            RangeCommit.commit(mapping.getResult(), document);
+            phase.end(0);
+            STATISTICS.record(Phase.COMMIT, start);
+            if (!mapping.getUnmapped().isEmpty()) {
+                notifyUnmapped(mapping.getUnmapped());
+            }
+        } catch (IOException ex) {
+            STATISTICS.failed();
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+    @NbBundle.Messages({
+        "# {0} - properties without counterpart, one per line",
+        "MSG_Nothing_Mapped=No property could be mapped:\n\n{0}" //NOI18N
+    })
+    private void notifyUnmapped(List<String> unmapped) {
+        NotifyDescriptor descriptor = new NotifyDescriptor.Message(
+                NbBundle.getMessage(PropertyMappingGenerator.class, "MSG_Nothing_Mapped", //NOI18N
+                        String.join("\n", unmapped)), //NOI18N
+                NotifyDescriptor.INFORMATION_MESSAGE);
+        descriptor.setTitle(getDisplayName());
+        DialogDisplayer.getDefault().notify(descriptor);
+    }
+}
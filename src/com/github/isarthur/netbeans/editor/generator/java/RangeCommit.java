@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.StyledDocument;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
+import org.openide.filesystems.FileObject;
+import org.openide.text.NbDocument;
+
+/**
+ * Applies the result of a generator to the open document as a few narrow edits. {@link ModificationResult#commit()}
+ * replaces whatever span the tree diff produced, which for a rewritten block or class can be much larger than the
+ * generated code. The text is the same either way, as the tree diff already formats the generated code. Results that
+ * touch other files, or documents that cannot be locked, are committed as usual.
+ *
+ * @author Arthur Sadykov
+ */
+final class RangeCommit {
+
+    private RangeCommit() {
+    }
+
+    static void commit(ModificationResult result, Document document) throws IOException {
+        FileObject file = getFile(document);
+        Collection<? extends FileObject> modifiedFiles = result.getModifiedFileObjects();
+        if (file == null || !(document instanceof StyledDocument)
+                || modifiedFiles.size() != 1 || !modifiedFiles.contains(file)) {
+            result.commit();
+            return;
+        }
+        List<TextEdit> edits = new ArrayList<>();
+        for (TextEdit edit : TextEdit.of(result)) {
+            edits.add(edit.trim());
+        }
+        BadLocationException[] failure = new BadLocationException[1];
+        try {
+            NbDocument.runAtomicAsUser((StyledDocument) document, () -> {
+                try {
+                    apply(document, edits);
+                } catch (BadLocationException ex) {
+                    failure[0] = ex;
+                }
+            });
+        } catch (BadLocationException ex) {
+            throw new IOException(ex);
+        }
+        if (failure[0] != null) {
+            throw new IOException(failure[0]);
+        }
+    }
+
+    /**
+     * Applies the edits from the last one to the first one, so that the offsets of the remaining edits stay valid.
+     */
+    private static void apply(Document document, List<TextEdit> edits) throws BadLocationException {
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            TextEdit edit = edits.get(i);
+            int start = edit.getStartOffset();
+            if (edit.getEndOffset() > start) {
+                document.remove(start, edit.getEndOffset() - start);
+            }
+            String newText = edit.getNewText();
+            if (!newText.isEmpty()) {
+                document.insertString(start, newText, null);
+            }
+        }
+    }
+
+    private static FileObject getFile(Document document) {
+        JavaSource javaSource = JavaSource.forDocument(document);
+        if (javaSource == null || javaSource.getFileObjects().size() != 1) {
+            return null;
+        }
+        return javaSource.getFileObjects().iterator().next();
+    }
+}
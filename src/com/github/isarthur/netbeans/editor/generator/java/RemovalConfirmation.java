@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.List;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.util.NbBundle;
+
+/**
+ * Asks the user before a generator removes statements from the editor. The invocation generators only remove
+ * statements that call methods the type no longer has, and only when the user has seen them.
+ *
+ * @author Arthur Sadykov
+ */
+final class RemovalConfirmation {
+
+    private static final int MAX_SHOWN_STATEMENTS = 20;
+
+    private RemovalConfirmation() {
+    }
+
+    @NbBundle.Messages({
+        "# {0} - statements",
+        "MSG_Remove_Stale_Statements=These statements invoke methods the type no longer has:\n\n"
+                + "{0}\nRemove them?", //NOI18N
+        "# {0} - number of statements",
+        "MSG_More_Stale_Statements=... and {0} more" //NOI18N
+    })
+    static boolean confirm(String displayName, List<String> statements) {
+        StringBuilder text = new StringBuilder();
+        int shown = Math.min(statements.size(), MAX_SHOWN_STATEMENTS);
+        for (int i = 0; i < shown; i++) {
+            text.append(statements.get(i)).append('\n');
+        }
+        if (statements.size() > shown) {
+            text.append(NbBundle.getMessage(RemovalConfirmation.class, "MSG_More_Stale_Statements", //NOI18N
+                    statements.size() - shown));
+        }
+        NotifyDescriptor descriptor = new NotifyDescriptor.Confirmation(
+                NbBundle.getMessage(RemovalConfirmation.class, "MSG_Remove_Stale_Statements", text), //NOI18N
+                displayName,
+                NotifyDescriptor.YES_NO_OPTION);
+        return DialogDisplayer.getDefault().notify(descriptor) == NotifyDescriptor.YES_OPTION;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.StatementTree;
+import java.util.List;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Invokes every public setter of a variable.
+ *
+ * @author Arthur Sadykov
+ */
+final class SetterInvocationEngine extends InvocationEngine {
+
+    SetterInvocationEngine() {
+        super(SetterInvocationGenerator.class);
+    }
+
+    @Override
+    boolean acceptsMethodName(String methodName) {
+        return methodName.startsWith("set") && methodName.length() > 3; //NOI18N
+    }
+
+    @Override
+    boolean accepts(ExecutableElement method) {
+        return !isMethodNotPublic(method)
+                && !isMethodStatic(method)
+                && acceptsMethodName(method.getSimpleName().toString());
+    }
+
+    @Override
+    StatementTree createStatement(GenerationContext context, VariableElement variable, ExecutableElement method,
+            List<String> addedVariables) {
+        return createInvocationStatement(context, variable, method);
+    }
+}
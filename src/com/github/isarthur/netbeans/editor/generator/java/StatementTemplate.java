@@ -0,0 +1,627 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ConditionalExpressionTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.IfTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.ModifiersTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.PrimitiveTypeTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SimpleTreeVisitor;
+import com.sun.source.util.SourcePositions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.VariableElement;
+import org.netbeans.api.java.source.CompilationInfo;
+import org.netbeans.api.java.source.TreeMaker;
+import org.openide.util.NbPreferences;
+
+/**
+ * A user-defined shape of the statements emitted by the invocation generators, for example
+ * {@code final var ${name} = ${target}.${method}(${args});} or
+ * {@code if (${target} != null) ${target}.${method}(${args});}. The placeholders are {@code ${target}} for the chosen
+ * variable, {@code ${method}} for the invoked method, {@code ${args}} for its arguments, {@code ${type}} for its
+ * return type and {@code ${name}} for the declared variable. Every template has to use {@code ${target}} and
+ * {@code ${method}}, and only declaration templates may use {@code ${type}} and {@code ${name}}.
+ * <p>
+ * The text of a template is parsed into a skeleton tree the first time it is used, and the skeleton is kept until
+ * the preference changes. Every statement is a copy of that skeleton made with the {@link TreeMaker}, in which the
+ * placeholders are replaced by trees, so the skeleton is only read and never becomes part of a compilation.
+ * Templates are read from the module preferences, the keys are {@value #INVOCATION_PREFERENCE} for void methods and
+ * setters and {@value #DECLARATION_PREFERENCE} for methods whose result is stored in a local variable. The module
+ * description documents them for users.
+ *
+ * @author Arthur Sadykov
+ */
+final class StatementTemplate {
+
+    static final String INVOCATION_PREFERENCE = "invocationTemplate"; //NOI18N
+    static final String DECLARATION_PREFERENCE = "declarationTemplate"; //NOI18N
+    static final String DEFAULT_INVOCATION = "${target}.${method}(${args});"; //NOI18N
+    static final String DEFAULT_DECLARATION = "${type} ${name} = ${target}.${method}(${args});"; //NOI18N
+    private static final Logger LOG = Logger.getLogger(StatementTemplate.class.getName());
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(target|method|args|type|name)\\}"); //NOI18N
+    private static final String TARGET = "$target$"; //NOI18N
+    private static final String METHOD = "$method$"; //NOI18N
+    private static final String ARGS = "$args$"; //NOI18N
+    private static final String TYPE = "$type$"; //NOI18N
+    private static final String NAME = "$name$"; //NOI18N
+    private static final Map<String, ParsedText> PARSED = new ConcurrentHashMap<>();
+    private final StatementTree skeleton;
+
+    private StatementTemplate(StatementTree skeleton) {
+        this.skeleton = skeleton;
+    }
+
+    /**
+     * Returns the template stored under the preference key, parsing it only if its text changed since the last
+     * call.
+     *
+     * @return the template or {@code null} if the preference keeps the default shape or is not a valid template
+     */
+    static StatementTemplate forPreference(CompilationInfo info, String preference) {
+        boolean declaration = DECLARATION_PREFERENCE.equals(preference);
+        String defaultText = declaration ? DEFAULT_DECLARATION : DEFAULT_INVOCATION;
+        String text = NbPreferences.forModule(StatementTemplate.class).get(preference, defaultText);
+        if (text.equals(defaultText)) {
+            return null;
+        }
+        ParsedText parsed = PARSED.get(preference);
+        if (parsed == null || !parsed.text.equals(text)) {
+            parsed = new ParsedText(text, parse(info, text, declaration));
+            PARSED.put(preference, parsed);
+        }
+        return parsed.template;
+    }
+
+    /**
+     * Parses the text of a template.
+     *
+     * @param declaration whether the template declares a local variable and may use {@code ${type}} and
+     *                    {@code ${name}}
+     * @return the template or {@code null} if the text is not a single statement built from the supported
+     *         expressions that invokes the method on the target
+     */
+    static StatementTemplate parse(CompilationInfo info, String text, boolean declaration) {
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        String source = matcher.replaceAll("\\$$1\\$").trim(); //NOI18N
+        SourcePositions[] sourcePositions = new SourcePositions[1];
+        StatementTree statement = info.getTreeUtilities().parseStatement(source, sourcePositions);
+        Validator validator = new Validator(declaration);
+        if (statement == null
+                || sourcePositions[0].getEndPosition(null, statement) < source.length()
+                || !Boolean.TRUE.equals(statement.accept(validator, null))
+                || !validator.targetUsed
+                || !validator.methodUsed) {
+            LOG.log(Level.INFO, "Ignoring unsupported statement template: {0}", text); //NOI18N
+            return null;
+        }
+        return new StatementTemplate(statement);
+    }
+
+    /**
+     * Creates a statement from the skeleton.
+     *
+     * @param name      the name of the declared variable or {@code null} for invocation templates
+     * @param arguments supplies a new list of argument trees for every {@code ${args}}
+     */
+    StatementTree instantiate(TreeMaker make, VariableElement target, ExecutableElement method, String name,
+            Supplier<List<ExpressionTree>> arguments) {
+        return (StatementTree) skeleton.accept(new Instantiator(make, target, method, name, arguments), null);
+    }
+
+    /**
+     * Tells whether the statement has exactly the shape of this template instantiated for the variable, with any
+     * method, arguments, type and name in place of the placeholders.
+     *
+     * @return the invocation of the method on the variable or {@code null} if the statement does not match
+     */
+    MethodInvocationTree match(StatementTree statement, String variableName) {
+        ShapeMatcher matcher = new ShapeMatcher(variableName);
+        return Boolean.TRUE.equals(skeleton.accept(matcher, statement)) ? matcher.invocation : null;
+    }
+
+    /**
+     * Accepts the trees the {@link Instantiator} can copy, with {@code ${args}} only as the sole argument of an
+     * invocation and the placeholders only where they are replaced. Records whether {@code ${target}} and
+     * {@code ${method}} are used.
+     */
+    private static final class Validator extends SimpleTreeVisitor<Boolean, Void> {
+
+        private final boolean declaration;
+        private boolean targetUsed;
+        private boolean methodUsed;
+
+        private Validator(boolean declaration) {
+            super(Boolean.FALSE);
+            this.declaration = declaration;
+        }
+
+        private boolean check(Tree tree) {
+            return tree == null || Boolean.TRUE.equals(tree.accept(this, null));
+        }
+
+        private boolean checkAll(List<? extends Tree> trees) {
+            return trees.stream().allMatch(this::check);
+        }
+
+        @Override
+        public Boolean visitVariable(VariableTree tree, Void p) {
+            return (declaration || !tree.getName().contentEquals(NAME))
+                    && check(tree.getModifiers()) && check(tree.getType()) && check(tree.getInitializer());
+        }
+
+        @Override
+        public Boolean visitModifiers(ModifiersTree tree, Void p) {
+            return tree.getAnnotations().isEmpty();
+        }
+
+        @Override
+        public Boolean visitExpressionStatement(ExpressionStatementTree tree, Void p) {
+            return check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitIf(IfTree tree, Void p) {
+            return check(tree.getCondition()) && check(tree.getThenStatement()) && check(tree.getElseStatement());
+        }
+
+        @Override
+        public Boolean visitBlock(BlockTree tree, Void p) {
+            return checkAll(tree.getStatements());
+        }
+
+        @Override
+        public Boolean visitMethodInvocation(MethodInvocationTree tree, Void p) {
+            List<? extends ExpressionTree> arguments = tree.getArguments();
+            return tree.getTypeArguments().isEmpty()
+                    && check(tree.getMethodSelect())
+                    && (arguments.size() == 1 && isPlaceholder(arguments.get(0), ARGS) || checkAll(arguments));
+        }
+
+        @Override
+        public Boolean visitMemberSelect(MemberSelectTree tree, Void p) {
+            Name identifier = tree.getIdentifier();
+            if (identifier.contentEquals(METHOD)) {
+                methodUsed = true;
+            } else if (identifier.contentEquals(TARGET) || identifier.contentEquals(ARGS)
+                    || identifier.contentEquals(TYPE) || !declaration && identifier.contentEquals(NAME)) {
+                return false;
+            }
+            return check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitIdentifier(IdentifierTree tree, Void p) {
+            Name name = tree.getName();
+            if (name.contentEquals(TARGET)) {
+                targetUsed = true;
+            } else if (name.contentEquals(METHOD)) {
+                methodUsed = true;
+            }
+            return !name.contentEquals(ARGS)
+                    && (declaration || !name.contentEquals(TYPE) && !name.contentEquals(NAME));
+        }
+
+        @Override
+        public Boolean visitLiteral(LiteralTree tree, Void p) {
+            return true;
+        }
+
+        @Override
+        public Boolean visitBinary(BinaryTree tree, Void p) {
+            return check(tree.getLeftOperand()) && check(tree.getRightOperand());
+        }
+
+        @Override
+        public Boolean visitUnary(UnaryTree tree, Void p) {
+            return check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitParenthesized(ParenthesizedTree tree, Void p) {
+            return check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitConditionalExpression(ConditionalExpressionTree tree, Void p) {
+            return check(tree.getCondition()) && check(tree.getTrueExpression()) && check(tree.getFalseExpression());
+        }
+
+        @Override
+        public Boolean visitAssignment(AssignmentTree tree, Void p) {
+            return check(tree.getVariable()) && check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitCompoundAssignment(CompoundAssignmentTree tree, Void p) {
+            return check(tree.getVariable()) && check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitTypeCast(TypeCastTree tree, Void p) {
+            return check(tree.getType()) && check(tree.getExpression());
+        }
+
+        @Override
+        public Boolean visitPrimitiveType(PrimitiveTypeTree tree, Void p) {
+            return true;
+        }
+    }
+
+    /**
+     * The text last read from a preference and the template parsed from it, {@code null} if it was not valid.
+     */
+    private static final class ParsedText {
+
+        private final String text;
+        private final StatementTemplate template;
+
+        private ParsedText(String text, StatementTemplate template) {
+            this.text = text;
+            this.template = template;
+        }
+    }
+
+    /**
+     * Copies the skeleton with the tree maker of the working copy and replaces the placeholders.
+     */
+    private static final class Instantiator extends SimpleTreeVisitor<Tree, Void> {
+
+        private final TreeMaker make;
+        private final VariableElement target;
+        private final ExecutableElement method;
+        private final String name;
+        private final Supplier<List<ExpressionTree>> arguments;
+
+        private Instantiator(TreeMaker make, VariableElement target, ExecutableElement method, String name,
+                Supplier<List<ExpressionTree>> arguments) {
+            this.make = make;
+            this.target = target;
+            this.method = method;
+            this.name = name;
+            this.arguments = arguments;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends Tree> T copy(T tree) {
+            return tree != null ? (T) tree.accept(this, null) : null;
+        }
+
+        private <T extends Tree> List<T> copyAll(List<? extends T> trees) {
+            List<T> copies = new ArrayList<>(trees.size());
+            trees.forEach(tree -> copies.add(copy(tree)));
+            return copies;
+        }
+
+        private CharSequence substitute(CharSequence identifier) {
+            if (METHOD.contentEquals(identifier)) {
+                return method.getSimpleName();
+            }
+            if (NAME.contentEquals(identifier) && name != null) {
+                return name;
+            }
+            return identifier;
+        }
+
+        @Override
+        protected Tree defaultAction(Tree tree, Void p) {
+            throw new IllegalStateException("Unexpected tree in a validated template: " + tree.getKind()); //NOI18N
+        }
+
+        @Override
+        public Tree visitVariable(VariableTree tree, Void p) {
+            return make.Variable(
+                    copy(tree.getModifiers()), substitute(tree.getName()), copy(tree.getType()),
+                    copy(tree.getInitializer()));
+        }
+
+        @Override
+        public Tree visitModifiers(ModifiersTree tree, Void p) {
+            return make.Modifiers(tree.getFlags());
+        }
+
+        @Override
+        public Tree visitExpressionStatement(ExpressionStatementTree tree, Void p) {
+            return make.ExpressionStatement(copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitIf(IfTree tree, Void p) {
+            return make.If(copy(tree.getCondition()), copy(tree.getThenStatement()), copy(tree.getElseStatement()));
+        }
+
+        @Override
+        public Tree visitBlock(BlockTree tree, Void p) {
+            return make.Block(copyAll(tree.getStatements()), tree.isStatic());
+        }
+
+        @Override
+        public Tree visitMethodInvocation(MethodInvocationTree tree, Void p) {
+            List<? extends ExpressionTree> templateArguments = tree.getArguments();
+            List<? extends ExpressionTree> copiedArguments =
+                    templateArguments.size() == 1 && isPlaceholder(templateArguments.get(0), ARGS)
+                    ? arguments.get()
+                    : copyAll(templateArguments);
+            return make.MethodInvocation(
+                    Collections.emptyList(), copy(tree.getMethodSelect()), copiedArguments);
+        }
+
+        @Override
+        public Tree visitMemberSelect(MemberSelectTree tree, Void p) {
+            return make.MemberSelect(copy(tree.getExpression()), substitute(tree.getIdentifier()));
+        }
+
+        @Override
+        public Tree visitIdentifier(IdentifierTree tree, Void p) {
+            if (tree.getName().contentEquals(TARGET)) {
+                return make.Identifier(target);
+            }
+            if (tree.getName().contentEquals(TYPE)) {
+                return make.Type(method.getReturnType());
+            }
+            return make.Identifier(substitute(tree.getName()));
+        }
+
+        @Override
+        public Tree visitLiteral(LiteralTree tree, Void p) {
+            return make.Literal(tree.getValue());
+        }
+
+        @Override
+        public Tree visitBinary(BinaryTree tree, Void p) {
+            return make.Binary(tree.getKind(), copy(tree.getLeftOperand()), copy(tree.getRightOperand()));
+        }
+
+        @Override
+        public Tree visitUnary(UnaryTree tree, Void p) {
+            return make.Unary(tree.getKind(), copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitParenthesized(ParenthesizedTree tree, Void p) {
+            return make.Parenthesized(copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitConditionalExpression(ConditionalExpressionTree tree, Void p) {
+            return make.ConditionalExpression(
+                    copy(tree.getCondition()), copy(tree.getTrueExpression()), copy(tree.getFalseExpression()));
+        }
+
+        @Override
+        public Tree visitAssignment(AssignmentTree tree, Void p) {
+            return make.Assignment(copy(tree.getVariable()), copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitCompoundAssignment(CompoundAssignmentTree tree, Void p) {
+            return make.CompoundAssignment(tree.getKind(), copy(tree.getVariable()), copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitTypeCast(TypeCastTree tree, Void p) {
+            return make.TypeCast(copy(tree.getType()), copy(tree.getExpression()));
+        }
+
+        @Override
+        public Tree visitPrimitiveType(PrimitiveTypeTree tree, Void p) {
+            return make.PrimitiveType(tree.getPrimitiveTypeKind());
+        }
+    }
+
+    /**
+     * Walks the skeleton and a statement side by side. Apart from the placeholders, every tree of the statement must
+     * be of the same kind and carry the same names, literals and operators as the skeleton.
+     */
+    private static final class ShapeMatcher extends SimpleTreeVisitor<Boolean, Tree> {
+
+        private final String variableName;
+        private MethodInvocationTree invocation;
+
+        private ShapeMatcher(String variableName) {
+            super(Boolean.FALSE);
+            this.variableName = variableName;
+        }
+
+        private boolean match(Tree skeleton, Tree tree) {
+            if (skeleton == null || tree == null) {
+                return skeleton == tree;
+            }
+            if (isPlaceholder(skeleton, TYPE)) {
+                return true;
+            }
+            return skeleton.getKind() == tree.getKind() && Boolean.TRUE.equals(skeleton.accept(this, tree));
+        }
+
+        private boolean matchAll(List<? extends Tree> skeletons, List<? extends Tree> trees) {
+            if (skeletons.size() != trees.size()) {
+                return false;
+            }
+            for (int i = 0; i < skeletons.size(); i++) {
+                if (!match(skeletons.get(i), trees.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matchName(CharSequence skeleton, CharSequence name) {
+            return METHOD.contentEquals(skeleton) || NAME.contentEquals(skeleton)
+                    || skeleton.toString().contentEquals(name);
+        }
+
+        @Override
+        public Boolean visitVariable(VariableTree skeleton, Tree tree) {
+            VariableTree variable = (VariableTree) tree;
+            return matchName(skeleton.getName(), variable.getName())
+                    && match(skeleton.getModifiers(), variable.getModifiers())
+                    && match(skeleton.getType(), variable.getType())
+                    && match(skeleton.getInitializer(), variable.getInitializer());
+        }
+
+        @Override
+        public Boolean visitModifiers(ModifiersTree skeleton, Tree tree) {
+            ModifiersTree modifiers = (ModifiersTree) tree;
+            return modifiers.getAnnotations().isEmpty() && skeleton.getFlags().equals(modifiers.getFlags());
+        }
+
+        @Override
+        public Boolean visitExpressionStatement(ExpressionStatementTree skeleton, Tree tree) {
+            return match(skeleton.getExpression(), ((ExpressionStatementTree) tree).getExpression());
+        }
+
+        @Override
+        public Boolean visitIf(IfTree skeleton, Tree tree) {
+            IfTree ifTree = (IfTree) tree;
+            return match(skeleton.getCondition(), ifTree.getCondition())
+                    && match(skeleton.getThenStatement(), ifTree.getThenStatement())
+                    && match(skeleton.getElseStatement(), ifTree.getElseStatement());
+        }
+
+        @Override
+        public Boolean visitBlock(BlockTree skeleton, Tree tree) {
+            BlockTree block = (BlockTree) tree;
+            return skeleton.isStatic() == block.isStatic() && matchAll(skeleton.getStatements(), block.getStatements());
+        }
+
+        @Override
+        public Boolean visitMethodInvocation(MethodInvocationTree skeleton, Tree tree) {
+            MethodInvocationTree methodInvocation = (MethodInvocationTree) tree;
+            List<? extends ExpressionTree> arguments = skeleton.getArguments();
+            boolean anyArguments = arguments.size() == 1 && isPlaceholder(arguments.get(0), ARGS);
+            if (!methodInvocation.getTypeArguments().isEmpty()
+                    || !match(skeleton.getMethodSelect(), methodInvocation.getMethodSelect())
+                    || !anyArguments && !matchAll(arguments, methodInvocation.getArguments())) {
+                return false;
+            }
+            if (invocation == null && isInvocationOfTarget(skeleton)) {
+                invocation = methodInvocation;
+            }
+            return true;
+        }
+
+        @Override
+        public Boolean visitMemberSelect(MemberSelectTree skeleton, Tree tree) {
+            MemberSelectTree memberSelect = (MemberSelectTree) tree;
+            return matchName(skeleton.getIdentifier(), memberSelect.getIdentifier())
+                    && match(skeleton.getExpression(), memberSelect.getExpression());
+        }
+
+        @Override
+        public Boolean visitIdentifier(IdentifierTree skeleton, Tree tree) {
+            CharSequence name = ((IdentifierTree) tree).getName();
+            return skeleton.getName().contentEquals(TARGET)
+                    ? name.toString().equals(variableName)
+                    : matchName(skeleton.getName(), name);
+        }
+
+        @Override
+        public Boolean visitLiteral(LiteralTree skeleton, Tree tree) {
+            return Objects.equals(skeleton.getValue(), ((LiteralTree) tree).getValue());
+        }
+
+        @Override
+        public Boolean visitBinary(BinaryTree skeleton, Tree tree) {
+            BinaryTree binary = (BinaryTree) tree;
+            return match(skeleton.getLeftOperand(), binary.getLeftOperand())
+                    && match(skeleton.getRightOperand(), binary.getRightOperand());
+        }
+
+        @Override
+        public Boolean visitUnary(UnaryTree skeleton, Tree tree) {
+            return match(skeleton.getExpression(), ((UnaryTree) tree).getExpression());
+        }
+
+        @Override
+        public Boolean visitParenthesized(ParenthesizedTree skeleton, Tree tree) {
+            return match(skeleton.getExpression(), ((ParenthesizedTree) tree).getExpression());
+        }
+
+        @Override
+        public Boolean visitConditionalExpression(ConditionalExpressionTree skeleton, Tree tree) {
+            ConditionalExpressionTree conditional = (ConditionalExpressionTree) tree;
+            return match(skeleton.getCondition(), conditional.getCondition())
+                    && match(skeleton.getTrueExpression(), conditional.getTrueExpression())
+                    && match(skeleton.getFalseExpression(), conditional.getFalseExpression());
+        }
+
+        @Override
+        public Boolean visitAssignment(AssignmentTree skeleton, Tree tree) {
+            AssignmentTree assignment = (AssignmentTree) tree;
+            return match(skeleton.getVariable(), assignment.getVariable())
+                    && match(skeleton.getExpression(), assignment.getExpression());
+        }
+
+        @Override
+        public Boolean visitCompoundAssignment(CompoundAssignmentTree skeleton, Tree tree) {
+            CompoundAssignmentTree assignment = (CompoundAssignmentTree) tree;
+            return match(skeleton.getVariable(), assignment.getVariable())
+                    && match(skeleton.getExpression(), assignment.getExpression());
+        }
+
+        @Override
+        public Boolean visitTypeCast(TypeCastTree skeleton, Tree tree) {
+            TypeCastTree typeCast = (TypeCastTree) tree;
+            return match(skeleton.getType(), typeCast.getType())
+                    && match(skeleton.getExpression(), typeCast.getExpression());
+        }
+
+        @Override
+        public Boolean visitPrimitiveType(PrimitiveTypeTree skeleton, Tree tree) {
+            return skeleton.getPrimitiveTypeKind() == ((PrimitiveTypeTree) tree).getPrimitiveTypeKind();
+        }
+
+        private static boolean isInvocationOfTarget(MethodInvocationTree skeleton) {
+            if (skeleton.getMethodSelect().getKind() != Tree.Kind.MEMBER_SELECT) {
+                return false;
+            }
+            MemberSelectTree memberSelect = (MemberSelectTree) skeleton.getMethodSelect();
+            return memberSelect.getIdentifier().contentEquals(METHOD)
+                    && isPlaceholder(memberSelect.getExpression(), TARGET);
+        }
+    }
+
+    private static boolean isPlaceholder(Tree tree, String placeholder) {
+        return tree.getKind() == Tree.Kind.IDENTIFIER && ((IdentifierTree) tree).getName().contentEquals(placeholder);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.netbeans.api.java.source.ModificationResult;
+import org.openide.filesystems.FileObject;
+
+/**
+ * A single replacement of a file's text computed by a generator, detached from the {@link ModificationResult} it
+ * came from so that callers can show, merge or apply the edits themselves.
+ *
+ * @author Arthur Sadykov
+ */
+final class TextEdit {
+
+    private static final Comparator<TextEdit> BY_POSITION = Comparator
+            .comparing((TextEdit edit) -> edit.file.getPath())
+            .thenComparingInt(edit -> edit.startOffset);
+    private final FileObject file;
+    private final int startOffset;
+    private final int endOffset;
+    private final String oldText;
+    private final String newText;
+
+    private TextEdit(FileObject file, int startOffset, int endOffset, String oldText, String newText) {
+        this.file = file;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.oldText = oldText;
+        this.newText = newText;
+    }
+
+    /**
+     * Lists the differences of the result that are not excluded, ordered by file and offset.
+     */
+    static List<TextEdit> of(ModificationResult result) {
+        List<TextEdit> edits = new ArrayList<>();
+        for (FileObject file : result.getModifiedFileObjects()) {
+            for (ModificationResult.Difference difference : result.getDifferences(file)) {
+                if (difference.isExcluded()) {
+                    continue;
+                }
+                edits.add(new TextEdit(
+                        file,
+                        difference.getStartPosition().getOffset(),
+                        difference.getEndPosition().getOffset(),
+                        difference.getOldText() != null ? difference.getOldText() : "", //NOI18N
+                        difference.getNewText() != null ? difference.getNewText() : "")); //NOI18N
+            }
+        }
+        edits.sort(BY_POSITION);
+        return Collections.unmodifiableList(edits);
+    }
+
+    FileObject getFile() {
+        return file;
+    }
+
+    int getStartOffset() {
+        return startOffset;
+    }
+
+    int getEndOffset() {
+        return endOffset;
+    }
+
+    String getOldText() {
+        return oldText;
+    }
+
+    String getNewText() {
+        return newText;
+    }
+
+    /**
+     * Narrows the edit to the text that really changes by dropping the prefix and suffix the old and the new text
+     * have in common. The tree diff often replaces a whole line or member to insert a few statements.
+     */
+    TextEdit trim() {
+        int maxLength = Math.min(oldText.length(), newText.length());
+        int prefix = 0;
+        while (prefix < maxLength && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxLength - prefix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (prefix == 0 && suffix == 0) {
+            return this;
+        }
+        return new TextEdit(file, startOffset + prefix, endOffset - suffix,
+                oldText.substring(prefix, oldText.length() - suffix),
+                newText.substring(prefix, newText.length() - suffix));
+    }
+
+    @Override
+    public String toString() {
+        return file.getNameExt() + '[' + startOffset + ',' + endOffset + "]: " + newText; //NOI18N
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.awt.Component;
+import java.util.Collections;
+import java.util.Map;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import javax.swing.ToolTipManager;
+
+/**
+ * Renders list entries as usual and shows the description supplied for an entry, if any, as its tool tip.
+ *
+ * @author Arthur Sadykov
+ */
+final class DescriptionRenderer extends DefaultListCellRenderer {
+
+    private static final long serialVersionUID = 1L;
+    private Map<?, String> descriptions = Collections.emptyMap();
+
+    static DescriptionRenderer install(JList<?> list) {
+        DescriptionRenderer renderer = new DescriptionRenderer();
+        list.setCellRenderer(renderer);
+        ToolTipManager.sharedInstance().registerComponent(list);
+        return renderer;
+    }
+
+    void setDescriptions(Map<?, String> descriptions) {
+        this.descriptions = descriptions;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+            boolean cellHasFocus) {
+        super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        setToolTipText(descriptions.get(value));
+        return this;
+    }
+}
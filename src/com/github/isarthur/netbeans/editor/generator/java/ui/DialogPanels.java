@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import org.openide.util.RequestProcessor;
+import org.openide.windows.OnShowing;
+
+/**
+ * Keeps a single instance of each heavyweight generator panel. A panel is built on first use or when it is
+ * pre-warmed after the main window shows up, and it is reset and reused by the following invocations instead of
+ * being rebuilt.
+ *
+ * @author Arthur Sadykov
+ */
+public final class DialogPanels {
+
+    private static final Logger LOG = Logger.getLogger(DialogPanels.class.getName());
+    private static final RequestProcessor PREWARM_RP = new RequestProcessor(DialogPanels.class.getName());
+    private static final int PREWARM_DELAY = 5000;
+    private static final String[] PANEL_CLASSES = {
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodPanel", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodPanel$ParameterTypeEditor", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodPanel$TypeParameterTypeEditor", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodPanel$ThrowingTypeEditor", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateMethodPanel$TypeRenderer", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateFieldsPanel", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateFieldsPanel$TypeEditor", //NOI18N
+        "com.github.isarthur.netbeans.editor.generator.java.ui.GenerateFieldsPanel$TypeRenderer" //NOI18N
+    };
+    private static GenerateMethodPanel methodPanel;
+    private static boolean methodPanelInUse;
+    private static GenerateFieldsPanel fieldsPanel;
+    private static boolean fieldsPanelInUse;
+
+    private DialogPanels() {
+    }
+
+    static GenerateMethodPanel acquireMethodPanel(boolean isInterface) {
+        assert SwingUtilities.isEventDispatchThread();
+        long start = System.nanoTime();
+        GenerateMethodPanel panel;
+        if (methodPanelInUse) {
+            panel = GenerateMethodPanel.create(isInterface);
+        } else {
+            if (methodPanel == null) {
+                methodPanel = GenerateMethodPanel.create(isInterface);
+            } else {
+                methodPanel.reset(isInterface);
+            }
+            methodPanelInUse = true;
+            panel = methodPanel;
+        }
+        logLatency(GenerateMethodPanel.class, start);
+        return panel;
+    }
+
+    static void releaseMethodPanel(GenerateMethodPanel panel) {
+        if (panel == methodPanel) {
+            methodPanelInUse = false;
+        }
+    }
+
+    static GenerateFieldsPanel acquireFieldsPanel() {
+        assert SwingUtilities.isEventDispatchThread();
+        long start = System.nanoTime();
+        GenerateFieldsPanel panel;
+        if (fieldsPanelInUse) {
+            panel = GenerateFieldsPanel.create();
+        } else {
+            if (fieldsPanel == null) {
+                fieldsPanel = GenerateFieldsPanel.create();
+            } else {
+                fieldsPanel.reset();
+            }
+            fieldsPanelInUse = true;
+            panel = fieldsPanel;
+        }
+        logLatency(GenerateFieldsPanel.class, start);
+        return panel;
+    }
+
+    static void releaseFieldsPanel(GenerateFieldsPanel panel) {
+        if (panel == fieldsPanel) {
+            fieldsPanelInUse = false;
+        }
+    }
+
+    private static void prewarm() {
+        if (methodPanel == null) {
+            methodPanel = GenerateMethodPanel.create(false);
+        }
+        if (fieldsPanel == null) {
+            fieldsPanel = GenerateFieldsPanel.create();
+        }
+    }
+
+    private static void logLatency(Class<?> panelClass, long start) {
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "{0} ready in {1} ms", new Object[]{ //NOI18N
+                panelClass.getSimpleName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            });
+        }
+    }
+
+    @OnShowing
+    public static class Prewarm implements Runnable {
+
+        @Override
+        public void run() {
+            PREWARM_RP.post(() -> {
+                ClassLoader loader = DialogPanels.class.getClassLoader();
+                for (String panelClass : PANEL_CLASSES) {
+                    try {
+                        Class.forName(panelClass, true, loader);
+                    } catch (ClassNotFoundException ex) {
+                        LOG.log(Level.FINE, null, ex);
+                    }
+                }
+                SwingUtilities.invokeLater(DialogPanels::prewarm);
+            }, PREWARM_DELAY, Thread.MIN_PRIORITY);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parses tab or comma separated text into rows of the fields table. A row that starts with an access modifier lists
+ * all columns in table order: access, static, final, transient, volatile, type, name and value. Any other row lists
+ * only type, name and value, and the remaining columns get the defaults of a new row.
+ *
+ * @author Arthur Sadykov
+ */
+final class FieldRowParser {
+
+    private static final Set<String> TRUE_VALUES = Set.of("true", "yes", "y", "x", "1"); //NOI18N
+    private static final int COLUMN_COUNT = 8;
+    private static final int TYPE_COLUMN = 5;
+    private static final int NAME_COLUMN = 6;
+    private static final String[] MODIFIER_NAMES = {"static", "final", "transient", "volatile"}; //NOI18N
+    private final List<String> accessModifiers;
+    private final String defaultAccessModifier;
+
+    FieldRowParser(List<String> accessModifiers, String defaultAccessModifier) {
+        this.accessModifiers = accessModifiers;
+        this.defaultAccessModifier = defaultAccessModifier;
+    }
+
+    List<Object[]> parse(String text) {
+        char delimiter = text.indexOf('\t') >= 0 ? '\t' : ',';
+        List<Object[]> rows = new ArrayList<>();
+        for (List<String> cells : split(text, delimiter)) {
+            Object[] row = toRow(cells);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Object[] toRow(List<String> cells) {
+        if (cells.isEmpty() || (cells.size() == 1 && cells.get(0).isEmpty())) {
+            return null;
+        }
+        Object[] row = {defaultAccessModifier, false, true, false, false, "", "", ""}; //NOI18N
+        String first = cells.get(0).toLowerCase(Locale.ENGLISH);
+        if (accessModifiers.contains(first)) {
+            row[0] = first;
+            for (int column = 1; column < COLUMN_COUNT && column < cells.size(); column++) {
+                row[column] = column < TYPE_COLUMN
+                        ? isTrue(cells.get(column), MODIFIER_NAMES[column - 1])
+                        : cells.get(column);
+            }
+        } else {
+            for (int column = TYPE_COLUMN; column < COLUMN_COUNT && column - TYPE_COLUMN < cells.size(); column++) {
+                row[column] = cells.get(column - TYPE_COLUMN);
+            }
+        }
+        String type = (String) row[TYPE_COLUMN];
+        String name = (String) row[NAME_COLUMN];
+        if (type.equalsIgnoreCase("type") && (name.isEmpty() || name.equalsIgnoreCase("name"))) { //NOI18N
+            return null;
+        }
+        if (name.isEmpty()) {
+            row[NAME_COLUMN] = Syntax.suggestName(type);
+        }
+        return row;
+    }
+
+    private static boolean isTrue(String cell, String modifierName) {
+        String value = cell.toLowerCase(Locale.ENGLISH);
+        return TRUE_VALUES.contains(value) || value.equals(modifierName);
+    }
+
+    private static List<List<String>> split(String text, char delimiter) {
+        List<List<String>> lines = new ArrayList<>();
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cell.append(c);
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"' && cell.toString().trim().isEmpty()) {
+                quoted = true;
+                cell.setLength(0);
+            } else if (c == delimiter) {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+                lines.add(cells);
+                cells = new ArrayList<>();
+            } else {
+                cell.append(c);
+            }
+        }
+        if (cell.length() > 0 || !cells.isEmpty()) {
+            cells.add(cell.toString().trim());
+            lines.add(cells);
+        }
+        return lines;
+    }
+}
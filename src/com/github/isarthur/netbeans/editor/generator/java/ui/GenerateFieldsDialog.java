@@ -44,8 +44,9 @@ public class GenerateFieldsDialog {
     private final DialogDescriptor dialogDescriptor;
     private final GenerateFieldsPanel generateFieldsPanel;
 
-    private GenerateFieldsDialog() {
-        generateFieldsPanel = GenerateFieldsPanel.create();
+    private GenerateFieldsDialog(TypeResolver typeResolver) {
+        generateFieldsPanel = DialogPanels.acquireFieldsPanel();
+        generateFieldsPanel.setTypeResolver(typeResolver);
         dialogDescriptor = new DialogDescriptor(
                 generateFieldsPanel, NbBundle.getMessage(GenerateFieldsDialog.class, "DN_Generate_Fields")); //NOI18N
         generateFieldsPanel.setDialogDescriptor(dialogDescriptor);
@@ -55,8 +56,8 @@ public class GenerateFieldsDialog {
         dialog.setVisible(true);
     }
 
-    public static GenerateFieldsDialog createAndShow() {
-        return new GenerateFieldsDialog();
+    public static GenerateFieldsDialog createAndShow(TypeResolver typeResolver) {
+        return new GenerateFieldsDialog(typeResolver);
     }
 
     public boolean isOkButtonPushed() {
@@ -64,6 +65,8 @@ public class GenerateFieldsDialog {
     }
 
     public void dispose() {
+        generateFieldsPanel.setTypeResolver(null);
+        DialogPanels.releaseFieldsPanel(generateFieldsPanel);
         dialog.dispose();
     }
 
@@ -116,4 +119,20 @@ public class GenerateFieldsDialog {
     public List<?> getData() {
         return generateFieldsPanel.getData();
     }
+
+    public boolean isGenerateGetters() {
+        return generateFieldsPanel.isGenerateGetters();
+    }
+
+    public boolean isGenerateSetters() {
+        return generateFieldsPanel.isGenerateSetters();
+    }
+
+    public boolean isGenerateConstructor() {
+        return generateFieldsPanel.isGenerateConstructor();
+    }
+
+    public boolean isGenerateEqualsAndHashCode() {
+        return generateFieldsPanel.isGenerateEqualsAndHashCode();
+    }
 }
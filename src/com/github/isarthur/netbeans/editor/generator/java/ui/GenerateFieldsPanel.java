@@ -17,13 +17,19 @@ package com.github.isarthur.netbeans.editor.generator.java.ui;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EventObject;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Vector;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.lang.model.element.TypeElement;
 import javax.swing.DefaultCellEditor;
 import javax.swing.InputVerifier;
@@ -33,10 +39,12 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
+import javax.swing.TransferHandler;
 import javax.swing.border.Border;
 import javax.swing.border.LineBorder;
 import javax.swing.event.CellEditorListener;
 import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
@@ -45,6 +53,7 @@ import org.netbeans.api.java.source.ElementHandle;
 import org.netbeans.api.java.source.ui.TypeElementFinder;
 import org.openide.DialogDescriptor;
 import org.openide.awt.Mnemonics;
+import org.openide.util.NbBundle;
 
 /**
  *
@@ -58,17 +67,13 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         "protected", //NOI18N
         "public" //NOI18N
     };
-    private static final String NAME_REGEX = "^[a-zA-Z_]\\w*?$"; //NOI18N
-    private static final String TYPE_REGEX =
-            "^\\s*?(([a-zA-Z_]\\w*?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)\\s+?extends\\s+?[a-zA-Z_]" //NOI18N
-            + "\\w*?))\\s*?\\>)?)" //NOI18N
-            + "|([a-zA-Z_]\\w*?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)" //NOI18N
-            + "\\s+?extends\\s+?[a-zA-Z_]\\w*?))\\s*?\\>)?))\\s*?$"; //NOI18N
     private static final String EMPTY_STRING = ""; //NOI18N
+    private static final Border UNRESOLVED_TYPE_BORDER = new LineBorder(Color.red);
     private DialogDescriptor dialogDescriptor;
     private final DefaultTableModel fieldsTableModel;
+    private final TableValidator fieldsValidator;
+    private final ChangeListener typesResolvedListener = event -> typesResolved();
+    private TypeResolver typeResolver;
 
     /**
      * Creates new form AddFieldPanel
@@ -80,7 +85,9 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             removeFieldButton.setEnabled(!selectionModel.isSelectionEmpty());
         });
         fieldsTableModel = (DefaultTableModel) fieldsTable.getModel();
+        fieldsValidator = new TableValidator(fieldsTableModel, Map.of(5, this::isValidType, 6, Syntax::isName));
         fieldsTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE); //NOI18N
+        fieldsTable.setTransferHandler(new FieldsTransferHandler(fieldsTable.getTransferHandler()));
     }
 
     public static GenerateFieldsPanel create() {
@@ -101,6 +108,10 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         fieldsScrollPane = new javax.swing.JScrollPane();
         fieldsTable = new javax.swing.JTable();
         removeFieldButton = new javax.swing.JButton();
+        gettersCheckBox = new javax.swing.JCheckBox();
+        settersCheckBox = new javax.swing.JCheckBox();
+        constructorCheckBox = new javax.swing.JCheckBox();
+        equalsAndHashCodeCheckBox = new javax.swing.JCheckBox();
 
         org.openide.awt.Mnemonics.setLocalizedText(addFieldButton, org.openide.util.NbBundle.getMessage(GenerateFieldsPanel.class, "GenerateFieldsPanel.addFieldButton.text")); // NOI18N
         addFieldButton.addActionListener(new java.awt.event.ActionListener() {
@@ -215,6 +226,14 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             }
         });
 
+        org.openide.awt.Mnemonics.setLocalizedText(gettersCheckBox, org.openide.util.NbBundle.getMessage(GenerateFieldsPanel.class, "GenerateFieldsPanel.gettersCheckBox.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(settersCheckBox, org.openide.util.NbBundle.getMessage(GenerateFieldsPanel.class, "GenerateFieldsPanel.settersCheckBox.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(constructorCheckBox, org.openide.util.NbBundle.getMessage(GenerateFieldsPanel.class, "GenerateFieldsPanel.constructorCheckBox.text")); // NOI18N
+
+        org.openide.awt.Mnemonics.setLocalizedText(equalsAndHashCodeCheckBox, org.openide.util.NbBundle.getMessage(GenerateFieldsPanel.class, "GenerateFieldsPanel.equalsAndHashCodeCheckBox.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -226,7 +245,14 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
                         .addComponent(addFieldButton)
                         .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                         .addComponent(removeFieldButton)
-                        .addGap(0, 0, Short.MAX_VALUE))
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, 18, Short.MAX_VALUE)
+                        .addComponent(gettersCheckBox)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(settersCheckBox)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(constructorCheckBox)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(equalsAndHashCodeCheckBox))
                     .addComponent(fieldsScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 988, Short.MAX_VALUE))
                 .addContainerGap())
         );
@@ -241,7 +267,11 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(addFieldButton)
-                    .addComponent(removeFieldButton))
+                    .addComponent(removeFieldButton)
+                    .addComponent(gettersCheckBox)
+                    .addComponent(settersCheckBox)
+                    .addComponent(constructorCheckBox)
+                    .addComponent(equalsAndHashCodeCheckBox))
                 .addContainerGap())
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -287,27 +317,127 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         }
     }
 
+    private void addRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (fieldsTable.isEditing()) {
+            fieldsTable.getCellEditor().cancelCellEditing();
+        }
+        int lastRow = fieldsTableModel.getRowCount() - 1;
+        int firstEmptyRow = lastRow + 1;
+        while (firstEmptyRow > 0 && isEmptyRow(firstEmptyRow - 1)) {
+            firstEmptyRow--;
+        }
+        if (firstEmptyRow <= lastRow) {
+            fieldsTableModel.setRowCount(firstEmptyRow);
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Vector dataVector = fieldsTableModel.getDataVector();
+        int firstRow = dataVector.size();
+        for (Object[] row : rows) {
+            dataVector.add(new Vector<>(Arrays.asList(row)));
+        }
+        fieldsTableModel.fireTableRowsInserted(firstRow, dataVector.size() - 1);
+        fieldsTable.setEnabled(true);
+        fieldsTable.scrollRectToVisible(fieldsTable.getCellRect(dataVector.size() - 1, 0, true));
+        dialogDescriptor.setValid(valid());
+    }
+
+    private boolean isEmptyRow(int row) {
+        return ((String) fieldsTableModel.getValueAt(row, 5)).isEmpty()
+                && ((String) fieldsTableModel.getValueAt(row, 6)).isEmpty();
+    }
+
     private boolean isFieldsTableEmpty() {
         return fieldsTableModel.getRowCount() == 0;
     }
 
     private boolean valid() {
-        int rowCount = fieldsTableModel.getRowCount();
-        for (int row = 0; row < rowCount; row++) {
-            String type = (String) fieldsTableModel.getValueAt(row, 5);
-            if (!type.matches(TYPE_REGEX)) {
-                return false;
-            }
-            String name = (String) fieldsTableModel.getValueAt(row, 6);
-            if (!name.matches(NAME_REGEX)) {
-                return false;
-            }
+        return fieldsValidator.isValid();
+    }
+
+    private boolean isValidType(String type) {
+        return Syntax.isType(type) && resolutionOf(type) == TypeResolver.State.RESOLVED;
+    }
+
+    private boolean isUnresolvedType(String type) {
+        return Syntax.isType(type) && resolutionOf(type) == TypeResolver.State.UNRESOLVED;
+    }
+
+    private TypeResolver.State resolutionOf(String type) {
+        return typeResolver != null
+                ? typeResolver.check(type, Collections.emptySet())
+                : TypeResolver.State.RESOLVED;
+    }
+
+    private void typesResolved() {
+        fieldsValidator.revalidate();
+        fieldsTable.repaint();
+        if (dialogDescriptor != null) {
+            dialogDescriptor.setValid(valid());
         }
-        return true;
+    }
+
+    void setTypeResolver(TypeResolver typeResolver) {
+        if (this.typeResolver != null) {
+            this.typeResolver.removeChangeListener(typesResolvedListener);
+            this.typeResolver.cancel();
+        }
+        this.typeResolver = typeResolver;
+        if (typeResolver != null) {
+            typeResolver.addChangeListener(typesResolvedListener);
+            TypeIndex.forClasspath(typeResolver.getClasspathInfo());
+        }
+        fieldsValidator.revalidate();
+    }
+
+    private TypeIndex getTypeIndex() {
+        return typeResolver != null ? TypeIndex.forClasspath(typeResolver.getClasspathInfo()) : null;
     }
 
     List<?> getData() {
-        return fieldsTableModel.getDataVector();
+        List<?> data = fieldsTableModel.getDataVector();
+        if (typeResolver == null) {
+            return data;
+        }
+        int fieldTypeColumn = 5;
+        List<List<Object>> qualifiedData = new ArrayList<>(data.size());
+        for (Object row : data) {
+            List<Object> qualifiedRow = new ArrayList<>((List<?>) row);
+            String fieldType = (String) qualifiedRow.get(fieldTypeColumn);
+            qualifiedRow.set(fieldTypeColumn, typeResolver.qualify(fieldType, Collections.emptySet()));
+            qualifiedData.add(qualifiedRow);
+        }
+        return qualifiedData;
+    }
+
+    boolean isGenerateGetters() {
+        return gettersCheckBox.isSelected();
+    }
+
+    boolean isGenerateSetters() {
+        return settersCheckBox.isSelected();
+    }
+
+    boolean isGenerateConstructor() {
+        return constructorCheckBox.isSelected();
+    }
+
+    boolean isGenerateEqualsAndHashCode() {
+        return equalsAndHashCodeCheckBox.isSelected();
+    }
+
+    void reset() {
+        if (fieldsTable.isEditing()) {
+            fieldsTable.getCellEditor().cancelCellEditing();
+        }
+        fieldsTable.clearSelection();
+        fieldsTableModel.setRowCount(0);
+        gettersCheckBox.setSelected(false);
+        settersCheckBox.setSelected(false);
+        constructorCheckBox.setSelected(false);
+        equalsAndHashCodeCheckBox.setSelected(false);
     }
 
     void setDialogDescriptor(DialogDescriptor dialogDescriptor) {
@@ -315,28 +445,15 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         addFieldButtonActionPerformed(null);
     }
 
-    private String suggestFieldName(String type) {
-        String name = ""; //NOI18N
-        Matcher matcher = Pattern.compile("^([a-zA-Z_]\\w+?)((\\[\\])|(\\<.*?\\>))?$").matcher(type); //NOI18N
-        if (matcher.matches()) {
-            name = matcher.group(1);
-            name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
-        } else {
-            matcher = Pattern
-                    .compile("^([a-zA-Z_]\\w+?(\\.[a-zA-Z_]\\w+?)+?)((\\[\\])|(\\<.*?\\>))?$") //NOI18N
-                    .matcher(type);
-            if (matcher.matches()) {
-                name = matcher.group(1).substring(matcher.group(1).lastIndexOf('.') + 1);
-                name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
-            }
-        }
-        return name;
-    }
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JButton addFieldButton;
+    private javax.swing.JCheckBox constructorCheckBox;
+    private javax.swing.JCheckBox equalsAndHashCodeCheckBox;
     private javax.swing.JScrollPane fieldsScrollPane;
     private javax.swing.JTable fieldsTable;
+    private javax.swing.JCheckBox gettersCheckBox;
     private javax.swing.JButton removeFieldButton;
+    private javax.swing.JCheckBox settersCheckBox;
     // End of variables declaration//GEN-END:variables
     private class TypePanel extends javax.swing.JPanel {
 
@@ -353,7 +470,7 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             if (handle != null) {
                 int selectedRow = fieldsTable.getSelectedRow();
                 int fieldNameColumn = 6;
-                String fieldName = suggestFieldName(handle.getQualifiedName());
+                String fieldName = Syntax.suggestName(handle.getQualifiedName());
                 fieldsTableModel.setValueAt(fieldName, selectedRow, fieldNameColumn);
                 Consumer<Void> handleNonGenericType = x -> {
                     typeTextField.setText(handle.getQualifiedName());
@@ -430,6 +547,8 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
 
     private class TypeRenderer extends TypePanel implements TableCellRenderer {
 
+        private final Border originalBorder = typeTextField.getBorder();
+
         private TypeRenderer() {
             super();
         }
@@ -438,7 +557,16 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         public Component getTableCellRendererComponent(
                 JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
             setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
-            updateTypeValue((String) value);
+            String type = (String) value;
+            updateTypeValue(type);
+            if (isUnresolvedType(type)) {
+                typeTextField.setBorder(UNRESOLVED_TYPE_BORDER);
+                typeTextField.setToolTipText(
+                        NbBundle.getMessage(GenerateFieldsPanel.class, "MSG_Unresolved_Type", type)); //NOI18N
+            } else {
+                typeTextField.setBorder(originalBorder);
+                typeTextField.setToolTipText(null);
+            }
             return this;
         }
     }
@@ -448,6 +576,10 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         protected transient ChangeEvent changeEvent;
         private final Border originalBorder = typeTextField.getBorder();
 
+        private TypeEditor() {
+            TypeCompletion.install(typeTextField, GenerateFieldsPanel.this::getTypeIndex);
+        }
+
         @Override
         public Component getTableCellEditorComponent(
                 JTable table, Object value, boolean isSelected, int row, int column) {
@@ -484,7 +616,7 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             }
             typeTextField.setBorder(originalBorder);
             fireEditingStopped();
-            String fieldName = suggestFieldName(typeTextField.getText());
+            String fieldName = Syntax.suggestName(typeTextField.getText());
             int selectedRow = fieldsTable.getSelectedRow();
             int fieldNameColumn = 6;
             fieldsTableModel.setValueAt(fieldName, selectedRow, fieldNameColumn);
@@ -541,6 +673,48 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
         }
     }
 
+    private class FieldsTransferHandler extends TransferHandler {
+
+        private final TransferHandler delegate;
+
+        private FieldsTransferHandler(TransferHandler delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean canImport(TransferSupport support) {
+            return support.isDataFlavorSupported(DataFlavor.stringFlavor);
+        }
+
+        @Override
+        public boolean importData(TransferSupport support) {
+            if (!canImport(support)) {
+                return false;
+            }
+            try {
+                String text = (String) support.getTransferable().getTransferData(DataFlavor.stringFlavor);
+                List<Object[]> rows = new FieldRowParser(Arrays.asList(ACCESS_MODIFIERS), ACCESS_MODIFIERS[1])
+                        .parse(text);
+                addRows(rows);
+                return !rows.isEmpty();
+            } catch (UnsupportedFlavorException | IOException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public int getSourceActions(JComponent component) {
+            return delegate != null ? delegate.getSourceActions(component) : NONE;
+        }
+
+        @Override
+        public void exportToClipboard(JComponent component, Clipboard clipboard, int action) {
+            if (delegate != null) {
+                delegate.exportToClipboard(component, clipboard, action);
+            }
+        }
+    }
+
     private class TypeVerifier extends InputVerifier {
 
         @Override
@@ -548,7 +722,7 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             JTextField typeTextField = (JTextField) input;
             String type = typeTextField.getText().trim();
             typeTextField.setText(type);
-            return type.matches(TYPE_REGEX);
+            return Syntax.isType(type);
         }
     }
 
@@ -559,7 +733,7 @@ public class GenerateFieldsPanel extends javax.swing.JPanel {
             JTextField nameTextField = (JTextField) input;
             String name = nameTextField.getText().trim();
             nameTextField.setText(name);
-            return name.matches(NAME_REGEX);
+            return Syntax.isName(name);
         }
     }
 }
@@ -44,8 +44,9 @@ public class GenerateMethodDialog {
     private final DialogDescriptor dialogDescriptor;
     private final GenerateMethodPanel generateMethodPanel;
 
-    private GenerateMethodDialog(boolean isInterface) {
-        generateMethodPanel = GenerateMethodPanel.create(isInterface);
+    private GenerateMethodDialog(boolean isInterface, TypeResolver typeResolver) {
+        generateMethodPanel = DialogPanels.acquireMethodPanel(isInterface);
+        generateMethodPanel.setTypeResolver(typeResolver);
         dialogDescriptor = new DialogDescriptor(
                 generateMethodPanel, NbBundle.getMessage(GenerateMethodDialog.class, "DN_Generate_Method")); //NOI18N
         generateMethodPanel.setDialogDescriptor(dialogDescriptor);
@@ -55,8 +56,8 @@ public class GenerateMethodDialog {
         dialog.setVisible(true);
     }
 
-    public static GenerateMethodDialog createAndShow(boolean isInterface) {
-        return new GenerateMethodDialog(isInterface);
+    public static GenerateMethodDialog createAndShow(boolean isInterface, TypeResolver typeResolver) {
+        return new GenerateMethodDialog(isInterface, typeResolver);
     }
 
     public boolean isOkButtonPushed() {
@@ -64,6 +65,8 @@ public class GenerateMethodDialog {
     }
 
     public void dispose() {
+        generateMethodPanel.setTypeResolver(null);
+        DialogPanels.releaseMethodPanel(generateMethodPanel);
         dialog.dispose();
     }
 
@@ -19,13 +19,14 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.util.ArrayList;
 import java.util.EventObject;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.lang.model.element.TypeElement;
 import javax.swing.DefaultCellEditor;
 import javax.swing.InputVerifier;
@@ -38,6 +39,7 @@ import javax.swing.border.Border;
 import javax.swing.border.LineBorder;
 import javax.swing.event.CellEditorListener;
 import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
@@ -48,6 +50,7 @@ import org.netbeans.api.java.source.ElementHandle;
 import org.netbeans.api.java.source.ui.TypeElementFinder;
 import org.openide.DialogDescriptor;
 import org.openide.awt.Mnemonics;
+import org.openide.util.NbBundle;
 
 /**
  *
@@ -56,37 +59,21 @@ import org.openide.awt.Mnemonics;
 public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentListener {
 
     private static final String EMPTY_STRING = ""; //NOI18N
-    private static final String NAME_REGEX = "^[a-zA-Z_]\\w*?$"; //NOI18N
-    private static final String TYPE_PARAMETER_NAME_REGEX = "^([a-zA-Z_]\\w*?)|(\\?)$"; //NOI18N
-    private static final String TYPE_REGEX =
-            "^\\s*?(([a-zA-Z_]\\w*?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)\\s+?extends\\s+?[a-zA-Z_]" //NOI18N
-            + "\\w*?))\\s*?\\>)?)" //NOI18N
-            + "|([a-zA-Z_]\\w*?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)" //NOI18N
-            + "\\s+?extends\\s+?[a-zA-Z_]\\w*?))\\s*?\\>)?))\\s*?$"; //NOI18N
-    private static final String TYPE_REGEX_EMPTY_ALLOWED =
-            "(^\\s*?(([a-zA-Z_]\\w*?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)\\s+?extends\\s+?[a-zA-Z_]" //NOI18N
-            + "\\w*?))\\s*?\\>)?)" //NOI18N
-            + "|([a-zA-Z_]\\w*?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?\\[\\])" //NOI18N
-            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)" //NOI18N
-            + "\\s+?extends\\s+?[a-zA-Z_]\\w*?))\\s*?\\>)?))\\s*?$)|(^$)"; //NOI18N
     private final DefaultTableModel parametersTableModel;
     private final DefaultTableModel typeParametersTableModel;
     private final DefaultTableModel throwsTableModel;
+    private final TableValidator parametersValidator;
+    private final TableValidator typeParametersValidator;
+    private final TableValidator throwsValidator;
+    private final Border typeTextFieldBorder;
+    private final ChangeListener typesResolvedListener = event -> typesResolved();
     private DialogDescriptor dialogDescriptor;
+    private TypeResolver typeResolver;
 
     private GenerateMethodPanel(boolean isInterface) {
         initComponents();
-        if (isInterface) {
-            accessComboBox.setEnabled(false);
-            staticCheckBox.setEnabled(false);
-            finalCheckBox.setEnabled(false);
-            synchronizedCheckBox.setEnabled(false);
-            nativeCheckBox.setEnabled(false);
-            strictfpCheckBox.setEnabled(false);
-        }
+        setInterface(isInterface);
+        typeTextFieldBorder = typeTextField.getBorder();
         parametersTable.getSelectionModel().addListSelectionListener(event -> {
             ListSelectionModel selectionModel = (ListSelectionModel) event.getSource();
             removeParameterButton.setEnabled(!selectionModel.isSelectionEmpty());
@@ -108,13 +95,25 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         parametersTableModel = (DefaultTableModel) parametersTable.getModel();
         typeParametersTableModel = (DefaultTableModel) typeParametersTable.getModel();
         throwsTableModel = (DefaultTableModel) throwsTable.getModel();
+        parametersValidator = new TableValidator(parametersTableModel, Map.of(1, this::isValidType, 2, Syntax::isName));
+        typeParametersValidator = new TableValidator(
+                typeParametersTableModel, Map.of(0, Syntax::isTypeParameterName, 1, this::isValidBound));
+        throwsValidator = new TableValidator(throwsTableModel, Map.of(0, this::isValidType));
+        typeParametersTableModel.addTableModelListener(event -> {
+            if (typeResolver != null && event.getColumn() != 1) {
+                parametersValidator.revalidate();
+                typeParametersValidator.revalidate();
+                throwsValidator.revalidate();
+            }
+        });
         parametersTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE); //NOI18N
         typeParametersTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE); //NOI18N
         throwsTable.putClientProperty("terminateEditOnFocusLost", Boolean.TRUE); //NOI18N
+        TypeCompletion.install(typeTextField, this::getTypeIndex);
         typeTextField.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER && !e.isConsumed()) {
                     SwingUtilities.invokeLater(() -> nameTextField.requestFocusInWindow());
                 }
             }
@@ -129,22 +128,43 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         return generateMethodPanel;
     }
 
-    private String suggestName(String type) {
-        String name = ""; //NOI18N
-        Matcher matcher = Pattern.compile("^([a-zA-Z_]\\w+?)((\\[\\])|(\\<.*?\\>))?$").matcher(type); //NOI18N
-        if (matcher.matches()) {
-            name = matcher.group(1);
-            name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
-        } else {
-            matcher = Pattern
-                    .compile("^([a-zA-Z_]\\w+?(\\.[a-zA-Z_]\\w+?)+?)((\\[\\])|(\\<.*?\\>))?$") //NOI18N
-                    .matcher(type);
-            if (matcher.matches()) {
-                name = matcher.group(1).substring(matcher.group(1).lastIndexOf('.') + 1);
-                name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
-            }
+    void reset(boolean isInterface) {
+        cancelEditing(parametersTable);
+        cancelEditing(typeParametersTable);
+        cancelEditing(throwsTable);
+        parametersTableModel.setRowCount(0);
+        typeParametersTableModel.setRowCount(0);
+        throwsTableModel.setRowCount(0);
+        parametersTable.setEnabled(false);
+        typeParametersTable.setEnabled(true);
+        throwsTable.setEnabled(true);
+        typeTextField.setText(EMPTY_STRING);
+        nameTextField.setText(EMPTY_STRING);
+        accessComboBox.setSelectedIndex(0);
+        abstractCheckBox.setSelected(false);
+        staticCheckBox.setSelected(false);
+        finalCheckBox.setSelected(false);
+        synchronizedCheckBox.setSelected(false);
+        nativeCheckBox.setSelected(false);
+        strictfpCheckBox.setSelected(false);
+        setInterface(isInterface);
+        SwingUtilities.invokeLater(() -> typeTextField.requestFocusInWindow());
+    }
+
+    private void setInterface(boolean isInterface) {
+        accessComboBox.setEnabled(!isInterface);
+        staticCheckBox.setEnabled(!isInterface);
+        finalCheckBox.setEnabled(!isInterface);
+        synchronizedCheckBox.setEnabled(!isInterface);
+        nativeCheckBox.setEnabled(!isInterface);
+        strictfpCheckBox.setEnabled(!isInterface);
+    }
+
+    private void cancelEditing(JTable table) {
+        if (table.isEditing()) {
+            table.getCellEditor().cancelCellEditing();
         }
-        return name;
+        table.clearSelection();
     }
 
     private JTextField getNameTextField() {
@@ -157,17 +177,17 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
 
     @Override
     public void insertUpdate(DocumentEvent event) {
-        dialogDescriptor.setValid(valid());
+        updateValidity();
     }
 
     @Override
     public void changedUpdate(DocumentEvent event) {
-        dialogDescriptor.setValid(valid());
+        updateValidity();
     }
 
     @Override
     public void removeUpdate(DocumentEvent event) {
-        dialogDescriptor.setValid(valid());
+        updateValidity();
     }
 
     /**
@@ -793,38 +813,97 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
     }
 
     private boolean valid() {
-        for (int row = 0; row < parametersTableModel.getRowCount(); row++) {
-            String type = (String) parametersTableModel.getValueAt(row, 1);
-            if (!type.matches(TYPE_REGEX)) {
-                return false;
-            }
-            String name = (String) parametersTableModel.getValueAt(row, 2);
-            if (!name.matches(NAME_REGEX)) {
-                return false;
-            }
+        return parametersValidator.isValid()
+                && typeParametersValidator.isValid()
+                && throwsValidator.isValid()
+                && isValidType(typeTextField.getText())
+                && Syntax.isName(nameTextField.getText());
+    }
+
+    private void updateValidity() {
+        if (isUnresolvedType(typeTextField.getText())) {
+            typeTextField.setBorder(new LineBorder(Color.red));
+            typeTextField.setToolTipText(NbBundle.getMessage(
+                    GenerateMethodPanel.class, "MSG_Unresolved_Type", typeTextField.getText())); //NOI18N
+        } else {
+            typeTextField.setBorder(typeTextFieldBorder);
+            typeTextField.setToolTipText(null);
         }
+        if (dialogDescriptor != null) {
+            dialogDescriptor.setValid(valid());
+        }
+    }
+
+    private boolean isValidType(String type) {
+        return Syntax.isType(type) && resolutionOf(type) == TypeResolver.State.RESOLVED;
+    }
+
+    private boolean isValidBound(String type) {
+        return Syntax.isTypeOrEmpty(type) && resolutionOf(type) == TypeResolver.State.RESOLVED;
+    }
+
+    private boolean isUnresolvedType(String type) {
+        return Syntax.isTypeOrEmpty(type) && resolutionOf(type) == TypeResolver.State.UNRESOLVED;
+    }
+
+    private TypeResolver.State resolutionOf(String type) {
+        return typeResolver != null
+                ? typeResolver.check(type, getTypeVariables())
+                : TypeResolver.State.RESOLVED;
+    }
+
+    private Set<String> getTypeVariables() {
+        Set<String> typeVariables = new HashSet<>();
         for (int row = 0; row < typeParametersTableModel.getRowCount(); row++) {
-            String name = (String) typeParametersTableModel.getValueAt(row, 0);
-            if (!name.matches(TYPE_PARAMETER_NAME_REGEX)) {
-                return false;
-            }
-            String type = (String) typeParametersTableModel.getValueAt(row, 1);
-            if (!type.matches(TYPE_REGEX_EMPTY_ALLOWED)) {
-                return false;
-            }
+            typeVariables.add((String) typeParametersTableModel.getValueAt(row, 0));
         }
-        for (int row = 0; row < throwsTableModel.getRowCount(); row++) {
-            String type = (String) throwsTableModel.getValueAt(row, 0);
-            if (!type.matches(TYPE_REGEX)) {
-                return false;
-            }
+        return typeVariables;
+    }
+
+    private void typesResolved() {
+        parametersValidator.revalidate();
+        typeParametersValidator.revalidate();
+        throwsValidator.revalidate();
+        parametersTable.repaint();
+        typeParametersTable.repaint();
+        throwsTable.repaint();
+        updateValidity();
+    }
+
+    void setTypeResolver(TypeResolver typeResolver) {
+        if (this.typeResolver != null) {
+            this.typeResolver.removeChangeListener(typesResolvedListener);
+            this.typeResolver.cancel();
+        }
+        this.typeResolver = typeResolver;
+        if (typeResolver != null) {
+            typeResolver.addChangeListener(typesResolvedListener);
+            TypeIndex.forClasspath(typeResolver.getClasspathInfo());
+        }
+        parametersValidator.revalidate();
+        typeParametersValidator.revalidate();
+        throwsValidator.revalidate();
+    }
+
+    private TypeIndex getTypeIndex() {
+        return typeResolver != null ? TypeIndex.forClasspath(typeResolver.getClasspathInfo()) : null;
+    }
+
+    private String qualify(String type) {
+        return typeResolver != null ? typeResolver.qualify(type, getTypeVariables()) : type;
+    }
+
+    private List<?> qualify(List<?> data, int typeColumn) {
+        if (typeResolver == null) {
+            return data;
         }
-        String type = typeTextField.getText();
-        if (!type.matches(TYPE_REGEX)) {
-            return false;
+        List<List<Object>> qualifiedData = new ArrayList<>(data.size());
+        for (Object row : data) {
+            List<Object> qualifiedRow = new ArrayList<>((List<?>) row);
+            qualifiedRow.set(typeColumn, qualify((String) qualifiedRow.get(typeColumn)));
+            qualifiedData.add(qualifiedRow);
         }
-        String name = nameTextField.getText();
-        return name.matches(NAME_REGEX);
+        return qualifiedData;
     }
 
     void setDialogDescriptor(DialogDescriptor dialogDescriptor) {
@@ -860,7 +939,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
     }
 
     String getMethodType() {
-        return typeTextField.getText();
+        return qualify(typeTextField.getText());
     }
 
     String getMethodName() {
@@ -868,15 +947,15 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
     }
 
     List<?> getMethodParameters() {
-        return parametersTableModel.getDataVector();
+        return qualify(parametersTableModel.getDataVector(), 1);
     }
 
     List<?> getMethodTypeParameters() {
-        return typeParametersTableModel.getDataVector();
+        return qualify(typeParametersTableModel.getDataVector(), 1);
     }
 
     List<?> getMethodThrownTypes() {
-        return throwsTableModel.getDataVector();
+        return qualify(throwsTableModel.getDataVector(), 0);
     }
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JCheckBox abstractCheckBox;
@@ -919,7 +998,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         private void browseButtonActionPerformed(java.awt.event.ActionEvent evt) {
             ElementHandle<TypeElement> handle = TypeElementFinder.find(null, null, null);
             if (handle != null) {
-                String parameterName = suggestName(handle.getQualifiedName());
+                String parameterName = Syntax.suggestName(handle.getQualifiedName());
                 int selectedRow = parametersTable.getSelectedRow();
                 int parameterNameColumn = 2;
                 parametersTableModel.setValueAt(parameterName, selectedRow, parameterNameColumn);
@@ -1157,6 +1236,8 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
 
     private class TypeRenderer extends GenerateMethodPanel.ParameterTypePanel implements TableCellRenderer {
 
+        private final Border originalBorder = parameterTypeTextField.getBorder();
+
         private TypeRenderer() {
             super();
         }
@@ -1165,7 +1246,16 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         public Component getTableCellRendererComponent(
                 JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
             setBackground(isSelected ? table.getSelectionBackground() : table.getBackground());
-            updateTypeValue((String) value);
+            String type = (String) value;
+            updateTypeValue(type);
+            if (isUnresolvedType(type)) {
+                parameterTypeTextField.setBorder(new LineBorder(Color.red));
+                parameterTypeTextField.setToolTipText(
+                        NbBundle.getMessage(GenerateMethodPanel.class, "MSG_Unresolved_Type", type)); //NOI18N
+            } else {
+                parameterTypeTextField.setBorder(originalBorder);
+                parameterTypeTextField.setToolTipText(null);
+            }
             return this;
         }
     }
@@ -1175,6 +1265,10 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         protected transient ChangeEvent changeEvent;
         protected final Border originalBorder = parameterTypeTextField.getBorder();
 
+        private ParameterTypeEditor() {
+            TypeCompletion.install(parameterTypeTextField, GenerateMethodPanel.this::getTypeIndex);
+        }
+
         @Override
         public Component getTableCellEditorComponent(
                 JTable table, Object value, boolean isSelected, int row, int column) {
@@ -1211,7 +1305,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
             }
             parameterTypeTextField.setBorder(originalBorder);
             fireEditingStopped();
-            String parameterName = suggestName(parameterTypeTextField.getText());
+            String parameterName = Syntax.suggestName(parameterTypeTextField.getText());
             int selectedRow = parametersTable.getSelectedRow();
             int parameterNameColumn = 2;
             parametersTableModel.setValueAt(parameterName, selectedRow, parameterNameColumn);
@@ -1273,6 +1367,10 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         protected transient ChangeEvent changeEvent;
         protected final Border originalBorder = typeParameterTypeTextField.getBorder();
 
+        private TypeParameterTypeEditor() {
+            TypeCompletion.install(typeParameterTypeTextField, GenerateMethodPanel.this::getTypeIndex);
+        }
+
         @Override
         public Component getTableCellEditorComponent(
                 JTable table, Object value, boolean isSelected, int row, int column) {
@@ -1366,6 +1464,10 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         protected transient ChangeEvent changeEvent;
         protected final Border originalBorder = throwingTypeTextField.getBorder();
 
+        private ThrowingTypeEditor() {
+            TypeCompletion.install(throwingTypeTextField, GenerateMethodPanel.this::getTypeIndex);
+        }
+
         @Override
         public Component getTableCellEditorComponent(
                 JTable table, Object value, boolean isSelected, int row, int column) {
@@ -1467,7 +1569,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
             JTextField typeTextField = (JTextField) input;
             String type = typeTextField.getText().trim();
             typeTextField.setText(type);
-            return emptyAllowed ? type.matches(TYPE_REGEX_EMPTY_ALLOWED) : type.matches(TYPE_REGEX);
+            return emptyAllowed ? Syntax.isTypeOrEmpty(type) : Syntax.isType(type);
         }
     }
 
@@ -1478,7 +1580,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
             JTextField nameTextField = (JTextField) input;
             String name = nameTextField.getText().trim();
             nameTextField.setText(name);
-            return name.matches(NAME_REGEX);
+            return Syntax.isName(name);
         }
     }
 
@@ -1487,7 +1589,7 @@ public class GenerateMethodPanel extends javax.swing.JPanel implements DocumentL
         @Override
         public boolean verify(JComponent input) {
             String text = ((JTextField) input).getText();
-            return text.matches(TYPE_PARAMETER_NAME_REGEX);
+            return Syntax.isTypeParameterName(text);
         }
     }
 }
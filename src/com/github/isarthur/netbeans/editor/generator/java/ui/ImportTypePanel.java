@@ -0,0 +1,337 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import javax.lang.model.element.TypeElement;
+import javax.swing.DefaultListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.api.java.source.ClasspathInfo;
+import org.netbeans.api.java.source.ElementHandle;
+import org.openide.DialogDescriptor;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Shows the recently imported types at once, filters them locally and appends the types found in the class index
+ * as soon as the background search completes. Both are matched like in the platform's Go to Type dialog, with camel
+ * case and wildcards, so the history only decides what comes first.
+ *
+ * @author Arthur Sadykov
+ */
+public class ImportTypePanel extends javax.swing.JPanel {
+
+    private static final RequestProcessor SEARCH_RP = new RequestProcessor(ImportTypePanel.class.getName(), 1, true);
+    private static final int SEARCH_DELAY = 200;
+    private static final int MAX_SEARCH_RESULTS = 500;
+    private static final Pattern CAMEL_CASE = Pattern.compile(
+            "(?:\\p{javaUpperCase}(?:\\p{javaLowerCase}|\\p{Digit}|\\$)*){2,}"); //NOI18N
+    private static final String HUMP_TAIL = "[\\p{javaLowerCase}\\p{Digit}_\\$]*"; //NOI18N
+    private static final String ANY = ".*"; //NOI18N
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final List<String> recentTypes;
+    private final ClasspathInfo classpathInfo;
+    private final RequestProcessor.Task searchTask;
+    private volatile String searchText = ""; //NOI18N
+    private DialogDescriptor dialogDescriptor;
+
+    /**
+     * Creates new form ImportTypePanel
+     */
+    private ImportTypePanel(List<String> recentTypes, ClasspathInfo classpathInfo) {
+        this.recentTypes = recentTypes;
+        this.classpathInfo = classpathInfo;
+        searchTask = SEARCH_RP.create(this::search);
+        initComponents();
+        typesList.addListSelectionListener(e -> {
+            if (dialogDescriptor != null) {
+                dialogDescriptor.setValid(!typesList.isSelectionEmpty());
+            }
+        });
+        filterTextField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filter();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filter();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filter();
+            }
+        });
+        filterTextField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                int size = listModel.getSize();
+                if (size == 0) {
+                    return;
+                }
+                int index = typesList.getSelectedIndex();
+                if (e.getKeyCode() == KeyEvent.VK_DOWN) {
+                    selectType(Math.min(index + 1, size - 1));
+                    e.consume();
+                } else if (e.getKeyCode() == KeyEvent.VK_UP) {
+                    selectType(Math.max(index - 1, 0));
+                    e.consume();
+                }
+            }
+        });
+        filter();
+    }
+
+    public static ImportTypePanel create(List<String> recentTypes, ClasspathInfo classpathInfo) {
+        return new ImportTypePanel(recentTypes, classpathInfo);
+    }
+
+    void setDialogDescriptor(DialogDescriptor dialogDescriptor) {
+        this.dialogDescriptor = dialogDescriptor;
+        dialogDescriptor.setValid(!typesList.isSelectionEmpty());
+    }
+
+    public String getSelectedType() {
+        return typesList.getSelectedValue();
+    }
+
+    void cancelSearch() {
+        searchText = ""; //NOI18N
+        searchTask.cancel();
+    }
+
+    private void filter() {
+        String text = filterTextField.getText().trim();
+        searchText = text;
+        searchTask.cancel();
+        listModel.clear();
+        recentTypes.stream()
+                .filter(matcher(text))
+                .forEach(listModel::addElement);
+        if (!listModel.isEmpty()) {
+            selectType(0);
+        }
+        if (classpathInfo != null && !simpleName(text).isEmpty()) {
+            searchTask.schedule(SEARCH_DELAY);
+        }
+    }
+
+    private void search() {
+        String text = searchText;
+        String name = simpleName(text);
+        if (name.isEmpty()) {
+            return;
+        }
+        ClassIndex.NameKind nameKind = nameKind(name);
+        Set<ElementHandle<TypeElement>> handles = classpathInfo.getClassIndex().getDeclaredTypes(
+                nameKind == ClassIndex.NameKind.CASE_INSENSITIVE_REGEXP ? wildcardsToRegexp(name) : name,
+                nameKind, EnumSet.allOf(ClassIndex.SearchScope.class));
+        if (handles == null || !text.equals(searchText)) {
+            return;
+        }
+        Predicate<String> matcher = matcher(text);
+        List<String> types = new ArrayList<>();
+        for (ElementHandle<TypeElement> handle : handles) {
+            String qualifiedName = handle.getQualifiedName();
+            if (matcher.test(qualifiedName)) {
+                types.add(qualifiedName);
+            }
+        }
+        types.sort(Comparator.comparing(ImportTypePanel::simpleName).thenComparing(Comparator.naturalOrder()));
+        List<String> found = types.size() > MAX_SEARCH_RESULTS ? types.subList(0, MAX_SEARCH_RESULTS) : types;
+        SwingUtilities.invokeLater(() -> {
+            if (text.equals(searchText)) {
+                appendTypes(found);
+            }
+        });
+    }
+
+    private void appendTypes(List<String> types) {
+        Set<String> shown = new HashSet<>();
+        for (int i = 0; i < listModel.getSize(); i++) {
+            shown.add(listModel.getElementAt(i));
+        }
+        types.stream()
+                .filter(shown::add)
+                .forEach(listModel::addElement);
+        if (typesList.isSelectionEmpty() && !listModel.isEmpty()) {
+            selectType(0);
+        }
+    }
+
+    private void selectType(int index) {
+        typesList.setSelectedIndex(index);
+        typesList.ensureIndexIsVisible(index);
+    }
+
+    static boolean matches(String qualifiedName, String text) {
+        return matcher(text).test(qualifiedName);
+    }
+
+    /**
+     * Matches the simple name of a type the way the class index does for the chosen {@link #nameKind(String) name
+     * kind}. Whatever precedes the last dot of the text has to occur in the qualifier of the type, ignoring case.
+     */
+    static Predicate<String> matcher(String text) {
+        if (text.isEmpty()) {
+            return qualifiedName -> true;
+        }
+        int lastDot = text.lastIndexOf('.');
+        String qualifier = text.substring(0, Math.max(lastDot, 0)).toLowerCase(Locale.ENGLISH);
+        String name = text.substring(lastDot + 1);
+        Pattern pattern = name.isEmpty() ? null : namePattern(name);
+        return qualifiedName -> {
+            int nameStart = qualifiedName.lastIndexOf('.') + 1;
+            return qualifiedName.substring(0, nameStart).toLowerCase(Locale.ENGLISH).contains(qualifier)
+                    && (pattern == null || pattern.matcher(qualifiedName.substring(nameStart)).matches());
+        };
+    }
+
+    /**
+     * Chooses the kind of search the platform's Go to Type dialog would make for the name: wildcards make a regular
+     * expression, an upper case abbreviation or two and more humps a camel case pattern and anything else a prefix.
+     * The prefix and the regular expression ignore case.
+     */
+    static ClassIndex.NameKind nameKind(String name) {
+        if (name.indexOf('*') >= 0 || name.indexOf('?') >= 0) {
+            return ClassIndex.NameKind.CASE_INSENSITIVE_REGEXP;
+        }
+        if ((name.length() > 1 && name.equals(name.toUpperCase(Locale.ENGLISH)))
+                || CAMEL_CASE.matcher(name).matches()) {
+            return ClassIndex.NameKind.CAMEL_CASE;
+        }
+        return ClassIndex.NameKind.CASE_INSENSITIVE_PREFIX;
+    }
+
+    private static Pattern namePattern(String name) {
+        switch (nameKind(name)) {
+            case CASE_INSENSITIVE_REGEXP:
+                return Pattern.compile(wildcardsToRegexp(name), Pattern.CASE_INSENSITIVE);
+            case CAMEL_CASE:
+                return Pattern.compile(camelCaseToRegexp(name));
+            default:
+                return Pattern.compile(Pattern.quote(name) + ANY, Pattern.CASE_INSENSITIVE);
+        }
+    }
+
+    /**
+     * Turns {@code *} into any run of characters and {@code ?} into any one character. Like a prefix, the name may
+     * go on after the pattern.
+     */
+    private static String wildcardsToRegexp(String name) {
+        StringBuilder regexp = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '*') {
+                regexp.append(ANY);
+            } else if (c == '?') {
+                regexp.append('.');
+            } else {
+                regexp.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regexp.append(ANY).toString();
+    }
+
+    /**
+     * Lets every hump of the name be followed by lower case letters, digits, underscores and dollars, so that
+     * {@code ArrLi} matches {@code ArrayList} and {@code NPE} matches {@code NullPointerException}.
+     */
+    private static String camelCaseToRegexp(String name) {
+        StringBuilder regexp = new StringBuilder();
+        int humpStart = 0;
+        for (int i = 1; i <= name.length(); i++) {
+            if (i == name.length() || Character.isUpperCase(name.charAt(i))) {
+                regexp.append(Pattern.quote(name.substring(humpStart, i)))
+                        .append(i == name.length() ? ANY : HUMP_TAIL);
+                humpStart = i;
+            }
+        }
+        return regexp.toString();
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form. WARNING: Do NOT modify this code. The
+     * content of this method is always regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        filterLabel = new javax.swing.JLabel();
+        filterTextField = new javax.swing.JTextField();
+        typesScrollPane = new javax.swing.JScrollPane();
+        typesList = new javax.swing.JList<>();
+
+        filterLabel.setLabelFor(filterTextField);
+        org.openide.awt.Mnemonics.setLocalizedText(filterLabel, org.openide.util.NbBundle.getMessage(ImportTypePanel.class, "ImportTypePanel.filterLabel.text")); // NOI18N
+
+        typesList.setModel(listModel);
+        typesList.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        typesScrollPane.setViewportView(typesList);
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(typesScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 376, Short.MAX_VALUE)
+                    .addGroup(layout.createSequentialGroup()
+                        .addComponent(filterLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(filterTextField)))
+                .addContainerGap())
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(filterLabel)
+                    .addComponent(filterTextField, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addComponent(typesScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 322, Short.MAX_VALUE)
+                .addContainerGap())
+        );
+    }// </editor-fold>//GEN-END:initComponents
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JLabel filterLabel;
+    private javax.swing.JTextField filterTextField;
+    private javax.swing.JList<String> typesList;
+    private javax.swing.JScrollPane typesScrollPane;
+    // End of variables declaration//GEN-END:variables
+}
@@ -16,7 +16,7 @@
 package com.github.isarthur.netbeans.editor.generator.java.ui;
 
 import java.util.List;
-import javax.lang.model.element.Element;
+import java.util.Map;
 import javax.swing.DefaultListModel;
 import org.openide.DialogDescriptor;
 
@@ -26,7 +26,8 @@ import org.openide.DialogDescriptor;
  */
 public class LocalMembersAndVarsPanel extends javax.swing.JPanel {
 
-    private final DefaultListModel<Element> listModel = new DefaultListModel<>();
+    private final DefaultListModel<VariableDescriptor> listModel = new DefaultListModel<>();
+    private final DescriptionRenderer renderer;
     private DialogDescriptor dialogDescriptor;
 
     /**
@@ -34,6 +35,7 @@ public class LocalMembersAndVarsPanel extends javax.swing.JPanel {
      */
     private LocalMembersAndVarsPanel() {
         initComponents();
+        renderer = DescriptionRenderer.install(localMembersAndVarsList);
         localMembersAndVarsList.addListSelectionListener(e -> {
             dialogDescriptor.setValid(true);
         });
@@ -47,11 +49,18 @@ public class LocalMembersAndVarsPanel extends javax.swing.JPanel {
         this.dialogDescriptor = dialogDescriptor;
     }
 
-    public void addElements(List< Element> elements) {
-        elements.forEach(listModel::addElement);
+    public void addVariables(List<VariableDescriptor> variables) {
+        variables.forEach(listModel::addElement);
     }
 
-    public Element getSelectedElement() {
+    /**
+     * Sets the tool tips of the listed variables, typically the accessors of their types.
+     */
+    public void setDescriptions(Map<VariableDescriptor, String> descriptions) {
+        renderer.setDescriptions(descriptions);
+    }
+
+    public VariableDescriptor getSelectedVariable() {
         return localMembersAndVarsList.getSelectedValue();
     }
 
@@ -89,7 +98,7 @@ public class LocalMembersAndVarsPanel extends javax.swing.JPanel {
     }// </editor-fold>//GEN-END:initComponents
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
-    private javax.swing.JList<Element> localMembersAndVarsList;
+    private javax.swing.JList<VariableDescriptor> localMembersAndVarsList;
     private javax.swing.JScrollPane localMembersAndVarsScrollPane;
     // End of variables declaration//GEN-END:variables
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import javax.swing.DefaultListModel;
+import org.openide.DialogDescriptor;
+import org.openide.NotificationLineSupport;
+
+/**
+ * Lets the user pick the variable whose properties are read and the variable whose properties are written.
+ *
+ * @author Arthur Sadykov
+ */
+public class PropertyMappingPanel extends javax.swing.JPanel {
+
+    private final DefaultListModel<VariableDescriptor> sourceListModel = new DefaultListModel<>();
+    private final DefaultListModel<VariableDescriptor> targetListModel = new DefaultListModel<>();
+    private final DescriptionRenderer sourceRenderer;
+    private final DescriptionRenderer targetRenderer;
+    private BiFunction<VariableDescriptor, VariableDescriptor, String> mappingDescriber = (source, target) -> null;
+    private DialogDescriptor dialogDescriptor;
+
+    /**
+     * Creates new form PropertyMappingPanel
+     */
+    private PropertyMappingPanel() {
+        initComponents();
+        sourceRenderer = DescriptionRenderer.install(sourceList);
+        targetRenderer = DescriptionRenderer.install(targetList);
+        sourceList.addListSelectionListener(e -> updateValidity());
+        targetList.addListSelectionListener(e -> updateValidity());
+    }
+
+    public static PropertyMappingPanel create() {
+        return new PropertyMappingPanel();
+    }
+
+    void setDialogDescriptor(DialogDescriptor dialogDescriptor) {
+        this.dialogDescriptor = dialogDescriptor;
+        updateValidity();
+    }
+
+    public void addVariables(List<VariableDescriptor> variables) {
+        variables.forEach(variable -> {
+            sourceListModel.addElement(variable);
+            targetListModel.addElement(variable);
+        });
+    }
+
+    /**
+     * Sets the tool tips of the listed variables in both lists, typically the accessors of their types.
+     */
+    public void setDescriptions(Map<VariableDescriptor, String> sourceDescriptions,
+            Map<VariableDescriptor, String> targetDescriptions) {
+        sourceRenderer.setDescriptions(sourceDescriptions);
+        targetRenderer.setDescriptions(targetDescriptions);
+    }
+
+    /**
+     * Sets the function that describes the mapping between the selected variables, shown below the lists. It returns
+     * {@code null} if it cannot tell.
+     */
+    public void setMappingDescriber(BiFunction<VariableDescriptor, VariableDescriptor, String> mappingDescriber) {
+        this.mappingDescriber = mappingDescriber;
+    }
+
+    public VariableDescriptor getSourceVariable() {
+        return sourceList.getSelectedValue();
+    }
+
+    public VariableDescriptor getTargetVariable() {
+        return targetList.getSelectedValue();
+    }
+
+    private void updateValidity() {
+        if (dialogDescriptor != null) {
+            boolean valid = !sourceList.isSelectionEmpty()
+                    && !targetList.isSelectionEmpty()
+                    && sourceList.getSelectedIndex() != targetList.getSelectedIndex();
+            dialogDescriptor.setValid(valid);
+            NotificationLineSupport notificationLine = dialogDescriptor.getNotificationLineSupport();
+            if (notificationLine != null) {
+                String mapping = valid ? mappingDescriber.apply(getSourceVariable(), getTargetVariable()) : null;
+                if (mapping != null) {
+                    notificationLine.setInformationMessage(mapping);
+                } else {
+                    notificationLine.clearMessages();
+                }
+            }
+        }
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form. WARNING: Do NOT modify this code. The
+     * content of this method is always regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        sourceLabel = new javax.swing.JLabel();
+        targetLabel = new javax.swing.JLabel();
+        sourceScrollPane = new javax.swing.JScrollPane();
+        sourceList = new javax.swing.JList<>();
+        targetScrollPane = new javax.swing.JScrollPane();
+        targetList = new javax.swing.JList<>();
+
+        sourceLabel.setLabelFor(sourceList);
+        org.openide.awt.Mnemonics.setLocalizedText(sourceLabel, org.openide.util.NbBundle.getMessage(PropertyMappingPanel.class, "PropertyMappingPanel.sourceLabel.text")); // NOI18N
+
+        targetLabel.setLabelFor(targetList);
+        org.openide.awt.Mnemonics.setLocalizedText(targetLabel, org.openide.util.NbBundle.getMessage(PropertyMappingPanel.class, "PropertyMappingPanel.targetLabel.text")); // NOI18N
+
+        sourceList.setModel(sourceListModel);
+        sourceList.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        sourceScrollPane.setViewportView(sourceList);
+
+        targetList.setModel(targetListModel);
+        targetList.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        targetScrollPane.setViewportView(targetList);
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(sourceLabel)
+                    .addComponent(sourceScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 200, Short.MAX_VALUE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(targetLabel)
+                    .addComponent(targetScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 200, Short.MAX_VALUE))
+                .addContainerGap())
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(sourceLabel)
+                    .addComponent(targetLabel))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(sourceScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 266, Short.MAX_VALUE)
+                    .addComponent(targetScrollPane, javax.swing.GroupLayout.DEFAULT_SIZE, 266, Short.MAX_VALUE))
+                .addContainerGap())
+        );
+    }// </editor-fold>//GEN-END:initComponents
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JLabel sourceLabel;
+    private javax.swing.JList<VariableDescriptor> sourceList;
+    private javax.swing.JScrollPane sourceScrollPane;
+    private javax.swing.JLabel targetLabel;
+    private javax.swing.JList<VariableDescriptor> targetList;
+    private javax.swing.JScrollPane targetScrollPane;
+    // End of variables declaration//GEN-END:variables
+}
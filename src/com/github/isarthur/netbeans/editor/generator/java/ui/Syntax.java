@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled syntax rules for the types and names entered in the generator dialogs.
+ *
+ * @author Arthur Sadykov
+ */
+final class Syntax {
+
+    private static final Pattern NAME = Pattern.compile("^[a-zA-Z_]\\w*?$"); //NOI18N
+    private static final Pattern TYPE_PARAMETER_NAME = Pattern.compile("^([a-zA-Z_]\\w*?)|(\\?)$"); //NOI18N
+    private static final String TYPE_REGEX =
+            "^\\s*?(([a-zA-Z_]\\w*?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)\\s+?extends\\s+?[a-zA-Z_]" //NOI18N
+            + "\\w*?))\\s*?\\>)?)" //NOI18N
+            + "|([a-zA-Z_]\\w*?\\s*?\\[\\])" //NOI18N
+            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?\\[\\])" //NOI18N
+            + "|([a-zA-Z_]\\w*?(\\s*?\\.[a-zA-Z_]\\w*?)+?\\s*?(\\<\\s*?((\\?)|([a-zA-Z_]\\w*?)|((\\?)|([a-zA-Z_?]\\w*?)" //NOI18N
+            + "\\s+?extends\\s+?[a-zA-Z_]\\w*?))\\s*?\\>)?))\\s*?$"; //NOI18N
+    private static final Pattern TYPE = Pattern.compile(TYPE_REGEX);
+    private static final Pattern SIMPLE_TYPE_NAME = Pattern.compile("^([a-zA-Z_]\\w+?)((\\[\\])|(\\<.*?\\>))?$"); //NOI18N
+    private static final Pattern QUALIFIED_TYPE_NAME =
+            Pattern.compile("^([a-zA-Z_]\\w+?(\\.[a-zA-Z_]\\w+?)+?)((\\[\\])|(\\<.*?\\>))?$"); //NOI18N
+    private static final Pattern TYPE_OR_EMPTY = Pattern.compile("(" + TYPE_REGEX + ")|(^$)"); //NOI18N
+
+    private Syntax() {
+    }
+
+    static boolean isName(String text) {
+        return NAME.matcher(text).matches();
+    }
+
+    static boolean isTypeParameterName(String text) {
+        return TYPE_PARAMETER_NAME.matcher(text).matches();
+    }
+
+    static boolean isType(String text) {
+        return TYPE.matcher(text).matches();
+    }
+
+    static boolean isTypeOrEmpty(String text) {
+        return TYPE_OR_EMPTY.matcher(text).matches();
+    }
+
+    static String suggestName(String type) {
+        String name = ""; //NOI18N
+        Matcher matcher = SIMPLE_TYPE_NAME.matcher(type);
+        if (matcher.matches()) {
+            name = matcher.group(1);
+            name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
+        } else {
+            matcher = QUALIFIED_TYPE_NAME.matcher(type);
+            if (matcher.matches()) {
+                name = matcher.group(1).substring(matcher.group(1).lastIndexOf('.') + 1);
+                name = name.substring(0, 1).toLowerCase(Locale.getDefault()).concat(name.substring(1));
+            }
+        }
+        return name;
+    }
+}
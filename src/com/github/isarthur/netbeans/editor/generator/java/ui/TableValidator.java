@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+
+/**
+ * Keeps the validity of every checked cell of a table model and revalidates only the cells named by a model event,
+ * so that asking whether the whole table is valid does not rescan it.
+ *
+ * @author Arthur Sadykov
+ */
+final class TableValidator implements TableModelListener {
+
+    private final TableModel model;
+    private final Map<Integer, Predicate<String>> rules;
+    private final List<Integer> invalidColumns = new ArrayList<>();
+    private int invalidRows;
+
+    TableValidator(TableModel model, Map<Integer, Predicate<String>> rules) {
+        this.model = model;
+        this.rules = rules;
+        revalidate();
+        model.addTableModelListener(this);
+    }
+
+    boolean isValid() {
+        return invalidRows == 0;
+    }
+
+    boolean isValid(int row, int column) {
+        return (invalidColumns.get(row) & (1 << column)) == 0;
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent event) {
+        int firstRow = event.getFirstRow();
+        int lastRow = event.getLastRow();
+        if (firstRow == TableModelEvent.HEADER_ROW || lastRow == Integer.MAX_VALUE) {
+            revalidate();
+            return;
+        }
+        switch (event.getType()) {
+            case TableModelEvent.INSERT:
+                for (int row = firstRow; row <= lastRow; row++) {
+                    int mask = validateRow(row);
+                    invalidColumns.add(row, mask);
+                    if (mask != 0) {
+                        invalidRows++;
+                    }
+                }
+                break;
+            case TableModelEvent.DELETE:
+                for (int row = lastRow; row >= firstRow; row--) {
+                    if (invalidColumns.remove(row) != 0) {
+                        invalidRows--;
+                    }
+                }
+                break;
+            default:
+                int column = event.getColumn();
+                for (int row = firstRow; row <= lastRow; row++) {
+                    if (column == TableModelEvent.ALL_COLUMNS) {
+                        update(row, validateRow(row));
+                    } else if (rules.containsKey(column)) {
+                        int bit = 1 << column;
+                        int mask = invalidColumns.get(row);
+                        update(row, validateCell(row, column) ? mask & ~bit : mask | bit);
+                    }
+                }
+                break;
+        }
+    }
+
+    void revalidate() {
+        invalidColumns.clear();
+        invalidRows = 0;
+        for (int row = 0; row < model.getRowCount(); row++) {
+            int mask = validateRow(row);
+            invalidColumns.add(mask);
+            if (mask != 0) {
+                invalidRows++;
+            }
+        }
+    }
+
+    private void update(int row, int mask) {
+        int oldMask = invalidColumns.set(row, mask);
+        if (oldMask == 0 && mask != 0) {
+            invalidRows++;
+        } else if (oldMask != 0 && mask == 0) {
+            invalidRows--;
+        }
+    }
+
+    private int validateRow(int row) {
+        int mask = 0;
+        for (Integer column : rules.keySet()) {
+            if (!validateCell(row, column)) {
+                mask |= 1 << column;
+            }
+        }
+        return mask;
+    }
+
+    private boolean validateCell(int row, int column) {
+        Object value = model.getValueAt(row, column);
+        return rules.get(column).test(value instanceof String ? (String) value : ""); //NOI18N
+    }
+}
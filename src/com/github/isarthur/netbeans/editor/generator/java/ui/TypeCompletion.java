@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import org.openide.util.Exceptions;
+
+/**
+ * Completion popup for a type text field. Completes the type name at the caret from the shared {@link TypeIndex}, so
+ * a keystroke is answered from memory without querying the class index.
+ *
+ * @author Arthur Sadykov
+ */
+final class TypeCompletion {
+
+    private static final int MAX_ITEMS = 50;
+    private static final int VISIBLE_ROWS = 10;
+    private final JTextField textField;
+    private final Supplier<TypeIndex> typeIndexSupplier;
+    private final DefaultListModel<String> listModel = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(listModel);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final ChangeListener indexBuiltListener = event -> update();
+    private TypeIndex listenedIndex;
+    private boolean accepting;
+
+    private TypeCompletion(JTextField textField, Supplier<TypeIndex> typeIndexSupplier) {
+        this.textField = textField;
+        this.typeIndexSupplier = typeIndexSupplier;
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.setVisibleRowCount(VISIBLE_ROWS);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    accept();
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setFocusable(false);
+        popup.add(scrollPane);
+        popup.setFocusable(false);
+    }
+
+    static void install(JTextField textField, Supplier<TypeIndex> typeIndexSupplier) {
+        TypeCompletion completion = new TypeCompletion(textField, typeIndexSupplier);
+        textField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                completion.scheduleUpdate();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                completion.scheduleUpdate();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        textField.addKeyListener(completion.new KeyHandler());
+        textField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                completion.hide();
+            }
+        });
+    }
+
+    private void scheduleUpdate() {
+        if (!accepting && textField.hasFocus()) {
+            SwingUtilities.invokeLater(this::update);
+        }
+    }
+
+    private void update() {
+        if (!textField.isShowing() || !textField.hasFocus()) {
+            hide();
+            return;
+        }
+        String prefix = getPrefix();
+        TypeIndex typeIndex = typeIndexSupplier.get();
+        if (prefix.isEmpty() || typeIndex == null) {
+            hide();
+            return;
+        }
+        if (!typeIndex.isReady()) {
+            listenTo(typeIndex);
+            return;
+        }
+        List<String> types = typeIndex.find(prefix, MAX_ITEMS);
+        if (types.isEmpty() || (types.size() == 1 && types.get(0).equals(prefix))) {
+            hide();
+            return;
+        }
+        listModel.clear();
+        types.forEach(listModel::addElement);
+        list.setSelectedIndex(0);
+        list.ensureIndexIsVisible(0);
+        if (popup.isVisible()) {
+            popup.pack();
+        } else {
+            popup.show(textField, 0, textField.getHeight());
+        }
+    }
+
+    private void listenTo(TypeIndex typeIndex) {
+        if (listenedIndex != typeIndex) {
+            if (listenedIndex != null) {
+                listenedIndex.removeChangeListener(indexBuiltListener);
+            }
+            listenedIndex = typeIndex;
+            typeIndex.addChangeListener(indexBuiltListener);
+        }
+    }
+
+    private void hide() {
+        if (popup.isVisible()) {
+            popup.setVisible(false);
+        }
+        if (listenedIndex != null) {
+            listenedIndex.removeChangeListener(indexBuiltListener);
+            listenedIndex = null;
+        }
+    }
+
+    private String getPrefix() {
+        String text = textField.getText();
+        int end = Math.min(textField.getCaretPosition(), text.length());
+        int start = end;
+        while (start > 0 && isTypeNamePart(text.charAt(start - 1))) {
+            start--;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean isTypeNamePart(char c) {
+        return Character.isJavaIdentifierPart(c) || c == '.';
+    }
+
+    private void accept() {
+        String type = list.getSelectedValue();
+        if (type == null) {
+            return;
+        }
+        int end = textField.getCaretPosition();
+        int start = end - getPrefix().length();
+        accepting = true;
+        try {
+            textField.getDocument().remove(start, end - start);
+            textField.getDocument().insertString(start, type, null);
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        } finally {
+            accepting = false;
+        }
+        hide();
+    }
+
+    private void moveSelection(int delta) {
+        int size = listModel.getSize();
+        int index = Math.max(0, Math.min(size - 1, list.getSelectedIndex() + delta));
+        list.setSelectedIndex(index);
+        list.ensureIndexIsVisible(index);
+    }
+
+    private class KeyHandler extends KeyAdapter {
+
+        @Override
+        public void keyPressed(KeyEvent e) {
+            if (!popup.isVisible()) {
+                if (e.getKeyCode() == KeyEvent.VK_SPACE && e.isControlDown()) {
+                    update();
+                    e.consume();
+                }
+                return;
+            }
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_DOWN:
+                    moveSelection(1);
+                    e.consume();
+                    break;
+                case KeyEvent.VK_UP:
+                    moveSelection(-1);
+                    e.consume();
+                    break;
+                case KeyEvent.VK_PAGE_DOWN:
+                    moveSelection(VISIBLE_ROWS);
+                    e.consume();
+                    break;
+                case KeyEvent.VK_PAGE_UP:
+                    moveSelection(-VISIBLE_ROWS);
+                    e.consume();
+                    break;
+                case KeyEvent.VK_ENTER:
+                    accept();
+                    e.consume();
+                    break;
+                case KeyEvent.VK_ESCAPE:
+                    hide();
+                    e.consume();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
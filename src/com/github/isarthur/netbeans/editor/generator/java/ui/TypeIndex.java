@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.lang.model.element.TypeElement;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.api.java.source.ClasspathInfo;
+import org.netbeans.api.java.source.ElementHandle;
+import org.netbeans.api.java.source.SourceUtils;
+import org.openide.util.ChangeSupport;
+import org.openide.util.RequestProcessor;
+
+/**
+ * In-memory index of the simple and qualified names of the types visible on a classpath, shared by all dialogs
+ * opened on files with the same boot, compile and source classpaths. The names are indexed in the background on
+ * first use and again when they get stale; until then the previous names keep answering.
+ *
+ * @author Arthur Sadykov
+ */
+final class TypeIndex {
+
+    private static final Logger LOG = Logger.getLogger(TypeIndex.class.getName());
+    private static final RequestProcessor BUILD_RP = new RequestProcessor(TypeIndex.class.getName());
+    private static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    private static final Map<ClassPath, Map<ClassPath, Map<ClassPath, TypeIndex>>> INDEXES = new WeakHashMap<>();
+    private final ChangeSupport changeSupport = new ChangeSupport(this);
+    private volatile Names names;
+    private boolean building;
+
+    private TypeIndex() {
+    }
+
+    static TypeIndex forClasspath(ClasspathInfo classpathInfo) {
+        TypeIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES
+                    .computeIfAbsent(classpathInfo.getClassPath(ClasspathInfo.PathKind.COMPILE),
+                            classPath -> new WeakHashMap<>())
+                    .computeIfAbsent(classpathInfo.getClassPath(ClasspathInfo.PathKind.BOOT),
+                            classPath -> new WeakHashMap<>())
+                    .computeIfAbsent(classpathInfo.getClassPath(ClasspathInfo.PathKind.SOURCE),
+                            classPath -> new TypeIndex());
+        }
+        index.refresh(classpathInfo);
+        return index;
+    }
+
+    void addChangeListener(ChangeListener listener) {
+        changeSupport.addChangeListener(listener);
+    }
+
+    void removeChangeListener(ChangeListener listener) {
+        changeSupport.removeChangeListener(listener);
+    }
+
+    boolean isReady() {
+        return names != null;
+    }
+
+    List<String> find(String prefix, int limit) {
+        Names current = names;
+        if (current == null) {
+            return List.of();
+        }
+        return prefix.indexOf('.') >= 0
+                ? current.qualifiedNames.find(prefix, limit)
+                : current.simpleNames.find(prefix, limit);
+    }
+
+    private synchronized void refresh(ClasspathInfo classpathInfo) {
+        Names current = names;
+        if (building || (current != null && current.complete
+                && System.currentTimeMillis() - current.builtAt < REFRESH_INTERVAL)) {
+            return;
+        }
+        building = true;
+        BUILD_RP.post(() -> build(classpathInfo), 0, Thread.MIN_PRIORITY);
+    }
+
+    private void build(ClasspathInfo classpathInfo) {
+        long start = System.nanoTime();
+        try {
+            boolean complete = !SourceUtils.isScanInProgress();
+            Set<ElementHandle<TypeElement>> handles = classpathInfo.getClassIndex().getDeclaredTypes(
+                    "", ClassIndex.NameKind.PREFIX, EnumSet.allOf(ClassIndex.SearchScope.class)); //NOI18N
+            if (handles == null) {
+                return;
+            }
+            Names newNames = new Names(complete);
+            for (ElementHandle<TypeElement> handle : handles) {
+                String qualifiedName = handle.getQualifiedName();
+                if (isAnonymousOrLocal(qualifiedName)) {
+                    continue;
+                }
+                newNames.simpleNames.add(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1), qualifiedName);
+                newNames.qualifiedNames.add(qualifiedName, qualifiedName);
+            }
+            newNames.simpleNames.sort();
+            newNames.qualifiedNames.sort();
+            names = newNames;
+            LOG.log(Level.FINE, "Indexed {0} types in {1} ms", new Object[]{ //NOI18N
+                newNames.qualifiedNames.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            });
+        } finally {
+            synchronized (this) {
+                building = false;
+            }
+            SwingUtilities.invokeLater(changeSupport::fireChange);
+        }
+    }
+
+    private static boolean isAnonymousOrLocal(String qualifiedName) {
+        for (int i = 0; i < qualifiedName.length() - 1; i++) {
+            char c = qualifiedName.charAt(i);
+            if ((c == '.' || c == '$') && Character.isDigit(qualifiedName.charAt(i + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Names {
+
+        private final TypeNames simpleNames = new TypeNames();
+        private final TypeNames qualifiedNames = new TypeNames();
+        private final long builtAt = System.currentTimeMillis();
+        private final boolean complete;
+
+        private Names(boolean complete) {
+            this.complete = complete;
+        }
+    }
+}
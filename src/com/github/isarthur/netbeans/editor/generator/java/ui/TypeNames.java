@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Case-insensitive prefix index of type names. The names are collected first and then sorted once into two parallel
+ * arrays of keys and values, a lookup binary searches the first key with the prefix and reads the following ones, so
+ * the matches come in alphabetical order. A qualified name used as its own key is stored only once.
+ *
+ * @author Arthur Sadykov
+ */
+final class TypeNames {
+
+    private static final String[] NO_NAMES = new String[0];
+    private List<Entry> added = new ArrayList<>();
+    private String[] keys = NO_NAMES;
+    private String[] values = NO_NAMES;
+
+    synchronized void add(String key, String value) {
+        if (added == null) {
+            added = new ArrayList<>(keys.length + 1);
+            for (int i = 0; i < keys.length; i++) {
+                added.add(new Entry(keys[i], values[i]));
+            }
+        }
+        added.add(new Entry(key, value));
+    }
+
+    synchronized int size() {
+        sort();
+        return keys.length;
+    }
+
+    synchronized List<String> find(String prefix, int limit) {
+        sort();
+        Set<String> found = new LinkedHashSet<>();
+        for (int i = firstIndexOf(prefix); i < keys.length && found.size() < limit; i++) {
+            if (!keys[i].regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            found.add(values[i]);
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Moves the added names into the sorted arrays, dropping duplicates. The sort is stable, so values with the same
+     * key keep the order they were added in. Called once the index is built so that lookups never have to sort.
+     */
+    synchronized void sort() {
+        if (added == null) {
+            return;
+        }
+        added.sort(Comparator.comparing(entry -> entry.key, String.CASE_INSENSITIVE_ORDER));
+        List<String> newKeys = new ArrayList<>(added.size());
+        List<String> newValues = new ArrayList<>(added.size());
+        int runStart = 0;
+        for (Entry entry : added) {
+            if (runStart < newKeys.size() && !newKeys.get(runStart).equalsIgnoreCase(entry.key)) {
+                runStart = newKeys.size();
+            }
+            if (!isDuplicate(newKeys, newValues, runStart, entry)) {
+                newKeys.add(entry.key);
+                newValues.add(entry.value);
+            }
+        }
+        keys = newKeys.toArray(NO_NAMES);
+        values = newValues.toArray(NO_NAMES);
+        added = null;
+    }
+
+    private static boolean isDuplicate(List<String> keys, List<String> values, int runStart, Entry entry) {
+        for (int i = runStart; i < keys.size(); i++) {
+            if (keys.get(i).equals(entry.key) && values.get(i).equals(entry.value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstIndexOf(String prefix) {
+        int index = Arrays.binarySearch(keys, prefix, String.CASE_INSENSITIVE_ORDER);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && keys[index - 1].equalsIgnoreCase(prefix)) {
+            index--;
+        }
+        return index;
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final String value;
+
+        private Entry(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.lang.model.element.TypeElement;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.api.java.source.ClasspathInfo;
+import org.netbeans.api.java.source.ElementHandle;
+import org.netbeans.api.java.source.SourceUtils;
+import org.openide.util.ChangeSupport;
+import org.openide.util.RequestProcessor;
+
+/**
+ * Resolves the type names typed into the generator dialogs against the classpath of the edited file. Index lookups
+ * run on a background thread; the results are kept in a bounded cache of simple name to fully qualified names, and
+ * the listeners are notified on the event dispatch thread when new results arrive. While the index is being scanned
+ * the names stay pending and are looked up again once the scan is over.
+ *
+ * @author Arthur Sadykov
+ */
+public final class TypeResolver {
+
+    enum State {
+        RESOLVED,
+        UNRESOLVED,
+        PENDING
+    }
+
+    private static final RequestProcessor RESOLVER_RP = new RequestProcessor(TypeResolver.class.getName(), 1, true);
+    private static final int RESOLVE_DELAY = 250;
+    private static final int SCAN_RETRY_DELAY = 1000;
+    private static final int MAX_CACHED_NAMES = 1024;
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_$][\\w$]*(\\s*\\.\\s*[a-zA-Z_$][\\w$]*)*"); //NOI18N
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+"); //NOI18N
+    private static final Set<String> KEYWORDS = Set.of("extends", "super"); //NOI18N
+    private static final Set<String> PRIMITIVES = Set.of(
+            "boolean", "byte", "char", "short", "int", "long", "float", "double", "void"); //NOI18N
+    private static final String JAVA_LANG = "java.lang."; //NOI18N
+    private final ClasspathInfo classpathInfo;
+    private final String packagePrefix;
+    private final List<String> singleTypeImports = new ArrayList<>();
+    private final List<String> onDemandImportPrefixes = new ArrayList<>();
+    private final Map<String, List<String>> candidates = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_CACHED_NAMES;
+        }
+    };
+    private final Set<String> pendingNames = new HashSet<>();
+    private final ChangeSupport changeSupport = new ChangeSupport(this);
+    private final RequestProcessor.Task resolveTask;
+
+    private TypeResolver(ClasspathInfo classpathInfo, String packageName, List<String> imports) {
+        this.classpathInfo = classpathInfo;
+        this.packagePrefix = packageName.isEmpty() ? packageName : packageName + '.';
+        for (String qualifiedName : imports) {
+            if (qualifiedName.endsWith(".*")) { //NOI18N
+                onDemandImportPrefixes.add(qualifiedName.substring(0, qualifiedName.length() - 1));
+            } else {
+                singleTypeImports.add(qualifiedName);
+            }
+        }
+        resolveTask = RESOLVER_RP.create(this::lookUpPendingNames);
+    }
+
+    public static TypeResolver create(ClasspathInfo classpathInfo, CompilationUnitTree compilationUnit) {
+        String packageName = compilationUnit.getPackageName() != null
+                ? compilationUnit.getPackageName().toString()
+                : ""; //NOI18N
+        List<String> imports = new ArrayList<>();
+        for (ImportTree importTree : compilationUnit.getImports()) {
+            if (!importTree.isStatic()) {
+                imports.add(importTree.getQualifiedIdentifier().toString());
+            }
+        }
+        return new TypeResolver(classpathInfo, packageName, imports);
+    }
+
+    ClasspathInfo getClasspathInfo() {
+        return classpathInfo;
+    }
+
+    void addChangeListener(ChangeListener listener) {
+        changeSupport.addChangeListener(listener);
+    }
+
+    void removeChangeListener(ChangeListener listener) {
+        changeSupport.removeChangeListener(listener);
+    }
+
+    void cancel() {
+        resolveTask.cancel();
+    }
+
+    State check(String type, Set<String> typeVariables) {
+        State state = State.RESOLVED;
+        Matcher matcher = NAME.matcher(type);
+        while (matcher.find()) {
+            String name = normalize(matcher.group());
+            if (isPending(name, typeVariables)) {
+                state = State.PENDING;
+            } else if (state != State.PENDING && resolveName(name, typeVariables) == null) {
+                state = State.UNRESOLVED;
+            }
+        }
+        return state;
+    }
+
+    String qualify(String type, Set<String> typeVariables) {
+        StringBuffer qualifiedType = new StringBuffer();
+        Matcher matcher = NAME.matcher(type);
+        while (matcher.find()) {
+            String resolved = resolveName(normalize(matcher.group()), typeVariables);
+            matcher.appendReplacement(
+                    qualifiedType, Matcher.quoteReplacement(resolved != null ? resolved : matcher.group()));
+        }
+        matcher.appendTail(qualifiedType);
+        return qualifiedType.toString();
+    }
+
+    private static String normalize(String name) {
+        return WHITESPACE.matcher(name).replaceAll(""); //NOI18N
+    }
+
+    private static boolean isBuiltIn(String name, Set<String> typeVariables) {
+        return KEYWORDS.contains(name) || PRIMITIVES.contains(name) || typeVariables.contains(name);
+    }
+
+    private static String simpleName(String name) {
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private boolean isPending(String name, Set<String> typeVariables) {
+        if (isBuiltIn(name, typeVariables)) {
+            return false;
+        }
+        String simpleName = simpleName(name);
+        synchronized (candidates) {
+            if (candidates.containsKey(simpleName)) {
+                return false;
+            }
+            pendingNames.add(simpleName);
+        }
+        resolveTask.schedule(RESOLVE_DELAY);
+        return true;
+    }
+
+    private String resolveName(String name, Set<String> typeVariables) {
+        if (isBuiltIn(name, typeVariables)) {
+            return name;
+        }
+        List<String> qualifiedNames;
+        synchronized (candidates) {
+            qualifiedNames = candidates.get(simpleName(name));
+        }
+        if (qualifiedNames == null) {
+            return null;
+        }
+        if (name.indexOf('.') >= 0) {
+            return resolveQualifiedName(name, qualifiedNames);
+        }
+        for (String qualifiedName : singleTypeImports) {
+            if (qualifiedName.endsWith('.' + name)) {
+                return qualifiedName;
+            }
+        }
+        for (String prefix : List.of(packagePrefix, JAVA_LANG)) {
+            if (qualifiedNames.contains(prefix + name)) {
+                return prefix + name;
+            }
+        }
+        for (String prefix : onDemandImportPrefixes) {
+            if (qualifiedNames.contains(prefix + name)) {
+                return prefix + name;
+            }
+        }
+        return qualifiedNames.size() == 1 ? qualifiedNames.get(0) : null;
+    }
+
+    private static String resolveQualifiedName(String name, List<String> qualifiedNames) {
+        if (qualifiedNames.contains(name)) {
+            return name;
+        }
+        String resolved = null;
+        for (String qualifiedName : qualifiedNames) {
+            if (qualifiedName.endsWith('.' + name)) {
+                if (resolved != null) {
+                    return null;
+                }
+                resolved = qualifiedName;
+            }
+        }
+        return resolved;
+    }
+
+    private void lookUpPendingNames() {
+        List<String> names;
+        synchronized (candidates) {
+            names = new ArrayList<>(pendingNames);
+            pendingNames.clear();
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        if (SourceUtils.isScanInProgress()) {
+            retry(names);
+            return;
+        }
+        ClassIndex classIndex = classpathInfo.getClassIndex();
+        List<String> interrupted = new ArrayList<>();
+        for (String name : names) {
+            Set<ElementHandle<TypeElement>> handles = classIndex.getDeclaredTypes(
+                    name, ClassIndex.NameKind.SIMPLE_NAME, EnumSet.allOf(ClassIndex.SearchScope.class));
+            if (handles == null) {
+                interrupted.add(name);
+                continue;
+            }
+            List<String> qualifiedNames = new ArrayList<>(handles.size());
+            handles.forEach(handle -> qualifiedNames.add(handle.getQualifiedName()));
+            synchronized (candidates) {
+                candidates.put(name, Collections.unmodifiableList(qualifiedNames));
+            }
+        }
+        if (!interrupted.isEmpty()) {
+            retry(interrupted);
+        }
+        SwingUtilities.invokeLater(changeSupport::fireChange);
+    }
+
+    /**
+     * Keeps the names pending and looks them up again later, as long as a dialog still listens for the results.
+     */
+    private void retry(List<String> names) {
+        synchronized (candidates) {
+            pendingNames.addAll(names);
+        }
+        if (changeSupport.hasListeners()) {
+            resolveTask.schedule(SCAN_RETRY_DELAY);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import org.netbeans.api.java.source.ElementHandle;
+
+/**
+ * An immutable entry of the variable choosers. A descriptor is computed once while the scope is listed and holds
+ * only strings and, for fields, an {@link ElementHandle}, so a dialog does not keep the compilation that listed the
+ * variables alive; the generators resolve the chosen variable again when they run.
+ *
+ * @author Arthur Sadykov
+ */
+public final class VariableDescriptor {
+
+    /**
+     * Local variables and parameters first, then fields, each group by name ignoring case.
+     */
+    public static final Comparator<VariableDescriptor> ORDER = Comparator
+            .comparingInt((VariableDescriptor variable) -> variable.rank)
+            .thenComparing(variable -> variable.sortKey)
+            .thenComparing(variable -> variable.name);
+    private static final Pattern QUALIFIER = Pattern.compile("(?:[\\w$]+\\.)+(?=[\\w$])"); //NOI18N
+    private final String name;
+    private final ElementKind kind;
+    private final String typeName;
+    private final String typeDisplayName;
+    private final ElementHandle<VariableElement> handle;
+    private final String sortKey;
+    private final int rank;
+    private final String displayName;
+
+    private VariableDescriptor(String name, ElementKind kind, String typeName, String typeDisplayName,
+            ElementHandle<VariableElement> handle) {
+        this.name = name;
+        this.kind = kind;
+        this.typeName = typeName;
+        this.typeDisplayName = typeDisplayName;
+        this.handle = handle;
+        this.sortKey = name.toLowerCase(Locale.ENGLISH);
+        this.rank = kind == ElementKind.LOCAL_VARIABLE || kind == ElementKind.PARAMETER ? 0 : 1;
+        this.displayName = name + " : " + typeDisplayName; //NOI18N
+    }
+
+    /**
+     * Describes a field, local variable or parameter.
+     */
+    public static VariableDescriptor create(VariableElement variable) {
+        TypeMirror type = variable.asType();
+        ElementKind kind = variable.getKind();
+        return new VariableDescriptor(
+                variable.getSimpleName().toString(),
+                kind,
+                getQualifiedName(type),
+                QUALIFIER.matcher(type.toString()).replaceAll(""), //NOI18N
+                kind.isField() ? ElementHandle.create(variable) : null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ElementKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the qualified name of the variable's declared type or {@code null} for other types.
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Returns the type of the variable as shown to the user, with simple names only.
+     */
+    public String getTypeDisplayName() {
+        return typeDisplayName;
+    }
+
+    /**
+     * Returns the handle of a field or {@code null} for local variables and parameters, which cannot be resolved
+     * outside of the compilation that declares them.
+     */
+    public ElementHandle<VariableElement> getHandle() {
+        return handle;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+    private static String getQualifiedName(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        Element element = ((DeclaredType) type).asElement();
+        return element instanceof TypeElement ? ((TypeElement) element).getQualifiedName().toString() : null;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.BeanPropertyIndexer.IndexedType;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class BeanPropertyIndexerTest extends NbTestCase {
+
+    public BeanPropertyIndexerTest(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(BeanPropertyIndexerTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+    }
+
+    public void testAccessorsAreQualifiedAndInherited() throws Exception {
+        Map<String, IndexedType> types = collect(""
+                + "package a;\n"
+                + "import java.util.List;\n"
+                + "public class Person extends Base<String> {\n"
+                + "    public List<String> getNames() { return null; }\n"
+                + "    public void setNames(List<String> names) {}\n"
+                + "    public static int getCount() { return 0; }\n"
+                + "    private int getAge() { return 0; }\n"
+                + "    public void run() {}\n"
+                + "    public void foo() { new Object() { public int getX() { return 0; } }; }\n"
+                + "}\n"
+                + "class Base<T> {\n"
+                + "    public T getId() { return null; }\n"
+                + "    public boolean isActive() { return false; }\n"
+                + "}\n");
+        assertEquals(Arrays.asList("a.Person", "a.Base"), new ArrayList<>(types.keySet()));
+        assertEquals(Arrays.asList(
+                "a.Base|getId|java.lang.String|",
+                "a.Base|isActive|boolean|",
+                "a.Person|getNames|java.util.List<java.lang.String>|",
+                "a.Person|setNames|void|java.util.List<java.lang.String>"),
+                encode(types.get("a.Person").getAccessors()));
+        assertEquals(Arrays.asList("a.Base|getId|T|", "a.Base|isActive|boolean|"),
+                encode(types.get("a.Base").getAccessors()));
+        assertEquals("Supertypes in sources are stamped",
+                Collections.singletonMap("a.Base", types.get("a.Base").getStamp()),
+                types.get("a.Person").getSupertypes());
+        assertTrue(types.get("a.Base").getSupertypes().isEmpty());
+    }
+
+    public void testUnresolvableTypesAreNotIndexed() throws Exception {
+        Map<String, IndexedType> types = collect(""
+                + "package a;\n"
+                + "public class Broken extends Missing {\n"
+                + "}\n"
+                + "class Unknown {\n"
+                + "    public Missing getValue() { return null; }\n"
+                + "}\n"
+                + "class Known {\n"
+                + "    public static class Nested {\n"
+                + "        public void setValue(int value) {}\n"
+                + "    }\n"
+                + "}\n");
+        assertEquals(Arrays.asList("a.Known", "a.Known.Nested"), new ArrayList<>(types.keySet()));
+        assertEquals(Collections.singletonList("a.Known.Nested|setValue|void|int"),
+                encode(types.get("a.Known.Nested").getAccessors()));
+    }
+
+    public void testAccessorsRoundTripAndNameProperties() {
+        BeanAccessor getter = BeanAccessor.decode("a.Person|getURL|java.lang.String|");
+        assertEquals("a.Person", getter.getDeclaringType());
+        assertEquals("URL", getter.getReadProperty());
+        assertNull(getter.getWriteProperty());
+        BeanAccessor setter = BeanAccessor.decode("a.Person|setNames|void|java.util.Map<java.lang.String,a.Person>");
+        assertEquals(Collections.singletonList("java.util.Map<java.lang.String,a.Person>"),
+                setter.getParameterTypes());
+        assertEquals("names", setter.getWriteProperty());
+        assertNull(BeanAccessor.decode("a.Person|isValid|java.lang.Boolean|").getWriteProperty());
+        assertEquals("valid", BeanAccessor.decode("a.Person|isValid|java.lang.Boolean|").getReadProperty());
+        assertNull(BeanAccessor.decode("a.Person|isValid|int|").getReadProperty());
+        assertNull(BeanAccessor.decode("broken"));
+    }
+
+    public void testMappingIsDescribedFromTheAccessors() {
+        List<BeanAccessor> source = Arrays.asList(
+                BeanAccessor.decode("a.Source|getName|java.lang.String|"),
+                BeanAccessor.decode("a.Source|isActive|boolean|"));
+        List<BeanAccessor> target = Arrays.asList(
+                BeanAccessor.decode("a.Target|setName|void|java.lang.String"),
+                BeanAccessor.decode("a.Target|setAge|void|int"),
+                BeanAccessor.decode("a.Target|setName|void|int"));
+        assertEquals("Maps: name. Without counterpart: age, active",
+                BeanPropertyIndex.describeMapping(source, target));
+        assertEquals("Maps: none. Without counterpart: name, active",
+                BeanPropertyIndex.describeMapping(source, Collections.emptyList()));
+    }
+
+    private Map<String, IndexedType> collect(String content) throws Exception {
+        FileObject root = FileUtil.toFileObject(getWorkDir());
+        FileObject java = FileUtil.createData(root, "a/" + content.replaceAll("(?s).*?public class (\\w+).*", "$1")
+                + ".java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        Map<String, IndexedType> types = new LinkedHashMap<>();
+        JavaSource.forFileObject(java).runUserActionTask(controller -> {
+            controller.toPhase(JavaSource.Phase.ELEMENTS_RESOLVED);
+            BeanPropertyIndexer.collect(controller).forEach(type -> types.put(type.getQualifiedName(), type));
+        }, true);
+        return types;
+    }
+
+    private static List<String> encode(List<BeanAccessor> accessors) {
+        return accessors.stream().map(BeanAccessor::encode).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import javax.swing.JEditorPane;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbTestCase;
+import org.netbeans.junit.NbModuleSuite;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+import org.openide.util.lookup.Lookups;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class CaretContextTest extends NbTestCase {
+
+    private final String content =
+            "import javax.swing.text.StyledDocument;\n"
+            + "public class X {\n"
+            + "\n"
+            + "    private int x;\n"
+            + "    private int y;\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        StyledDocument document = null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+    private JEditorPane editorPane;
+
+    public CaretContextTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        JavaSource javaSource = JavaSource.forFileObject(java);
+        assertNotNull("javaSource was null", javaSource);
+        DataObject dataObject = DataObject.find(java);
+        EditorCookie editorCookie = dataObject.getLookup().lookup(EditorCookie.class);
+        document = editorCookie.openDocument();
+        editorPane = new JEditorPane();
+        editorPane.setDocument(document);
+        editorPane.getDocument().putProperty(JavaSource.class, new WeakReference<>(javaSource));
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(CaretContextTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testCachedCaretContextAnswersFactoryCheck() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        JavaSource.forDocument(document).runUserActionTask(controller -> {
+            controller.toPhase(JavaSource.Phase.RESOLVED);
+            CaretContext.put(document, CaretContext.compute(controller, caretPosition));
+        }, true);
+        CaretContext caretContext = CaretContext.get(document, caretPosition);
+        assertNotNull(caretContext);
+        assertTrue(caretContext.isInsideBlock());
+        assertNull(CaretContext.get(document, caretPosition + 1));
+        editorPane.setCaretPosition(caretPosition);
+        assertEquals(1, GeneratorFactories.setterInvocations().create(Lookups.singleton(editorPane)).size());
+        CaretContext.invalidate(document);
+        assertNull(CaretContext.get(document, caretPosition));
+    }
+}
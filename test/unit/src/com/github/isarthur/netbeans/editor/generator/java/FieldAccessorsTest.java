@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class FieldAccessorsTest extends NbTestCase {
+
+    private final String content =
+            "public class X {\n"
+            + "\n"
+            + "    public String getName() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+
+    public FieldAccessorsTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        FileObject root = FileUtil.toFileObject(getWorkDir());
+        FileObject java = FileUtil.createData(root, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        document = DataObject.find(java).getLookup().lookup(EditorCookie.class).openDocument();
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(FieldAccessorsTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testAccessorsAreInsertedWithTheClassRewrite() throws Exception {
+        List<FieldAccessors.Field> fields = List.of(
+                FieldAccessors.Field.create("name", "java.lang.String", false, false, false),
+                FieldAccessors.Field.create("count", "int", false, true, false),
+                FieldAccessors.Field.create("ratio", "double", false, false, true));
+        List<String> problems = new ArrayList<>();
+        String text = generate(fields, EnumSet.allOf(FieldAccessors.Kind.class), problems);
+        assertEquals("Existing getter should be kept", 1, occurrences(text, "getName()"));
+        assertTrue(text, text.contains("public X(String name, int count)"));
+        assertTrue(text, text.contains("this.name = name;"));
+        assertTrue(text, text.contains("public void setName(String name)"));
+        assertFalse("Final fields have no setter", text.contains("setCount"));
+        assertTrue(text, text.contains("public int getCount()"));
+        assertTrue(text, text.contains("public double getRatio()"));
+        assertTrue(text, text.contains("Objects.equals(this.name, other.name)"));
+        assertTrue(text, text.contains("Double.compare(this.ratio, other.ratio) == 0"));
+        assertTrue(text, text.contains("hash = 31 * hash + Integer.hashCode(this.count);"));
+        assertFalse("A final field cannot stay unassigned", text.contains("public X() {"));
+        assertEquals(List.of("The class no longer has a constructor without parameters, because the final fields "
+                + "count must be assigned by every constructor."), problems);
+    }
+
+    public void testImplicitConstructorIsKept() throws Exception {
+        List<String> problems = new ArrayList<>();
+        String text = generate(List.of(FieldAccessors.Field.create("name", "java.lang.String", false, false, false)),
+                EnumSet.of(FieldAccessors.Kind.CONSTRUCTOR), problems);
+        assertTrue(text, text.contains("public X() {"));
+        assertTrue(text, text.contains("public X(String name)"));
+        assertTrue(problems.isEmpty());
+    }
+
+    public void testBlankFinalFieldsAreConstructorParameters() throws Exception {
+        document.remove(0, document.getLength());
+        document.insertString(0, ""
+                + "public class X {\n"
+                + "\n"
+                + "    private final long id;\n"
+                + "    private final int size = 0;\n"
+                + "    private static final int MAX = 1;\n"
+                + "\n"
+                + "    public X(long id) {\n"
+                + "        this.id = id;\n"
+                + "    }\n"
+                + "}", null);
+        List<String> problems = new ArrayList<>();
+        String text = generate(List.of(FieldAccessors.Field.create("name", "java.lang.String", false, false, false)),
+                EnumSet.of(FieldAccessors.Kind.CONSTRUCTOR), problems);
+        assertTrue(text, text.contains("public X(long id, String name)"));
+        assertTrue(text, text.contains("this.id = id;\n        this.name = name;"));
+        assertFalse("The class declares its constructors", text.contains("public X() {"));
+        assertTrue(problems.isEmpty());
+    }
+
+    public void testNothingIsCreatedForInterfaces() throws Exception {
+        document.remove(0, document.getLength());
+        document.insertString(0, "public interface Y {\n}", null);
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            workingCopy.toPhase(JavaSource.Phase.PARSED);
+            CompilationUnitTree compilationUnit = workingCopy.getCompilationUnit();
+            TreePath classPath = new TreePath(new TreePath(compilationUnit), compilationUnit.getTypeDecls().get(0));
+            assertTrue(FieldAccessors.create(workingCopy, classPath,
+                    List.of(FieldAccessors.Field.create("name", "java.lang.String", true, true, true)),
+                    EnumSet.allOf(FieldAccessors.Kind.class), new ArrayList<>()).isEmpty());
+        });
+    }
+
+    private String generate(List<FieldAccessors.Field> fields, Set<FieldAccessors.Kind> kinds, List<String> problems)
+            throws Exception {
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            workingCopy.toPhase(JavaSource.Phase.RESOLVED);
+            CompilationUnitTree compilationUnit = workingCopy.getCompilationUnit();
+            ClassTree classTree = (ClassTree) compilationUnit.getTypeDecls().get(0);
+            TreeMaker make = workingCopy.getTreeMaker();
+            List<Tree> members = FieldAccessors.create(workingCopy,
+                    new TreePath(new TreePath(compilationUnit), classTree), fields, kinds, problems);
+            ClassTree newClassTree = classTree;
+            for (Tree member : members) {
+                newClassTree = make.addClassMember(newClassTree, member);
+            }
+            workingCopy.rewrite(classTree, newClassTree);
+        }).commit();
+        return document.getText(0, document.getLength());
+    }
+
+    private static int occurrences(String text, String string) {
+        int count = 0;
+        for (int index = text.indexOf(string); index >= 0; index = text.indexOf(string, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.OutputStream;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JEditorPane;
+import javax.swing.SwingUtilities;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.netbeans.spi.editor.codegen.CodeGenerator;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.Lookups;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class GeneratorFactoriesTest extends NbTestCase {
+
+    private final String content =
+            "public class X {\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        String s = null;\n"
+            + "    }\n"
+            + "}";
+    private JEditorPane editorPane;
+
+    public GeneratorFactoriesTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        FileObject root = FileUtil.toFileObject(getWorkDir());
+        FileObject java = FileUtil.createData(root, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        StyledDocument document = DataObject.find(java).getLookup().lookup(EditorCookie.class).openDocument();
+        editorPane = new JEditorPane();
+        editorPane.setDocument(document);
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(GeneratorFactoriesTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testFactoriesOfferPlaceholdersUntilInvoked() throws Exception {
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        long loadedClasses = classLoading.getTotalLoadedClassCount();
+        long start = System.nanoTime();
+        List<CodeGenerator.Factory> factories = List.of(
+                GeneratorFactories.fields(),
+                GeneratorFactories.methods(),
+                GeneratorFactories.getterInvocations(),
+                GeneratorFactories.setterInvocations(),
+                GeneratorFactories.propertyMapping(),
+                GeneratorFactories.methodInvocations(),
+                GeneratorFactories.imports());
+        getLog().println("Factories: " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) + " us, " //NOI18N
+                + (classLoading.getTotalLoadedClassCount() - loadedClasses) + " classes loaded"); //NOI18N
+        editorPane.setCaretPosition(content.indexOf("String s = null;"));
+        Lookup context = Lookups.singleton(editorPane);
+        loadedClasses = classLoading.getTotalLoadedClassCount();
+        start = System.nanoTime();
+        List<CodeGenerator> generators = new ArrayList<>();
+        for (CodeGenerator.Factory factory : factories) {
+            generators.addAll(factory.create(context));
+        }
+        getLog().println("First popup: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms, " //NOI18N
+                + (classLoading.getTotalLoadedClassCount() - loadedClasses) + " classes loaded"); //NOI18N
+        List<String> displayNames = new ArrayList<>();
+        for (CodeGenerator generator : generators) {
+            assertFalse("Generators should only be created when invoked",
+                    generator instanceof SetterInvocationGenerator || generator instanceof FieldGenerator);
+            displayNames.add(generator.getDisplayName());
+        }
+        assertTrue(displayNames.toString(), displayNames.contains("Setter Invocations..."));
+        assertTrue(displayNames.toString(), displayNames.contains("Import..."));
+    }
+
+    public void testPopupWaitsForOneTimeBudget() throws Exception {
+        List<CodeGenerator.Factory> factories = List.of(
+                GeneratorFactories.fields(),
+                GeneratorFactories.methods(),
+                GeneratorFactories.getterInvocations(),
+                GeneratorFactories.setterInvocations(),
+                GeneratorFactories.propertyMapping(),
+                GeneratorFactories.methodInvocations());
+        editorPane.setCaretPosition(content.indexOf("String s = null;"));
+        Lookup context = Lookups.singleton(editorPane);
+        long start = System.nanoTime();
+        for (CodeGenerator.Factory factory : factories) {
+            factory.create(context);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        getLog().println("Popup: " + elapsed + " ms"); //NOI18N
+        assertTrue("All factories share one check: " + elapsed + " ms", elapsed < 2 * Availability.TIME_BUDGET);
+    }
+
+    public void testInvokedGeneratorsCanCheckFromTheEventThread() throws Exception {
+        int caretPosition = content.indexOf("String s = null;");
+        JavaSource javaSource = JavaSource.forDocument(editorPane.getDocument());
+        Boolean[] insideBlock = new Boolean[2];
+        SwingUtilities.invokeAndWait(() -> {
+            insideBlock[0] = Availability.isInsideBlock(editorPane.getDocument(), javaSource, caretPosition, "X");
+            insideBlock[1] = Availability.isInsideBlock(editorPane.getDocument(), javaSource, 0, "X");
+        });
+        assertEquals(Boolean.TRUE, insideBlock[0]);
+        assertEquals(Boolean.FALSE, insideBlock[1]);
+    }
+}
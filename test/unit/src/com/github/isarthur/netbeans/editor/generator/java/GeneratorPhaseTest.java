@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.File;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class GeneratorPhaseTest extends NbTestCase {
+
+    public GeneratorPhaseTest(String name) {
+        super(name);
+    }
+
+    public void testPhaseIsRecordedWithItsPayload() throws Exception {
+        clearWorkDir();
+        File file = new File(getWorkDir(), "phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.isarthur.netbeans.editor.generator.Phase");
+            recording.start();
+            GeneratorPhase phase = GeneratorPhase.start("SetterInvocationGenerator",
+                    GeneratorPhase.Kind.TREE_BUILD, 1234);
+            phase.end(7);
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("SetterInvocationGenerator", event.getString("generator"));
+        assertEquals("TREE_BUILD", event.getString("phase"));
+        assertEquals(1234L, event.getLong("fileSize"));
+        assertEquals(7, event.getInt("memberCount"));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.GeneratorStatistics.Phase;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class GeneratorStatisticsTest extends NbTestCase {
+
+    public GeneratorStatisticsTest(String name) {
+        super(name);
+    }
+
+    public void testStatisticsAreExposedAsMBean() throws Exception {
+        GeneratorStatistics statistics = GeneratorStatistics.of(GetterInvocationGenerator.class);
+        statistics.reset();
+        statistics.invoked();
+        statistics.invoked();
+        statistics.cancelled();
+        statistics.failed();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GeneratorStatistics.DOMAIN + ":type=Generator,name=GetterInvocationGenerator");
+        assertTrue(server.isRegistered(name));
+        assertEquals(2L, server.getAttribute(name, "InvocationCount"));
+        assertEquals(1L, server.getAttribute(name, "CancelCount"));
+        assertEquals(1L, server.getAttribute(name, "FailureCount"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, statistics.getInvocationCount());
+    }
+
+    public void testLatenciesAreCountedPerBucket() {
+        GeneratorStatistics statistics = GeneratorStatistics.of(SetterInvocationGenerator.class);
+        statistics.reset();
+        long now = System.nanoTime();
+        statistics.record(Phase.COMMIT, now);
+        statistics.record(Phase.COMMIT, now - 30_000_000L);
+        statistics.record(Phase.COMMIT, now - 60_000_000_000L);
+        long[] latencies = statistics.getCommitLatencies();
+        assertEquals(statistics.getLatencyBucketBounds().length + 1, latencies.length);
+        assertEquals(1, latencies[0]);
+        assertEquals(1, latencies[5]);
+        assertEquals(1, latencies[latencies.length - 1]);
+        assertEquals(0, statistics.getAvailabilityLatencies()[0]);
+    }
+
+    public void testAvailabilityIsBufferedUntilTheGeneratorIsRegistered() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(GeneratorStatistics.DOMAIN + ":type=Generator,name=BufferedGenerator");
+        GeneratorStatistics.recordAvailability("BufferedGenerator", System.nanoTime());
+        GeneratorStatistics.recordAvailability("BufferedGenerator", System.nanoTime());
+        assertFalse("The popup does not register the MBean", server.isRegistered(name));
+        GeneratorStatistics statistics = GeneratorStatistics.of("BufferedGenerator");
+        assertTrue(server.isRegistered(name));
+        assertEquals(2, statistics.getAvailabilityLatencies()[0]);
+        GeneratorStatistics.recordAvailability("BufferedGenerator", System.nanoTime());
+        assertEquals(3, statistics.getAvailabilityLatencies()[0]);
+    }
+}
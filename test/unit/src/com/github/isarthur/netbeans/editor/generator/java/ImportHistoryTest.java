@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.util.List;
+import java.util.prefs.Preferences;
+import org.netbeans.junit.NbTestCase;
+import org.openide.util.NbPreferences;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class ImportHistoryTest extends NbTestCase {
+
+    private Preferences preferences;
+
+    public ImportHistoryTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        preferences = NbPreferences.forModule(ImportHistoryTest.class).node(getName());
+        preferences.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        preferences.removeNode();
+        super.tearDown();
+    }
+
+    public void testFrequentTypesComeFirst() {
+        ImportHistory history = new ImportHistory(preferences);
+        history.record("java.util.List");
+        history.record("java.util.Map");
+        history.record("java.util.Map");
+        assertEquals(List.of("java.util.Map", "java.util.List"), history.getTypes());
+    }
+
+    public void testRecordedTypeIsKeptWhenHistoryIsFull() {
+        ImportHistory history = new ImportHistory(preferences);
+        for (int i = 0; i < 50; i++) {
+            history.record("a.Type" + i);
+            history.record("a.Type" + i);
+        }
+        history.record("b.New");
+        List<String> types = history.getTypes();
+        assertEquals(50, types.size());
+        assertTrue(types.toString(), types.contains("b.New"));
+        history.record("b.Newer");
+        types = history.getTypes();
+        assertEquals(50, types.size());
+        assertTrue(types.toString(), types.contains("b.Newer"));
+    }
+
+    public void testProjectsWithCollidingHashCodesHaveOwnHistories() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertFalse(ImportHistory.projectKey("/projects/Aa").equals(ImportHistory.projectKey("/projects/BB")));
+        assertEquals(ImportHistory.projectKey("/projects/Aa"), ImportHistory.projectKey("/projects/Aa"));
+        assertTrue(ImportHistory.projectKey("/projects/Aa").length() <= Preferences.MAX_NAME_LENGTH);
+    }
+}
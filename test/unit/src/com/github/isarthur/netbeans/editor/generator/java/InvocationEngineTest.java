@@ -0,0 +1,217 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.MethodInvocationTree;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.junit.NbTestCase;
+import org.netbeans.junit.NbModuleSuite;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class InvocationEngineTest extends NbTestCase {
+
+    private final String content =
+            "import javax.swing.text.StyledDocument;\n"
+            + "public class X {\n"
+            + "\n"
+            + "    private int x;\n"
+            + "    private int y;\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        StyledDocument document = null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+
+    public InvocationEngineTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        JavaSource javaSource = JavaSource.forFileObject(java);
+        assertNotNull("javaSource was null", javaSource);
+        DataObject dataObject = DataObject.find(java);
+        EditorCookie editorCookie = dataObject.getLookup().lookup(EditorCookie.class);
+        document = editorCookie.openDocument();
+        document.putProperty(JavaSource.class, new WeakReference<>(javaSource));
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(InvocationEngineTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testEngineAttributesOnlyTheScopeAtTheCaret() throws Exception {
+        String other = "\n    private void bar() {\n        Runnable r = () -> undefined(1);\n    }\n";
+        document.insertString(document.getText(0, document.getLength()).lastIndexOf('}'), other, null);
+        String statement = "StyledDocument document = null;";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            assertTrue("Statements should be generated", engine.generate(workingCopy, caretPosition, "document"));
+            assertTrue("The file should not be attributed as a whole",
+                    workingCopy.getPhase().compareTo(JavaSource.Phase.RESOLVED) < 0);
+        }).commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue(text, text.contains("document.setLogicalStyle(x, null);"));
+        assertTrue(text, text.contains("undefined(1)"));
+    }
+
+    public void testEngineUpdatesPreviouslyGeneratedStatements() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int offset = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        document.insertString(offset,
+                "        document.setLogicalStyle(y, null);\n"
+                + "        document.setFoo(x);\n",
+                null);
+        int caretPosition = offset;
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            assertTrue("Block should be updated", engine.generate(workingCopy, caretPosition, "document"));
+        }).commit();
+        String expectedText =
+                "import javax.swing.text.StyledDocument;\n"
+                + "public class X {\n"
+                + "\n"
+                + "    private int x;\n"
+                + "    private int y;\n"
+                + "\n"
+                + "    public void foo() {\n"
+                + "        StyledDocument document = null;\n"
+                + "        document.setLogicalStyle(y, null);\n"
+                + "        document.setFoo(x);\n"
+                + "        document.setCharacterAttributes(x, y, null, false);\n"
+                + "        document.setParagraphAttributes(x, y, null, false);\n"
+                + "    }\n"
+                + "}";
+        assertEquals("Unknown statements should be kept", expectedText, document.getText(0, document.getLength()));
+    }
+
+    public void testOnlyConfirmedRemovalDropsStatementsOfMissingMethods() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int offset = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        document.insertString(offset,
+                "        document.insertString(0, null, null);\n"
+                + "        document.foo();\n",
+                null);
+        int caretPosition = offset;
+        MethodInvocationEngine engine = new MethodInvocationEngine();
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            engine.generate(workingCopy, caretPosition, "document", true);
+        }).commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue("Inherited methods are current", text.contains("document.insertString(0, null, null);"));
+        assertFalse("Missing methods are stale", text.contains("document.foo();"));
+    }
+
+    public void testRepeatedGenerationAddsNoDuplicates() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        JavaSource javaSource = JavaSource.forDocument(document);
+        engine.computeModifications(javaSource, caretPosition, "document").commit();
+        String text = document.getText(0, document.getLength());
+        engine.computeModifications(javaSource, caretPosition, "document").commit();
+        assertEquals("The second run should not change the block", text, document.getText(0, document.getLength()));
+    }
+
+    public void testByteAndShortParametersGetCastLiterals() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int offset = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        String declaration = "        java.nio.ByteBuffer buffer = null;\n";
+        document.insertString(offset, declaration, null);
+        int caretPosition = offset + declaration.length();
+        new MethodInvocationEngine().computeModifications(JavaSource.forDocument(document), caretPosition, "buffer")
+                .commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue(text, text.contains("buffer.put((byte) 0)"));
+        assertTrue(text, text.contains("buffer.putShort((short) 0)"));
+    }
+
+    public void testInvocationTreesAllocateLessThanPrintedMemberSelects() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int iterations = 2000;
+        long[] allocated = new long[2];
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            GenerationContext context = GenerationContext.create(workingCopy, caretPosition);
+            VariableElement variable = context.findVariable("document");
+            List<ExecutableElement> methods = new SetterInvocationEngine().getMethods(context, variable);
+            methods.forEach(context.getArgumentMatcher()::match);
+            TreeMaker make = context.getTreeMaker();
+            for (int round = 0; round < 2; round++) {
+                long start = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < iterations; i++) {
+                    for (ExecutableElement method : methods) {
+                        MethodInvocationTree invocation = make.MethodInvocation(Collections.emptyList(),
+                                make.Identifier(method), InvocationEngine.evaluateMethodArguments(context, method));
+                        make.MemberSelect(make.Identifier(variable), invocation.toString());
+                    }
+                }
+                allocated[0] = threads.getThreadAllocatedBytes(threadId) - start;
+                start = threads.getThreadAllocatedBytes(threadId);
+                for (int i = 0; i < iterations; i++) {
+                    for (ExecutableElement method : methods) {
+                        InvocationEngine.createInvocation(context, variable, method);
+                    }
+                }
+                allocated[1] = threads.getThreadAllocatedBytes(threadId) - start;
+            }
+        });
+        getLog().println("Printed member selects: " + allocated[0] + " bytes, invocation trees: " + allocated[1]
+                + " bytes for " + iterations + " rounds");
+        assertTrue("Invocation trees should allocate less than printing them", allocated[1] < allocated[0]);
+    }
+}
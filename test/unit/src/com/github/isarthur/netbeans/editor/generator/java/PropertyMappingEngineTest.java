@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.File;
+import java.io.OutputStream;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class PropertyMappingEngineTest extends NbTestCase {
+
+    private final String content =
+            "public class X {\n"
+            + "\n"
+            + "    public static class Source {\n"
+            + "        public String getName() { return null; }\n"
+            + "        public int getAge() { return 0; }\n"
+            + "        public Integer getCount() { return null; }\n"
+            + "        public Object getOwner() { return null; }\n"
+            + "        public String getExtra() { return null; }\n"
+            + "        public long getId() { return 0; }\n"
+            + "        public double getScore() { return 0; }\n"
+            + "        public String getCode() { return null; }\n"
+            + "    }\n"
+            + "\n"
+            + "    public static class Target {\n"
+            + "        public void setName(String name) {}\n"
+            + "        public void setAge(Integer age) {}\n"
+            + "        public void setCount(int count) {}\n"
+            + "        public void setOwner(String owner) {}\n"
+            + "        public void setMissing(String missing) {}\n"
+            + "        public void setId(Object id) {}\n"
+            + "        public void setScore(Number score) {}\n"
+            + "        public void setCode(int code) {}\n"
+            + "        public void setCode(String code) {}\n"
+            + "    }\n"
+            + "\n"
+            + "    public static class Other {\n"
+            + "        public void setUnknown(String unknown) {}\n"
+            + "    }\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        Source source = null;\n"
+            + "        Target target = null;\n"
+            + "        Other other = null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+    private JavaSource javaSource;
+    private int caretPosition;
+
+    public PropertyMappingEngineTest(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(PropertyMappingEngineTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        javaSource = JavaSource.forFileObject(java);
+        assertNotNull("javaSource was null", javaSource);
+        document = DataObject.find(java).getLookup().lookup(EditorCookie.class).openDocument();
+        String statement = "Other other = null;\n";
+        caretPosition = content.indexOf(statement) + statement.length();
+    }
+
+    public void testMatchedBoxedAndUnmatchedProperties() throws Exception {
+        new PropertyMappingEngine().computeModifications(javaSource, caretPosition, "source", "target").commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue(text, text.contains("target.setName(source.getName());"));
+        assertTrue("Boxing is spelled out", text.contains("target.setAge(Integer.valueOf(source.getAge()));"));
+        assertTrue("Unboxing is spelled out", text.contains("target.setCount(source.getCount().intValue());"));
+        assertTrue(text,
+                text.contains("// TODO target.setOwner(): cannot convert java.lang.Object to java.lang.String"));
+        assertTrue(text, text.contains("// TODO target.setMissing(): no matching property in source"));
+        assertTrue(text, text.contains("// TODO source.getExtra(): no matching property in target"));
+    }
+
+    public void testBoxingIntoObjectAndNumberIsSpelledOut() throws Exception {
+        new PropertyMappingEngine().computeModifications(javaSource, caretPosition, "source", "target").commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue(text, text.contains("target.setId(Long.valueOf(source.getId()));"));
+        assertTrue(text, text.contains("target.setScore(Double.valueOf(source.getScore()));"));
+    }
+
+    public void testOverloadedSetterIsMappedOnce() throws Exception {
+        new PropertyMappingEngine().computeModifications(javaSource, caretPosition, "source", "target").commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue(text, text.contains("target.setCode(source.getCode());"));
+        assertFalse(text, text.contains("target.setCode(): no matching property"));
+        assertEquals(text.indexOf("target.setCode("), text.lastIndexOf("target.setCode("));
+    }
+
+    public void testUnmatchedPropertiesAreReportedWithoutStatements() throws Exception {
+        String original = document.getText(0, document.getLength());
+        PropertyMappingEngine.Mapping mapping = new PropertyMappingEngine()
+                .computeMapping(javaSource, caretPosition, "source", "other");
+        mapping.getResult().commit();
+        assertEquals("Nothing should be inserted", original, document.getText(0, document.getLength()));
+        assertTrue(mapping.getUnmapped().contains("other.setUnknown(): no matching property in source"));
+        assertTrue(mapping.getUnmapped().contains("source.getName(): no matching property in other"));
+    }
+
+    public void testPresentSettersOnlySkipTheirOwnTodos() throws Exception {
+        document.insertString(caretPosition, "        target.setMissing(null);\n", null);
+        new PropertyMappingEngine().computeModifications(javaSource, caretPosition, "source", "target").commit();
+        String text = document.getText(0, document.getLength());
+        assertFalse(text, text.contains("// TODO target.setMissing()"));
+        assertTrue(text, text.contains("target.setName(source.getName());"));
+        assertTrue(text, text.contains("// TODO source.getExtra(): no matching property in target"));
+    }
+
+    public void testMappingAgainAddsNothing() throws Exception {
+        PropertyMappingEngine engine = new PropertyMappingEngine();
+        engine.computeModifications(javaSource, caretPosition, "source", "target").commit();
+        String text = document.getText(0, document.getLength());
+        engine.computeModifications(javaSource, caretPosition, "source", "target").commit();
+        assertEquals(text, document.getText(0, document.getLength()));
+    }
+}
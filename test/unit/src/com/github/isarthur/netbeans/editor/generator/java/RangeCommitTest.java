@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
+import org.netbeans.api.java.source.TreeMaker;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class RangeCommitTest extends NbTestCase {
+
+    private static final int METHODS = 2000;
+    private FileObject root;
+
+    public RangeCommitTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        root = FileUtil.toFileObject(getWorkDir());
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(RangeCommitTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testTrimDropsCommonPrefixAndSuffix() throws Exception {
+        String content = "public class T {\n\n    void target(StringBuilder builder) {\n        builder.setLength(0);\n"
+                + "    }\n}\n";
+        StyledDocument document = openDocument("T", content);
+        ModificationResult result = insertStatements(document, 1);
+        List<TextEdit> edits = new ArrayList<>();
+        for (TextEdit edit : TextEdit.of(result)) {
+            edits.add(edit.trim());
+        }
+        assertEquals(1, edits.size());
+        TextEdit edit = edits.get(0);
+        assertEquals("Nothing of the old text should be replaced", "", edit.getOldText());
+        assertEquals(edit.getStartOffset(), edit.getEndOffset());
+        assertEquals("builder.append(0);", edit.getNewText().trim());
+        assertEquals(result.getResultingSource(edit.getFile()), apply(content, edits));
+    }
+
+    public void testRangeCommitOnLargeFile() throws Exception {
+        StyledDocument fullDocument = openDocument("Full", createLargeClass("Full"));
+        StyledDocument rangeDocument = openDocument("Range", createLargeClass("Range"));
+        assertTrue("The file should have over 10k lines",
+                fullDocument.getDefaultRootElement().getElementCount() > 10000);
+        ModificationResult fullResult = insertStatements(fullDocument, 20);
+        ModificationResult rangeResult = insertStatements(rangeDocument, 20);
+        String text = rangeDocument.getText(0, rangeDocument.getLength());
+        int methodStart = text.indexOf("void target");
+        int methodEnd = text.indexOf("int method0");
+        int[] changed = {Integer.MAX_VALUE, 0, 0};
+        rangeDocument.addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent event) {
+                record(event);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent event) {
+                record(event);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent event) {
+            }
+
+            private void record(DocumentEvent event) {
+                changed[0] = Math.min(changed[0], event.getOffset());
+                changed[1] = Math.max(changed[1], event.getOffset() + event.getLength());
+                changed[2] += event.getLength();
+            }
+        });
+        fullResult.commit();
+        RangeCommit.commit(rangeResult, rangeDocument);
+        assertEquals(
+                fullDocument.getText(0, fullDocument.getLength()).replace("Full", "Range"),
+                rangeDocument.getText(0, rangeDocument.getLength()));
+        int methodLength = methodEnd - methodStart + rangeDocument.getLength() - text.length();
+        assertTrue("Only the target method should change",
+                changed[0] >= methodStart && changed[1] <= methodStart + methodLength);
+        assertTrue("The method should not be replaced as a whole", changed[2] < methodLength);
+    }
+
+    private StyledDocument openDocument(String name, String content) throws IOException {
+        FileObject java = FileUtil.createData(root, name + ".java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        return DataObject.find(java).getLookup().lookup(EditorCookie.class).openDocument();
+    }
+
+    private static String apply(String text, List<TextEdit> edits) {
+        StringBuilder result = new StringBuilder(text);
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            TextEdit edit = edits.get(i);
+            result.replace(edit.getStartOffset(), edit.getEndOffset(), edit.getNewText());
+        }
+        return result.toString();
+    }
+
+    private static String createLargeClass(String name) {
+        StringBuilder content = new StringBuilder("public class ").append(name).append(" {\n");
+        content.append("\n    void target(StringBuilder builder) {\n        builder.setLength(0);\n    }\n");
+        for (int i = 0; i < METHODS; i++) {
+            content.append("\n    int method").append(i).append("(int value) {\n")
+                    .append("        return value + ").append(i).append(";\n    }\n");
+        }
+        return content.append("}\n").toString();
+    }
+
+    /**
+     * Appends statements to the first method of the class the way the invocation generators do.
+     */
+    private static ModificationResult insertStatements(StyledDocument document, int count) throws IOException {
+        return JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            workingCopy.toPhase(JavaSource.Phase.RESOLVED);
+            ClassTree classTree = (ClassTree) workingCopy.getCompilationUnit().getTypeDecls().get(0);
+            MethodTree method = null;
+            for (Tree member : classTree.getMembers()) {
+                if (member.getKind() == Tree.Kind.METHOD
+                        && ((MethodTree) member).getName().contentEquals("target")) {
+                    method = (MethodTree) member;
+                    break;
+                }
+            }
+            assertNotNull(method);
+            TreeMaker make = workingCopy.getTreeMaker();
+            BlockTree body = method.getBody();
+            BlockTree newBody = body;
+            for (int i = 0; i < count; i++) {
+                StatementTree statement = make.ExpressionStatement(make.MethodInvocation(
+                        Collections.emptyList(),
+                        make.MemberSelect(make.Identifier("builder"), "append"),
+                        Collections.singletonList(make.Literal(i))));
+                newBody = make.addBlockStatement(newBody, statement);
+            }
+            workingCopy.rewrite(body, newBody);
+        });
+    }
+}
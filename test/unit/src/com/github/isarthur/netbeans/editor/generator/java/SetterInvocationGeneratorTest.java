@@ -18,12 +18,14 @@ package com.github.isarthur.netbeans.editor.generator.java;
 import java.io.File;
 import java.io.OutputStream;
 import java.lang.ref.WeakReference;
+import java.util.List;
 import javax.swing.JEditorPane;
 import javax.swing.text.StyledDocument;
 import junit.framework.Test;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.api.java.source.ModificationResult;
 import org.netbeans.junit.NbTestCase;
 import org.netbeans.junit.NbModuleSuite;
 import org.openide.cookies.EditorCookie;
@@ -108,8 +110,8 @@ public class SetterInvocationGeneratorTest extends NbTestCase {
                 + "\n"
                 + "    public void foo() {\n"
                 + "        StyledDocument document = null;\n"
-                + "        document.setCharacterAttributes(x, x, null, false);\n"
-                + "        document.setParagraphAttributes(x, x, null, false);\n"
+                + "        document.setCharacterAttributes(x, y, null, false);\n"
+                + "        document.setParagraphAttributes(x, y, null, false);\n"
                 + "        document.setLogicalStyle(x, null);\n"
                 + "    }\n"
                 + "}";
@@ -150,4 +152,55 @@ public class SetterInvocationGeneratorTest extends NbTestCase {
         String actualText = generator.getText();
         assertEquals("Text of document should not change", content, actualText);
     }
+
+    public void testEngineGeneratesSettersWithoutDialog() throws Exception {
+        String text = document.getText(0, document.getLength());
+        String statement = "StyledDocument document = null;";
+        int caretPosition = text.indexOf(statement) + statement.length();
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            assertTrue("Statements should be generated", engine.generate(workingCopy, caretPosition, "document"));
+        }).commit();
+        String expectedText =
+                "import javax.swing.text.StyledDocument;\n"
+                + "public class X {\n"
+                + "\n"
+                + "    private int x;\n"
+                + "    private int y;\n"
+                + "\n"
+                + "    public void foo() {\n"
+                + "        StyledDocument document = null;\n"
+                + "        document.setCharacterAttributes(x, y, null, false);\n"
+                + "        document.setParagraphAttributes(x, y, null, false);\n"
+                + "        document.setLogicalStyle(x, null);\n"
+                + "    }\n"
+                + "}";
+        assertEquals("Expected source text and actual source text are not equal", expectedText,
+                document.getText(0, document.getLength()));
+    }
+
+    public void testEngineIgnoresUnknownVariable() throws Exception {
+        String text = document.getText(0, document.getLength());
+        int caretPosition = text.indexOf("StyledDocument document = null;");
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+            assertFalse("Nothing should be generated", engine.generate(workingCopy, caretPosition, "missing"));
+        }).commit();
+        assertEquals("Text of document should not change", content, document.getText(0, document.getLength()));
+    }
+
+    public void testDryRunReturnsEditsWithoutChangingDocument() throws Exception {
+        String text = document.getText(0, document.getLength());
+        String statement = "StyledDocument document = null;";
+        int caretPosition = text.indexOf(statement) + statement.length();
+        ModificationResult result = new SetterInvocationEngine()
+                .computeModifications(JavaSource.forDocument(document), caretPosition, "document");
+        assertEquals("Text of document should not change", content, document.getText(0, document.getLength()));
+        List<TextEdit> edits = TextEdit.of(result);
+        assertFalse("Edits should be computed", edits.isEmpty());
+        StringBuilder newText = new StringBuilder();
+        edits.forEach(edit -> newText.append(edit.getNewText()));
+        assertTrue("Edits should contain the setter invocation",
+                newText.toString().contains("document.setLogicalStyle(x, null);"));
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbTestCase;
+import org.netbeans.junit.NbModuleSuite;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+import org.openide.util.NbPreferences;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class StatementTemplateTest extends NbTestCase {
+
+    private final String content =
+            "import javax.swing.text.StyledDocument;\n"
+            + "public class X {\n"
+            + "\n"
+            + "    private int x;\n"
+            + "    private int y;\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        StyledDocument document = null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+
+    public StatementTemplateTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        JavaSource javaSource = JavaSource.forFileObject(java);
+        assertNotNull("javaSource was null", javaSource);
+        DataObject dataObject = DataObject.find(java);
+        EditorCookie editorCookie = dataObject.getLookup().lookup(EditorCookie.class);
+        document = editorCookie.openDocument();
+        document.putProperty(JavaSource.class, new WeakReference<>(javaSource));
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(StatementTemplateTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testInvocationTemplateShapesStatements() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                "if (${target} != null) { ${target}.${method}(${args}); }");
+        try {
+            new SetterInvocationEngine()
+                    .computeModifications(JavaSource.forDocument(document), caretPosition, "document")
+                    .commit();
+        } finally {
+            NbPreferences.forModule(StatementTemplate.class).remove(StatementTemplate.INVOCATION_PREFERENCE);
+        }
+        String text = document.getText(0, document.getLength()).replaceAll("\\s+", " ");
+        assertTrue(text, text.contains("if (document != null) { document.setLogicalStyle(x, null); }"));
+    }
+
+    public void testTemplateShapedStatementsAreRecognised() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        JavaSource javaSource = JavaSource.forDocument(document);
+        NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                "if (${target} != null) { ${target}.${method}(${args}); }");
+        try {
+            new SetterInvocationEngine().computeModifications(javaSource, caretPosition, "document").commit();
+            String text = document.getText(0, document.getLength());
+            new SetterInvocationEngine().computeModifications(javaSource, caretPosition, "document").commit();
+            assertEquals("Guarded invocations should count as present", text,
+                    document.getText(0, document.getLength()));
+        } finally {
+            NbPreferences.forModule(StatementTemplate.class).remove(StatementTemplate.INVOCATION_PREFERENCE);
+        }
+    }
+
+    public void testWrappedUserCodeIsNeitherRecognisedNorRemoved() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int offset = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        String wrapped = "        if (x > 0) {\n"
+                + "            document.foo();\n"
+                + "            y = 1;\n"
+                + "        }\n";
+        document.insertString(offset, wrapped, null);
+        int caretPosition = offset;
+        NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                "if (${target} != null) { ${target}.${method}(${args}); }");
+        try {
+            MethodInvocationEngine engine = new MethodInvocationEngine();
+            JavaSource.forDocument(document).runModificationTask(workingCopy -> {
+                engine.generate(workingCopy, caretPosition, "document", true);
+            }).commit();
+            assertTrue("Statements with other code are kept", document.getText(0, document.getLength())
+                    .contains(wrapped));
+        } finally {
+            NbPreferences.forModule(StatementTemplate.class).remove(StatementTemplate.INVOCATION_PREFERENCE);
+        }
+    }
+
+    public void testUnsupportedTemplatesAreRejected() throws Exception {
+        JavaSource.forDocument(document).runUserActionTask(controller -> {
+            assertNotNull(StatementTemplate.parse(controller, StatementTemplate.DEFAULT_DECLARATION, true));
+            assertNotNull(StatementTemplate.parse(controller, "final var ${name} = ${target}.${method}(${args});",
+                    true));
+            assertNull("Arguments only fit an argument list", StatementTemplate.parse(controller, "${args};", false));
+            assertNull("Only one statement",
+                    StatementTemplate.parse(controller, "${target}.${method}(); foo();", false));
+            assertNull("No lambdas",
+                    StatementTemplate.parse(controller, "run(() -> ${target}.${method}(${args}));", false));
+        }, true);
+    }
+
+    public void testPlaceholdersAreCheckedForTheKindOfTemplate() throws Exception {
+        JavaSource.forDocument(document).runUserActionTask(controller -> {
+            assertNotNull(StatementTemplate.parse(controller, "if (${target} != null) ${target}.${method}(${args});",
+                    false));
+            assertNull("Invocations declare no variable",
+                    StatementTemplate.parse(controller, "${target}.${method}(${name});", false));
+            assertNull("Invocations declare no variable",
+                    StatementTemplate.parse(controller, StatementTemplate.DEFAULT_DECLARATION, false));
+            assertNull("The target is required", StatementTemplate.parse(controller, "foo(${args});", false));
+            assertNull("The method is required", StatementTemplate.parse(controller, "${target}.foo();", false));
+            assertNull("The method is required",
+                    StatementTemplate.parse(controller, "${type} ${name} = ${target}.foo();", true));
+        }, true);
+    }
+
+    public void testTemplatesAreParsedOncePerText() throws Exception {
+        NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                "if (${target} != null) ${target}.${method}(${args});");
+        try {
+            JavaSource.forDocument(document).runUserActionTask(controller -> {
+                StatementTemplate template =
+                        StatementTemplate.forPreference(controller, StatementTemplate.INVOCATION_PREFERENCE);
+                assertNotNull(template);
+                assertSame(template,
+                        StatementTemplate.forPreference(controller, StatementTemplate.INVOCATION_PREFERENCE));
+                NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                        "${target}.${method}(${args});");
+                assertNull("The default shape needs no template",
+                        StatementTemplate.forPreference(controller, StatementTemplate.INVOCATION_PREFERENCE));
+                NbPreferences.forModule(StatementTemplate.class).put(StatementTemplate.INVOCATION_PREFERENCE,
+                        "if (${target} == null) ${target}.${method}(${args});");
+                assertNotSame(template,
+                        StatementTemplate.forPreference(controller, StatementTemplate.INVOCATION_PREFERENCE));
+            }, true);
+        } finally {
+            NbPreferences.forModule(StatementTemplate.class).remove(StatementTemplate.INVOCATION_PREFERENCE);
+        }
+    }
+}
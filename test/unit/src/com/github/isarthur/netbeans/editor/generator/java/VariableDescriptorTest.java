@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java;
+
+import com.github.isarthur.netbeans.editor.generator.java.ui.VariableDescriptor;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.lang.model.element.ElementKind;
+import javax.swing.JEditorPane;
+import javax.swing.text.StyledDocument;
+import junit.framework.Test;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNotNull;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbTestCase;
+import org.netbeans.junit.NbModuleSuite;
+import org.openide.cookies.EditorCookie;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.openide.loaders.DataObject;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class VariableDescriptorTest extends NbTestCase {
+
+    private final String content =
+            "import javax.swing.text.StyledDocument;\n"
+            + "public class X {\n"
+            + "\n"
+            + "    private int x;\n"
+            + "    private int y;\n"
+            + "\n"
+            + "    public void foo() {\n"
+            + "        StyledDocument document = null;\n"
+            + "    }\n"
+            + "}";
+    private StyledDocument document;
+    private JEditorPane editorPane;
+
+    public VariableDescriptorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        JavaSource javaSource = JavaSource.forFileObject(java);
+        assertNotNull("javaSource was null", javaSource);
+        DataObject dataObject = DataObject.find(java);
+        EditorCookie editorCookie = dataObject.getLookup().lookup(EditorCookie.class);
+        document = editorCookie.openDocument();
+        editorPane = new JEditorPane();
+        editorPane.setDocument(document);
+        editorPane.getDocument().putProperty(JavaSource.class, new WeakReference<>(javaSource));
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(VariableDescriptorTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    public void testVariableDescriptorsDoNotKeepCompilationAlive() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        editorPane.setCaretPosition(caretPosition);
+        SetterInvocationGenerator setterGenerator = SetterInvocationGenerator.create(editorPane);
+        List<VariableDescriptor> variables = setterGenerator.getLocalMembersAndVars();
+        assertEquals(3, variables.size());
+        assertEquals("document", variables.get(0).getName());
+        assertEquals("javax.swing.text.StyledDocument", variables.get(0).getTypeName());
+        assertEquals("document : StyledDocument", variables.get(0).toString());
+        assertNull("Local variables have no handle", variables.get(0).getHandle());
+        assertEquals(ElementKind.FIELD, variables.get(1).getKind());
+        assertNull(variables.get(1).getTypeName());
+        assertEquals("int", variables.get(1).getTypeDisplayName());
+        assertNotNull("Fields are resolved through their handle", variables.get(1).getHandle());
+        JavaSource javaSource = JavaSource.forDocument(document);
+        SetterInvocationEngine engine = new SetterInvocationEngine();
+        WeakReference<?>[] compilationUnit = new WeakReference<?>[1];
+        RangeCommit.commit(javaSource.runModificationTask(workingCopy -> {
+            assertTrue(engine.generate(workingCopy, caretPosition, variables.get(0), false));
+            compilationUnit[0] = new WeakReference<>(workingCopy.getCompilationUnit());
+        }), document);
+        assertTrue(document.getText(0, document.getLength()).contains("document.setLogicalStyle("));
+        javaSource.runUserActionTask(controller -> {
+            controller.toPhase(JavaSource.Phase.RESOLVED);
+        }, true);
+        assertGC("The working copy should not outlive the generation", compilationUnit[0],
+                new HashSet<>(Arrays.asList(setterGenerator, variables)));
+        assertNotNull(setterGenerator);
+    }
+
+    public void testEngineResolvesSelectedDescriptor() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int caretPosition = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        editorPane.setCaretPosition(caretPosition);
+        VariableDescriptor variable = SetterInvocationGenerator.create(editorPane).getLocalMembersAndVars().get(0);
+        new SetterInvocationEngine()
+                .computeModifications(JavaSource.forDocument(document), caretPosition, variable, false)
+                .commit();
+        assertTrue("Setters should be generated for the selected variable",
+                document.getText(0, document.getLength()).contains("document.setLogicalStyle(x, null);"));
+    }
+
+    public void testGenerationListsStaleStatementsWithoutRemovingThem() throws Exception {
+        String statement = "StyledDocument document = null;\n";
+        int offset = document.getText(0, document.getLength()).indexOf(statement) + statement.length();
+        document.insertString(offset, "        document.foo();\n", null);
+        int caretPosition = offset;
+        editorPane.setCaretPosition(caretPosition);
+        VariableDescriptor variable = SetterInvocationGenerator.create(editorPane).getLocalMembersAndVars().get(0);
+        InvocationEngine.Generation generation = new MethodInvocationEngine()
+                .computeGeneration(JavaSource.forDocument(document), caretPosition, variable);
+        assertEquals(Collections.singletonList("document.foo();"), generation.getStaleStatements());
+        generation.getResult().commit();
+        String text = document.getText(0, document.getLength());
+        assertTrue("Methods should be generated", text.contains("document.insertString("));
+        assertTrue("Stale statements are kept until the removal is confirmed", text.contains("document.foo();"));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JCheckBox;
+import javax.swing.SwingUtilities;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class DialogPanelsTest extends NbTestCase {
+
+    public DialogPanelsTest(String name) {
+        super(name);
+    }
+
+    public void testMethodPanelIsResetAndReused() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            long start = System.nanoTime();
+            GenerateMethodPanel first = DialogPanels.acquireMethodPanel(false);
+            long cold = System.nanoTime() - start;
+            DialogPanels.releaseMethodPanel(first);
+            start = System.nanoTime();
+            GenerateMethodPanel second = DialogPanels.acquireMethodPanel(false);
+            long warm = System.nanoTime() - start;
+            DialogPanels.releaseMethodPanel(second);
+            getLog().println("GenerateMethodPanel cold: " + TimeUnit.NANOSECONDS.toMillis(cold) + " ms, warm: "
+                    + TimeUnit.NANOSECONDS.toMillis(warm) + " ms");
+            assertSame(first, second);
+            assertTrue(second.getMethodType().isEmpty());
+            assertTrue(second.getMethodName().isEmpty());
+            assertTrue(second.getMethodParameters().isEmpty());
+            assertTrue(second.getMethodTypeParameters().isEmpty());
+            assertTrue(second.getMethodThrownTypes().isEmpty());
+        });
+    }
+
+    public void testMethodPanelInUseIsNotShared() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            GenerateMethodPanel first = DialogPanels.acquireMethodPanel(false);
+            GenerateMethodPanel second = DialogPanels.acquireMethodPanel(false);
+            DialogPanels.releaseMethodPanel(second);
+            DialogPanels.releaseMethodPanel(first);
+            assertNotSame(first, second);
+        });
+    }
+
+    public void testFieldsPanelIsResetAndReused() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            long start = System.nanoTime();
+            GenerateFieldsPanel first = DialogPanels.acquireFieldsPanel();
+            long cold = System.nanoTime() - start;
+            selectCheckBoxes(first);
+            assertTrue(first.isGenerateConstructor());
+            DialogPanels.releaseFieldsPanel(first);
+            start = System.nanoTime();
+            GenerateFieldsPanel second = DialogPanels.acquireFieldsPanel();
+            long warm = System.nanoTime() - start;
+            DialogPanels.releaseFieldsPanel(second);
+            getLog().println("GenerateFieldsPanel cold: " + TimeUnit.NANOSECONDS.toMillis(cold) + " ms, warm: "
+                    + TimeUnit.NANOSECONDS.toMillis(warm) + " ms");
+            assertSame(first, second);
+            assertTrue(second.getData().isEmpty());
+            assertFalse(second.isGenerateGetters());
+            assertFalse(second.isGenerateSetters());
+            assertFalse(second.isGenerateConstructor());
+            assertFalse(second.isGenerateEqualsAndHashCode());
+        });
+    }
+
+    private static void selectCheckBoxes(Container container) {
+        for (Component component : container.getComponents()) {
+            if (component instanceof JCheckBox) {
+                ((JCheckBox) component).setSelected(true);
+            } else if (component instanceof Container) {
+                selectCheckBoxes((Container) component);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.List;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class FieldRowParserTest extends NbTestCase {
+
+    private FieldRowParser parser;
+
+    public FieldRowParserTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        parser = new FieldRowParser(List.of("package", "private", "protected", "public"), "private"); //NOI18N
+    }
+
+    public void testTabSeparatedFullRows() {
+        List<Object[]> rows = parser.parse(
+                "public\ttrue\tfalse\tno\tvolatile\tint\tcount\t0\n" //NOI18N
+                + "protected\t\tfinal\t\t\tString\tname\t\n"); //NOI18N
+        assertEquals(2, rows.size());
+        assertEquals(List.of("public", true, false, false, true, "int", "count", "0"), List.of(rows.get(0))); //NOI18N
+        assertEquals(List.of("protected", false, true, false, false, "String", "name", ""), List.of(rows.get(1))); //NOI18N
+    }
+
+    public void testShortRowsUseDefaults() {
+        List<Object[]> rows = parser.parse("type,name,value\r\njava.util.Date,created,\n\njava.math.BigDecimal,,null"); //NOI18N
+        assertEquals(2, rows.size());
+        assertEquals(List.of("private", false, true, false, false, "java.util.Date", "created", ""), //NOI18N
+                List.of(rows.get(0)));
+        assertEquals(List.of("private", false, true, false, false, "java.math.BigDecimal", "bigDecimal", "null"), //NOI18N
+                List.of(rows.get(1)));
+    }
+
+    public void testQuotedCsvCells() {
+        List<Object[]> rows = parser.parse("\"java.util.Map<String, Integer>\",counts,\"new java.util.HashMap<>()\""); //NOI18N
+        assertEquals(1, rows.size());
+        assertEquals("java.util.Map<String, Integer>", rows.get(0)[5]); //NOI18N
+        assertEquals("counts", rows.get(0)[6]); //NOI18N
+        assertEquals("new java.util.HashMap<>()", rows.get(0)[7]); //NOI18N
+    }
+
+    public void testManyRows() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append("int\tvalue").append(i).append('\n'); //NOI18N
+        }
+        assertEquals(10000, parser.parse(text.toString()).size());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class ImportTypePanelTest extends NbTestCase {
+
+    public ImportTypePanelTest(String name) {
+        super(name);
+    }
+
+    public void testSimpleNamesMatchByPrefix() {
+        assertTrue(ImportTypePanel.matches("java.util.List", ""));
+        assertTrue(ImportTypePanel.matches("java.util.List", "li"));
+        assertTrue(ImportTypePanel.matches("java.util.LinkedList", "Lin"));
+        assertFalse("Only the simple name is matched", ImportTypePanel.matches("java.util.List", "util"));
+        assertFalse(ImportTypePanel.matches("java.util.ArrayList", "List"));
+    }
+
+    public void testQualifiedNamesMatchAnywhere() {
+        assertTrue(ImportTypePanel.matches("java.util.List", "util.Li"));
+        assertTrue(ImportTypePanel.matches("java.awt.List", "AWT.list"));
+        assertFalse(ImportTypePanel.matches("java.awt.List", "util.List"));
+    }
+
+    public void testCamelCaseAndWildcardsMatchLikeGoToType() {
+        assertEquals(ClassIndex.NameKind.CAMEL_CASE, ImportTypePanel.nameKind("ArrLi"));
+        assertEquals(ClassIndex.NameKind.CAMEL_CASE, ImportTypePanel.nameKind("NPE"));
+        assertEquals(ClassIndex.NameKind.CASE_INSENSITIVE_REGEXP, ImportTypePanel.nameKind("Str*der"));
+        assertEquals(ClassIndex.NameKind.CASE_INSENSITIVE_PREFIX, ImportTypePanel.nameKind("List"));
+        assertTrue(ImportTypePanel.matches("java.util.ArrayList", "ArrLi"));
+        assertTrue(ImportTypePanel.matches("java.lang.NullPointerException", "NPE"));
+        assertFalse(ImportTypePanel.matches("java.util.LinkedList", "ArrLi"));
+        assertTrue(ImportTypePanel.matches("java.lang.StringBuilder", "str*der"));
+        assertTrue(ImportTypePanel.matches("java.lang.StringBuilder", "Str?ng"));
+        assertFalse(ImportTypePanel.matches("java.lang.String", "*Builder"));
+        assertTrue(ImportTypePanel.matches("java.util.HashMap", "util.HM"));
+    }
+
+    public void testRecentTypesAreListedInstantly() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            ImportTypePanel panel = ImportTypePanel.create(List.of("java.util.Map", "java.util.List"), null);
+            assertEquals("The most recent type is preselected", "java.util.Map", panel.getSelectedType());
+        });
+    }
+}
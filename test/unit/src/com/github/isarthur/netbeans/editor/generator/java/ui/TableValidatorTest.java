@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.Map;
+import javax.swing.table.DefaultTableModel;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class TableValidatorTest extends NbTestCase {
+
+    private DefaultTableModel model;
+    private TableValidator validator;
+
+    public TableValidatorTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        model = new DefaultTableModel(new Object[]{"Type", "Name"}, 0); //NOI18N
+        validator = new TableValidator(model, Map.of(0, Syntax::isType, 1, Syntax::isName));
+    }
+
+    public void testEmptyTableIsValid() {
+        assertTrue(validator.isValid());
+    }
+
+    public void testEditedCellIsRevalidated() {
+        model.addRow(new Object[]{"java.util.List<String>", "list"}); //NOI18N
+        assertTrue(validator.isValid());
+        model.setValueAt("1list", 0, 1); //NOI18N
+        assertFalse(validator.isValid());
+        assertFalse(validator.isValid(0, 1));
+        assertTrue(validator.isValid(0, 0));
+        model.setValueAt("list", 0, 1); //NOI18N
+        assertTrue(validator.isValid());
+    }
+
+    public void testRemovedInvalidRowNoLongerCounts() {
+        model.addRow(new Object[]{"String", "name"}); //NOI18N
+        model.addRow(new Object[]{"", ""}); //NOI18N
+        model.addRow(new Object[]{"int", "count"}); //NOI18N
+        assertFalse(validator.isValid());
+        model.removeRow(1);
+        assertTrue(validator.isValid());
+        model.setRowCount(0);
+        assertTrue(validator.isValid());
+    }
+
+    public void testManyRowsStayConsistent() {
+        for (int row = 0; row < 1000; row++) {
+            model.addRow(new Object[]{"int", "value" + row}); //NOI18N
+        }
+        model.setValueAt("", 500, 0); //NOI18N
+        assertFalse(validator.isValid());
+        model.setValueAt("long", 500, 0); //NOI18N
+        assertTrue(validator.isValid());
+    }
+}
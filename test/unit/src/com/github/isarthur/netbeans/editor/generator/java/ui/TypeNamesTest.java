@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.util.List;
+import org.netbeans.junit.NbTestCase;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class TypeNamesTest extends NbTestCase {
+
+    private TypeNames names;
+
+    public TypeNamesTest(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        names = new TypeNames();
+        names.add("List", "java.util.List"); //NOI18N
+        names.add("List", "java.awt.List"); //NOI18N
+        names.add("LinkedList", "java.util.LinkedList"); //NOI18N
+        names.add("Map", "java.util.Map"); //NOI18N
+    }
+
+    public void testFindIsCaseInsensitive() {
+        List<String> types = names.find("li", 10); //NOI18N
+        assertEquals(List.of("java.util.LinkedList", "java.util.List", "java.awt.List"), types); //NOI18N
+    }
+
+    public void testFindHonoursLimit() {
+        assertEquals(1, names.find("L", 1).size()); //NOI18N
+    }
+
+    public void testUnknownPrefixFindsNothing() {
+        assertTrue(names.find("Set", 10).isEmpty()); //NOI18N
+    }
+
+    public void testDuplicatesAreIgnored() {
+        names.add("Map", "java.util.Map"); //NOI18N
+        assertEquals(4, names.size());
+    }
+
+    public void testNamesAddedAfterALookUpAreFound() {
+        assertEquals(List.of("java.util.Map"), names.find("ma", 10)); //NOI18N
+        names.add("MapEntry", "java.util.MapEntry"); //NOI18N
+        assertEquals(List.of("java.util.Map", "java.util.MapEntry"), names.find("ma", 10)); //NOI18N
+    }
+}
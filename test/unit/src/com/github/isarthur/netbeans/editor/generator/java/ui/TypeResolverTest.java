@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Arthur Sadykov.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.isarthur.netbeans.editor.generator.java.ui;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import junit.framework.Test;
+import org.netbeans.api.java.source.JavaSource;
+import org.netbeans.junit.NbModuleSuite;
+import org.netbeans.junit.NbTestCase;
+import org.openide.filesystems.FileLock;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+/**
+ *
+ * @author Arthur Sadykov
+ */
+public class TypeResolverTest extends NbTestCase {
+
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+    private final String content =
+            "package p;\n"
+            + "\n"
+            + "import java.util.*;\n"
+            + "\n"
+            + "public class X {\n"
+            + "}";
+    private TypeResolver typeResolver;
+
+    public TypeResolverTest(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return NbModuleSuite.createConfiguration(TypeResolverTest.class)
+                .clusters("extide")
+                .clusters("ide")
+                .clusters("java")
+                .gui(false)
+                .suite();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        clearWorkDir();
+        File root = getWorkDir();
+        FileObject fo = FileUtil.toFileObject(root);
+        FileObject java = FileUtil.createData(fo, "p/X.java");
+        FileLock lock = java.lock();
+        try ( OutputStream out = java.getOutputStream(lock)) {
+            out.write(content.getBytes());
+        } finally {
+            lock.releaseLock();
+        }
+        AtomicReference<TypeResolver> resolver = new AtomicReference<>();
+        JavaSource.forFileObject(java).runUserActionTask(controller -> {
+            controller.toPhase(JavaSource.Phase.PARSED);
+            resolver.set(TypeResolver.create(controller.getClasspathInfo(), controller.getCompilationUnit()));
+        }, true);
+        typeResolver = resolver.get();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        typeResolver.cancel();
+        super.tearDown();
+    }
+
+    public void testKnownTypesAreResolvedAndQualified() throws Exception {
+        assertEquals(TypeResolver.State.RESOLVED, awaitResolution("List<String>"));
+        assertEquals("java.util.List<java.lang.String>", typeResolver.qualify("List<String>", Collections.emptySet()));
+    }
+
+    public void testUnknownTypesAreNeverTreatedAsResolved() throws Exception {
+        assertEquals(TypeResolver.State.UNRESOLVED, awaitResolution("NoSuchTypeAnywhere"));
+    }
+
+    public void testTypeVariablesAndPrimitivesNeedNoLookUp() {
+        assertEquals(TypeResolver.State.RESOLVED, typeResolver.check("T[]", Collections.singleton("T")));
+        assertEquals(TypeResolver.State.RESOLVED, typeResolver.check("int", Collections.emptySet()));
+    }
+
+    /**
+     * Checks the type until the names are looked up, the look-up may have to wait for the initial scan.
+     */
+    private TypeResolver.State awaitResolution(String type) throws InterruptedException {
+        Semaphore changes = new Semaphore(0);
+        typeResolver.addChangeListener(e -> changes.release());
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        TypeResolver.State state = typeResolver.check(type, Collections.emptySet());
+        while (state == TypeResolver.State.PENDING && System.currentTimeMillis() < deadline) {
+            changes.tryAcquire(1, TimeUnit.SECONDS);
+            state = typeResolver.check(type, Collections.emptySet());
+        }
+        return state;
+    }
+}